@@ -31,6 +31,7 @@ import static org.onosproject.net.packet.PacketProcessor.DIRECTOR_MAX;
 public class PacketProcessorsListCommand extends AbstractShellCommand {
 
     private static final String FMT = "priority=%s, class=%s, packets=%d, avgNanos=%d";
+    private static final String FILTER_FMT = FMT + ", filter=%s";
 
     @Override
     protected void execute() {
@@ -44,9 +45,16 @@ public class PacketProcessorsListCommand extends AbstractShellCommand {
     }
 
     private void print(PacketProcessorEntry entry) {
-        print(FMT, priorityFormat(entry.priority()),
-              entry.processor().getClass().getName(),
-              entry.invocations(), entry.averageNanos());
+        if (entry.filter().criteria().isEmpty()) {
+            print(FMT, priorityFormat(entry.priority()),
+                  entry.processor().getClass().getName(),
+                  entry.invocations(), entry.averageNanos());
+        } else {
+            print(FILTER_FMT, priorityFormat(entry.priority()),
+                  entry.processor().getClass().getName(),
+                  entry.invocations(), entry.averageNanos(),
+                  entry.filter().criteria());
+        }
     }
 
     private String priorityFormat(int priority) {
@@ -26,6 +26,7 @@ import org.onosproject.cluster.NodeId;
 import org.onosproject.store.primitives.PartitionAdminService;
 import org.onosproject.store.service.PartitionClientInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.onosproject.store.service.PartitionLoadInfo;
 import org.onosproject.store.service.StorageAdminService;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -46,8 +47,14 @@ public class PartitionsListCommand extends AbstractShellCommand {
             required = false, multiValued = false)
     private boolean reportClientInfo = false;
 
+    @Option(name = "-l", aliases = "--load",
+            description = "Show request rates and commit latencies of partitions",
+            required = false, multiValued = false)
+    private boolean reportLoad = false;
+
     private static final String SERVER_FMT = "%-20s %8s %25s %s";
     private static final String CLIENT_FMT = "%-20s %8s %10s %25s";
+    private static final String LOAD_FMT = "%-20s %12s %12s %12s %12s";
 
     /**
      * Displays partition info as text.
@@ -113,6 +120,29 @@ public class PartitionsListCommand extends AbstractShellCommand {
         }
     }
 
+    /**
+     * Displays partition load info as text.
+     *
+     * @param partitionLoad partition load information
+     */
+    private void displayPartitionLoad(List<PartitionLoadInfo> partitionLoad) {
+        if (partitionLoad.isEmpty()) {
+            return;
+        }
+        print("-------------------------------------------------------------------------------");
+        print(LOAD_FMT, "Name", "Commands/s", "Queries/s", "Commit(ms)", "Commit99(ms)");
+        print("-------------------------------------------------------------------------------");
+
+        for (PartitionLoadInfo info : partitionLoad) {
+            print(LOAD_FMT, info.partitionId(),
+                  String.format("%.2f", info.commandRate()),
+                  String.format("%.2f", info.queryRate()),
+                  String.format("%.2f", info.meanCommitLatency()),
+                  String.format("%.2f", info.commitLatency99()));
+        }
+        print("-------------------------------------------------------------------------------");
+    }
+
     /**
      * Converts partition info into a JSON object.
      *
@@ -136,7 +166,9 @@ public class PartitionsListCommand extends AbstractShellCommand {
                 // Complete the partition attributes and add it to the array
                 partition.put("name", info.name())
                          .put("term", info.term())
-                         .put("leader", info.leader());
+                         .put("leader", info.leader())
+                         .put("logSize", info.logSize())
+                         .put("catchUpTime", info.catchUpTime());
                 partitions.add(partition);
 
             });
@@ -178,10 +210,41 @@ public class PartitionsListCommand extends AbstractShellCommand {
         return partitions;
     }
 
+    /**
+     * Converts partition load info into a JSON object.
+     *
+     * @param partitionLoad partition load descriptions
+     */
+    private JsonNode jsonForLoad(List<PartitionLoadInfo> partitionLoad) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode partitions = mapper.createArrayNode();
+
+        partitionLoad.forEach(info -> {
+            ObjectNode partition = mapper.createObjectNode();
+            partition.put("partitionId", info.partitionId().toString())
+                     .put("commandCount", info.commandCount())
+                     .put("commandRate", info.commandRate())
+                     .put("queryCount", info.queryCount())
+                     .put("queryRate", info.queryRate())
+                     .put("meanCommitLatency", info.meanCommitLatency())
+                     .put("commitLatency99", info.commitLatency99());
+            partitions.add(partition);
+        });
+
+        return partitions;
+    }
+
     @Override
     protected void execute() {
         StorageAdminService storageAdminService = get(StorageAdminService.class);
-        if (reportClientInfo) {
+        if (reportLoad) {
+            List<PartitionLoadInfo> partitionLoad = storageAdminService.getPartitionLoad();
+            if (outputJson()) {
+                print("%s", jsonForLoad(partitionLoad));
+            } else {
+                displayPartitionLoad(partitionLoad);
+            }
+        } else if (reportClientInfo) {
             PartitionAdminService partitionAdminService = get(PartitionAdminService.class);
             List<PartitionClientInfo> partitionClientInfo = partitionAdminService.partitionClientInfo();
             if (outputJson()) {
@@ -20,9 +20,11 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.CacheStats;
 import org.apache.karaf.shell.commands.Command;
 import org.apache.karaf.shell.commands.Option;
 import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.net.topology.Topology;
 import org.onosproject.net.topology.TopologyProvider;
 import org.onosproject.net.topology.TopologyService;
@@ -35,6 +37,7 @@ description = "Lists summary of the current topology")
 public class TopologyCommand extends AbstractShellCommand {
 
     private static final String FMT = "created=%s, uptime=%s, devices=%d, links=%d, clusters=%d";
+    private static final String PATH_CACHE_FMT = "pathCache: hits=%d, misses=%d, hitRatio=%.2f, evictions=%d";
 
     @Option(name = "-r", aliases = "--recompute",
             description = "Trigger topology re-computation", required = false,
@@ -68,6 +71,11 @@ public class TopologyCommand extends AbstractShellCommand {
                     formatElapsedTime(topologyUptime),
                     topology.deviceCount(), topology.linkCount(),
                     topology.clusterCount());
+            if (topology instanceof DefaultTopology) {
+                CacheStats stats = ((DefaultTopology) topology).pathCacheStats();
+                print(PATH_CACHE_FMT, stats.hitCount(), stats.missCount(),
+                      stats.hitRate(), stats.evictionCount());
+            }
         }
     }
 
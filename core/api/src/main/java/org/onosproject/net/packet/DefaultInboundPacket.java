@@ -15,14 +15,20 @@
  */
 package org.onosproject.net.packet;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import org.onosproject.net.ConnectPoint;
+import org.onlab.packet.DeserializationException;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Default implementation of an immutable inbound packet.
@@ -30,9 +36,10 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 public final class DefaultInboundPacket implements InboundPacket {
 
     private final ConnectPoint receivedFrom;
-    private final Ethernet parsed;
+    private final Supplier<Ethernet> parsed;
     private final ByteBuffer unparsed;
     private final Optional<Long> cookie;
+    private final EthernetView header;
 
     /**
      * Creates an immutable inbound packet.
@@ -57,9 +64,39 @@ public final class DefaultInboundPacket implements InboundPacket {
     public DefaultInboundPacket(ConnectPoint receivedFrom, Ethernet parsed,
             ByteBuffer unparsed, Optional<Long> cookie) {
         this.receivedFrom = receivedFrom;
-        this.parsed = parsed;
+        this.parsed = Suppliers.ofInstance(parsed);
         this.unparsed = unparsed;
         this.cookie = cookie;
+        this.header = null;
+    }
+
+    /**
+     * Creates an immutable inbound packet with cookie, parsed lazily from
+     * the raw bytes when its parsed form is first requested.
+     *
+     * @param receivedFrom connection point where received
+     * @param unparsed     unparsed raw bytes
+     * @param cookie       cookie
+     */
+    public DefaultInboundPacket(ConnectPoint receivedFrom, ByteBuffer unparsed,
+                                Optional<Long> cookie) {
+        this.receivedFrom = receivedFrom;
+        this.unparsed = unparsed;
+        this.cookie = cookie;
+        this.header = EthernetView.valueOf(unparsed);
+        this.parsed = Suppliers.memoize(() -> parse(header));
+    }
+
+    private static Ethernet parse(EthernetView header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return header.parse();
+        } catch (BufferUnderflowException | DeserializationException e) {
+            getLogger(DefaultInboundPacket.class).error("packet deserialization problem : {}", e.getMessage());
+            return null;
+        }
     }
 
     @Override
@@ -69,7 +106,12 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public Ethernet parsed() {
-        return parsed;
+        return parsed.get();
+    }
+
+    @Override
+    public EthernetView header() {
+        return header != null ? header : InboundPacket.super.header();
     }
 
     @Override
@@ -85,7 +127,7 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public int hashCode() {
-        return Objects.hash(receivedFrom, parsed, unparsed);
+        return Objects.hash(receivedFrom, parsed(), unparsed);
     }
 
     @Override
@@ -96,7 +138,7 @@ public final class DefaultInboundPacket implements InboundPacket {
         if (obj instanceof InboundPacket) {
             final DefaultInboundPacket other = (DefaultInboundPacket) obj;
             return Objects.equals(this.receivedFrom, other.receivedFrom) &&
-                    Objects.equals(this.parsed, other.parsed) &&
+                    Objects.equals(this.parsed(), other.parsed()) &&
                     Objects.equals(this.unparsed, other.unparsed);
         }
         return false;
@@ -106,7 +148,7 @@ public final class DefaultInboundPacket implements InboundPacket {
     public String toString() {
         return toStringHelper(this)
                 .add("receivedFrom", receivedFrom)
-                .add("parsed", parsed)
+                .add("parsed", parsed())
                 .toString();
     }
 }
@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -41,6 +42,19 @@ public interface InboundPacket {
      */
     Ethernet parsed();
 
+    /**
+     * Returns a view of the packet Ethernet header, read on demand from the
+     * unparsed packet data. Processors that only need the L2 header fields
+     * should prefer it over the parsed form, which decodes the whole packet.
+     *
+     * @return Ethernet frame view; null if the packet is too short to be an
+     * Ethernet frame
+     */
+    default EthernetView header() {
+        ByteBuffer unparsed = unparsed();
+        return unparsed == null ? null : EthernetView.valueOf(unparsed);
+    }
+
     /**
      * Unparsed packet data.
      *
@@ -15,6 +15,9 @@
  */
 package org.onosproject.net.packet;
 
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.TrafficSelector;
+
 /**
  * Packet processor entry tracking the processor, its priority and
  * time consumption.
@@ -35,6 +38,16 @@ public interface PacketProcessorEntry {
      */
     int priority();
 
+    /**
+     * Returns the filter of the packets handed to the processor.
+     *
+     * @return packet filter; empty selector if the processor receives all
+     * packets
+     */
+    default TrafficSelector filter() {
+        return DefaultTrafficSelector.emptySelector();
+    }
+
     /**
      * Returns the number of invocations.
      *
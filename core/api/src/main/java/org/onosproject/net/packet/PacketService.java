@@ -43,7 +43,22 @@ public interface PacketService {
      */
     void addProcessor(PacketProcessor processor, int priority);
 
-    // TODO allow processors to register for particular types of packets
+    /**
+     * Adds the specified processor to the list of packet processors, only
+     * handing it the packets which match the given filter. The filter may
+     * match on the Ethernet type, the IP protocol and the TCP or UDP ports
+     * of the packets. By default the filter is ignored and the processor
+     * receives all packets.
+     *
+     * @param processor processor to be added
+     * @param priority  priority in the reverse natural order
+     * @param filter    filter of the packets to be processed
+     * @throws java.lang.IllegalArgumentException if the filter has criteria
+     *                                            other than the supported ones
+     */
+    default void addProcessor(PacketProcessor processor, int priority, TrafficSelector filter) {
+        addProcessor(processor, priority);
+    }
 
     /**
      * Removes the specified processor from the processing pipeline.
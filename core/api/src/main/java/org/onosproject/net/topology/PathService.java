@@ -32,7 +32,8 @@ public interface PathService {
     /**
      * Returns the set of all shortest paths between the specified source and
      * destination elements. The path is computed using the default edge-weight
-     * function, which by default is hop-count.
+     * function, which by default is hop-count. Paths computed in terms of
+     * hop-count may be cached for as long as the topology is current.
      *
      * @param src source element
      * @param dst destination element
@@ -43,7 +44,8 @@ public interface PathService {
     /**
      * Returns the set of all shortest paths between the specified source and
      * destination network elements.  The path is computed using the supplied
-     * edge-weight function.
+     * edge-weight function; such paths are not cached, so the function may
+     * reflect state that changes between calls.
      *
      * @param src    source element
      * @param dst    destination element
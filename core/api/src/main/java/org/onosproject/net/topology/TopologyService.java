@@ -91,7 +91,10 @@ public interface TopologyService
 
     /**
      * Returns the set of all shortest paths, precomputed in terms of hop-count,
-     * between the specified source and destination devices.
+     * between the specified source and destination devices. Such paths may be
+     * cached for as long as the topology is current, unless a default
+     * edge-weight entity has been set, in which case they are computed anew
+     * on every call.
      *
      * @param topology topology descriptor
      * @param src      source device
@@ -103,6 +106,8 @@ public interface TopologyService
     /**
      * Returns the set of all shortest paths, computed using the supplied
      * edge-weight entity, between the specified source and destination devices.
+     * Such paths are not cached, so the entity may reflect state that changes
+     * between calls.
      *
      * @param topology topology descriptor
      * @param src      source device
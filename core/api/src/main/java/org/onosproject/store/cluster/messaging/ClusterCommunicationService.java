@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -157,6 +158,51 @@ public interface ClusterCommunicationService {
                            Consumer<M> handler,
                            Executor executor);
 
+    /**
+     * Adds a new subscriber for the specified message subject, whose decoder
+     * reads the incoming message straight from the receive buffer.
+     * <p>
+     * The buffer given to the decoder is only valid for the duration of the
+     * call and must not be retained.
+     * </p>
+     *
+     * @param subject message subject
+     * @param decoder decoder for resurrecting incoming message from a buffer
+     * @param handler handler function that processes the incoming message and produces a reply
+     * @param encoder encoder for serializing reply
+     * @param executor executor to run this handler on
+     * @param <M> incoming message type
+     * @param <R> reply message type
+     */
+    default <M, R> void addBufferSubscriber(MessageSubject subject,
+                                            Function<ByteBuffer, M> decoder,
+                                            Function<M, R> handler,
+                                            Function<R, byte[]> encoder,
+                                            Executor executor) {
+        addSubscriber(subject, bytes -> decoder.apply(ByteBuffer.wrap(bytes)), handler, encoder, executor);
+    }
+
+    /**
+     * Adds a new subscriber for the specified message subject, whose decoder
+     * reads the incoming message straight from the receive buffer.
+     * <p>
+     * The buffer given to the decoder is only valid for the duration of the
+     * call and must not be retained.
+     * </p>
+     *
+     * @param subject message subject
+     * @param decoder decoder for resurrecting incoming message from a buffer
+     * @param handler handler for handling message
+     * @param executor executor to run this handler on
+     * @param <M> incoming message type
+     */
+    default <M> void addBufferSubscriber(MessageSubject subject,
+                                         Function<ByteBuffer, M> decoder,
+                                         Consumer<M> handler,
+                                         Executor executor) {
+        addSubscriber(subject, bytes -> decoder.apply(ByteBuffer.wrap(bytes)), handler, executor);
+    }
+
     /**
      * Removes a subscriber for the specified message subject.
      *
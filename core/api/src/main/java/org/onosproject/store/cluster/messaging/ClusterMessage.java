@@ -140,7 +140,16 @@ public class ClusterMessage {
      * @return cluster message
      */
     public static ClusterMessage fromBytes(byte[] bytes) {
-        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return fromBytes(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a new ClusterMessage from the remaining bytes of a buffer.
+     * Only the message payload is copied out of the buffer.
+     * @param buffer buffer positioned at the start of the message
+     * @return cluster message
+     */
+    public static ClusterMessage fromBytes(ByteBuffer buffer) {
         byte[] senderBytes = new byte[buffer.getInt()];
         buffer.get(senderBytes);
         byte[] subjectBytes = new byte[buffer.getInt()];
@@ -153,6 +162,23 @@ public class ClusterMessage {
                 payloadBytes);
     }
 
+    /**
+     * Returns a view of the payload of a ClusterMessage encoded in a buffer,
+     * without decoding the sender and subject or copying the payload.
+     * @param buffer buffer positioned at the start of the message
+     * @return payload view sharing the content of the buffer
+     */
+    public static ByteBuffer payloadOf(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        int senderLength = view.getInt();
+        view.position(view.position() + senderLength);
+        int subjectLength = view.getInt();
+        view.position(view.position() + subjectLength);
+        int payloadLength = view.getInt();
+        view.limit(view.position() + payloadLength);
+        return view.slice();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(sender, subject, payload);
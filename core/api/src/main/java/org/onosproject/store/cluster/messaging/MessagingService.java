@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
@@ -77,6 +78,48 @@ public interface MessagingService {
      */
     void registerHandler(String type, BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> handler);
 
+    /**
+     * Registers a new message handler for message type that reads the payload
+     * in place. The buffer is only valid for the duration of the handler
+     * invocation; handlers that need the bytes afterwards must copy them.
+     *
+     * @param type message type.
+     * @param handler message handler
+     * @param executor executor to use for running message handler logic.
+     */
+    default void registerBufferHandler(String type, BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+        registerHandler(type, (BiConsumer<Endpoint, byte[]>) (ep, payload) ->
+                handler.accept(ep, ByteBuffer.wrap(payload)), executor);
+    }
+
+    /**
+     * Registers a new message handler for message type that reads the payload
+     * in place. The buffer is only valid for the duration of the handler
+     * invocation; handlers that need the bytes afterwards must copy them.
+     *
+     * @param type message type.
+     * @param handler message handler
+     * @param executor executor to use for running message handler logic.
+     */
+    default void registerBufferHandler(String type, BiFunction<Endpoint, ByteBuffer, byte[]> handler,
+                                       Executor executor) {
+        registerHandler(type, (BiFunction<Endpoint, byte[], byte[]>) (ep, payload) ->
+                handler.apply(ep, ByteBuffer.wrap(payload)), executor);
+    }
+
+    /**
+     * Registers a new message handler for message type that reads the payload
+     * in place. The buffer is only valid until the handler returns, even
+     * though the response may be completed later.
+     *
+     * @param type message type.
+     * @param handler message handler
+     */
+    default void registerBufferHandler(String type,
+                                       BiFunction<Endpoint, ByteBuffer, CompletableFuture<byte[]>> handler) {
+        registerHandler(type, (ep, payload) -> handler.apply(ep, ByteBuffer.wrap(payload)));
+    }
+
     /**
      * Unregister current handler, if one exists for message type.
      * @param type message type
@@ -85,6 +85,11 @@ public class DefaultConsistentMap<K, V> extends Synchronous<AsyncConsistentMap<K
         return complete(asyncMap.get(key));
     }
 
+    @Override
+    public Map<K, Versioned<V>> getAll(Set<K> keys) {
+        return complete(asyncMap.getAll(keys));
+    }
+
     @Override
     public Versioned<V> computeIfAbsent(K key,
             Function<? super K, ? extends V> mappingFunction) {
@@ -123,11 +128,21 @@ public class DefaultConsistentMap<K, V> extends Synchronous<AsyncConsistentMap<K
         return complete(asyncMap.putAndGet(key, value));
     }
 
+    @Override
+    public void putAll(Map<K, V> entries) {
+        complete(asyncMap.putAll(entries));
+    }
+
     @Override
     public Versioned<V> remove(K key) {
         return complete(asyncMap.remove(key));
     }
 
+    @Override
+    public void removeAll(Set<K> keys) {
+        complete(asyncMap.removeAll(keys));
+    }
+
     @Override
     public void clear() {
         complete(asyncMap.clear());
@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.onosproject.store.service.PartitionClientInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.onosproject.store.service.PartitionLoadInfo;
 
 /**
  * Administrative interface for partition membership changes.
@@ -36,4 +37,10 @@ public interface PartitionAdminService {
      * @return list of {@code PartitionClientInfo}
      */
     List<PartitionClientInfo> partitionClientInfo();
+
+    /**
+     * Returns the {@link PartitionLoadInfo load} put on partitions by this node.
+     * @return list of {@code PartitionLoadInfo}
+     */
+    List<PartitionLoadInfo> partitionLoad();
 }
\ No newline at end of file
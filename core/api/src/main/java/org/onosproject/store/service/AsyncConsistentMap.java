@@ -17,6 +17,7 @@
 package org.onosproject.store.service;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -29,6 +30,7 @@ import java.util.function.Predicate;
 import org.onosproject.store.primitives.DefaultConsistentMap;
 import org.onosproject.store.primitives.TransactionId;
 
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
 
 /**
@@ -109,6 +111,29 @@ public interface AsyncConsistentMap<K, V> extends DistributedPrimitive {
      */
     CompletableFuture<Versioned<V>> get(K key);
 
+    /**
+     * Returns the values (and versions) to which the specified keys are mapped.
+     * Keys for which this map contains no mapping are absent from the result.
+     * <p>
+     * Implementations are expected to look up all keys that reside in the same
+     * partition with a single request.
+     * </p>
+     *
+     * @param keys the keys whose associated values (and versions) are to be returned
+     * @return a future map of keys to the values (and versions) they are mapped to
+     */
+    default CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        Map<K, Versioned<V>> values = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(keys.stream()
+                                           .map(key -> get(key).thenAccept(value -> {
+                                               if (value != null) {
+                                                   values.put(key, value);
+                                               }
+                                           }))
+                                           .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> values);
+    }
+
     /**
      * If the specified key is not already associated with a value (or is mapped to null),
      * attempts to compute its value using the given mapping function and enters it into
@@ -193,6 +218,25 @@ public interface AsyncConsistentMap<K, V> extends DistributedPrimitive {
      */
     CompletableFuture<Versioned<V>> putAndGet(K key, V value);
 
+    /**
+     * Associates each of the specified values with its key in this map (optional operation),
+     * replacing any previous values.
+     * <p>
+     * Implementations are expected to apply all updates that reside in the same
+     * partition with a single request, atomically. Updates to different partitions
+     * are applied independently of each other.
+     * </p>
+     *
+     * @param entries keys and the values to be associated with them
+     * @return future that will be completed when all values are stored
+     */
+    default CompletableFuture<Void> putAll(Map<K, V> entries) {
+        return CompletableFuture.allOf(entries.entrySet()
+                                              .stream()
+                                              .map(entry -> put(entry.getKey(), entry.getValue()))
+                                              .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Removes the mapping for a key from this map if it is present (optional operation).
      *
@@ -202,6 +246,23 @@ public interface AsyncConsistentMap<K, V> extends DistributedPrimitive {
      */
     CompletableFuture<Versioned<V>> remove(K key);
 
+    /**
+     * Removes the mappings for the specified keys from this map if present (optional operation).
+     * <p>
+     * Implementations are expected to remove all keys that reside in the same
+     * partition with a single request, atomically. Keys in different partitions
+     * are removed independently of each other.
+     * </p>
+     *
+     * @param keys keys whose values are to be removed from the map
+     * @return future that will be completed when all keys are removed
+     */
+    default CompletableFuture<Void> removeAll(Set<K> keys) {
+        return CompletableFuture.allOf(keys.stream()
+                                           .map(this::remove)
+                                           .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Removes all of the mappings from this map (optional operation).
      * The map will be empty after this call returns.
@@ -17,6 +17,7 @@
 package org.onosproject.store.service;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -76,6 +77,24 @@ public interface ConsistentMap<K, V> extends DistributedPrimitive {
      */
     Versioned<V> get(K key);
 
+    /**
+     * Returns the values (and versions) to which the specified keys are mapped.
+     * Keys for which this map contains no mapping are absent from the result.
+     *
+     * @param keys the keys whose associated values (and versions) are to be returned
+     * @return map of keys to the values (and versions) they are mapped to
+     */
+    default Map<K, Versioned<V>> getAll(Set<K> keys) {
+        Map<K, Versioned<V>> values = new HashMap<>();
+        keys.forEach(key -> {
+            Versioned<V> value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
     /**
      * If the specified key is not already associated with a value (or is mapped to null),
      * attempts to compute its value using the given mapping function and enters it into
@@ -157,6 +176,16 @@ public interface ConsistentMap<K, V> extends DistributedPrimitive {
      */
     Versioned<V> putAndGet(K key, V value);
 
+    /**
+     * Associates each of the specified values with its key in this map (optional operation),
+     * replacing any previous values.
+     *
+     * @param entries keys and the values to be associated with them
+     */
+    default void putAll(Map<K, V> entries) {
+        entries.forEach(this::put);
+    }
+
     /**
      * Removes the mapping for a key from this map if it is present (optional operation).
      *
@@ -166,6 +195,15 @@ public interface ConsistentMap<K, V> extends DistributedPrimitive {
      */
     Versioned<V> remove(K key);
 
+    /**
+     * Removes the mappings for the specified keys from this map if present (optional operation).
+     *
+     * @param keys keys whose values are to be removed from the map
+     */
+    default void removeAll(Set<K> keys) {
+        keys.forEach(this::remove);
+    }
+
     /**
      * Removes all of the mappings from this map (optional operation).
      * The map will be empty after this call returns.
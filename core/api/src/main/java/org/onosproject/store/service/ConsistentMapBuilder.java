@@ -17,6 +17,11 @@ package org.onosproject.store.service;
 
 import org.onosproject.store.primitives.DistributedPrimitiveBuilder;
 
+import java.util.function.ToIntBiFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Builder for {@link ConsistentMap} instances.
  *
@@ -27,6 +32,8 @@ public abstract class ConsistentMapBuilder<K, V>
     extends DistributedPrimitiveBuilder<ConsistentMapBuilder<K, V>, ConsistentMap<K, V>> {
 
     private boolean purgeOnUninstall = false;
+    private long cacheSize = 0;
+    private ToIntBiFunction<? super K, ? super V> cacheWeigher;
 
     public ConsistentMapBuilder() {
         super(DistributedPrimitive.Type.CONSISTENT_MAP);
@@ -50,6 +57,56 @@ public abstract class ConsistentMapBuilder<K, V>
         return purgeOnUninstall;
     }
 
+    /**
+     * Caches up to the given number of entries locally. Implies
+     * {@link #withRelaxedReadConsistency() relaxed read consistency}.
+     *
+     * @param cacheSize maximum number of cached entries
+     * @return this builder
+     */
+    public ConsistentMapBuilder<K, V> withCacheSize(long cacheSize) {
+        checkArgument(cacheSize > 0, "Cache size must be positive");
+        this.cacheSize = cacheSize;
+        this.cacheWeigher = null;
+        return withRelaxedReadConsistency();
+    }
+
+    /**
+     * Caches entries locally up to the given total weight, as computed by the
+     * given weigher for each entry. Implies
+     * {@link #withRelaxedReadConsistency() relaxed read consistency}.
+     *
+     * @param weigher function computing the weight of an entry
+     * @param maxWeight maximum total weight of cached entries
+     * @return this builder
+     */
+    public ConsistentMapBuilder<K, V> withCacheWeigher(ToIntBiFunction<? super K, ? super V> weigher,
+                                                       long maxWeight) {
+        checkArgument(maxWeight > 0, "Cache weight must be positive");
+        this.cacheWeigher = checkNotNull(weigher);
+        this.cacheSize = maxWeight;
+        return withRelaxedReadConsistency();
+    }
+
+    /**
+     * Returns the maximum number of cached entries, or the maximum total
+     * weight of cached entries if a weigher is configured.
+     *
+     * @return cache size; 0 for the default size
+     */
+    public long cacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Returns the function computing the weight of cached entries.
+     *
+     * @return cache weigher; null if the cache is bounded by number of entries
+     */
+    public ToIntBiFunction<? super K, ? super V> cacheWeigher() {
+        return cacheWeigher;
+    }
+
     /**
      * Builds an async consistent map based on the configuration options
      * supplied to this builder.
@@ -27,6 +27,8 @@ public class PartitionInfo {
     private final long term;
     private final List<String> members;
     private final String leader;
+    private final long logSize;
+    private final long catchUpTime;
 
     /**
      * Class constructor.
@@ -37,10 +39,28 @@ public class PartitionInfo {
      * @param leader leader name
      */
     public PartitionInfo(String name, long term, List<String> members, String leader) {
+        this(name, term, members, leader, 0, -1);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param name partition name
+     * @param term term number
+     * @param members partition members
+     * @param leader leader name
+     * @param logSize size of the local partition log in bytes
+     * @param catchUpTime time in milliseconds it took the local server to
+     *                    catch up with the partition; -1 if not known
+     */
+    public PartitionInfo(String name, long term, List<String> members, String leader,
+                         long logSize, long catchUpTime) {
         this.name = name;
         this.term = term;
         this.members = ImmutableList.copyOf(members);
         this.leader = leader;
+        this.logSize = logSize;
+        this.catchUpTime = catchUpTime;
     }
 
     /**
@@ -78,4 +98,23 @@ public class PartitionInfo {
     public String leader() {
         return leader;
     }
+
+    /**
+     * Returns the size of the local partition log.
+     *
+     * @return log size in bytes
+     */
+    public long logSize() {
+        return logSize;
+    }
+
+    /**
+     * Returns the time it took the local server to catch up with the
+     * partition when last started.
+     *
+     * @return catch up time in milliseconds; -1 if not known
+     */
+    public long catchUpTime() {
+        return catchUpTime;
+    }
 }
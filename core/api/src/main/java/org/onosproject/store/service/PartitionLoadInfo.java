@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+import org.onosproject.cluster.PartitionId;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Contains statistics about the requests issued to a database partition by
+ * the local node.
+ */
+public class PartitionLoadInfo {
+    private final PartitionId partitionId;
+    private final long commandCount;
+    private final double commandRate;
+    private final long queryCount;
+    private final double queryRate;
+    private final double meanCommitLatency;
+    private final double commitLatency99;
+
+    /**
+     * Class constructor.
+     *
+     * @param partitionId partition identifier
+     * @param commandCount number of commands submitted
+     * @param commandRate commands submitted per second over the last minute
+     * @param queryCount number of queries submitted
+     * @param queryRate queries submitted per second over the last minute
+     * @param meanCommitLatency mean command commit latency in milliseconds
+     * @param commitLatency99 99th percentile of command commit latency in
+     *                        milliseconds
+     */
+    public PartitionLoadInfo(PartitionId partitionId,
+                             long commandCount, double commandRate,
+                             long queryCount, double queryRate,
+                             double meanCommitLatency, double commitLatency99) {
+        this.partitionId = checkNotNull(partitionId);
+        this.commandCount = commandCount;
+        this.commandRate = commandRate;
+        this.queryCount = queryCount;
+        this.queryRate = queryRate;
+        this.meanCommitLatency = meanCommitLatency;
+        this.commitLatency99 = commitLatency99;
+    }
+
+    /**
+     * Returns the identifier for the partition.
+     *
+     * @return partition id
+     */
+    public PartitionId partitionId() {
+        return partitionId;
+    }
+
+    /**
+     * Returns the number of commands submitted to the partition.
+     *
+     * @return command count
+     */
+    public long commandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Returns the rate of commands submitted to the partition over the last minute.
+     *
+     * @return commands per second
+     */
+    public double commandRate() {
+        return commandRate;
+    }
+
+    /**
+     * Returns the number of queries submitted to the partition.
+     *
+     * @return query count
+     */
+    public long queryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Returns the rate of queries submitted to the partition over the last minute.
+     *
+     * @return queries per second
+     */
+    public double queryRate() {
+        return queryRate;
+    }
+
+    /**
+     * Returns the total rate of requests submitted to the partition over the last minute.
+     *
+     * @return requests per second
+     */
+    public double requestRate() {
+        return commandRate + queryRate;
+    }
+
+    /**
+     * Returns the mean latency of commands, from submission to commit.
+     *
+     * @return latency in milliseconds
+     */
+    public double meanCommitLatency() {
+        return meanCommitLatency;
+    }
+
+    /**
+     * Returns the 99th percentile of the latency of commands, from submission
+     * to commit.
+     *
+     * @return latency in milliseconds
+     */
+    public double commitLatency99() {
+        return commitLatency99;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("partitionId", partitionId)
+                .add("commandCount", commandCount)
+                .add("commandRate", commandRate)
+                .add("queryCount", queryCount)
+                .add("queryRate", queryRate)
+                .add("meanCommitLatency", meanCommitLatency)
+                .add("commitLatency99", commitLatency99)
+                .toString();
+    }
+}
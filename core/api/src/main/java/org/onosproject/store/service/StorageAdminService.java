@@ -57,4 +57,12 @@ public interface StorageAdminService {
      * @return collection of pending transaction identifiers.
      */
     Collection<TransactionId> getPendingTransactions();
+
+    /**
+     * Returns request rates and commit latencies of all partitions, as
+     * observed by this node.
+     *
+     * @return list of partition load information
+     */
+    List<PartitionLoadInfo> getPartitionLoad();
 }
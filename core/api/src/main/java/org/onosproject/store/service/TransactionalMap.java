@@ -16,6 +16,10 @@
 
 package org.onosproject.store.service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Transactional Map data structure.
  * <p>
@@ -38,6 +42,29 @@ public interface TransactionalMap<K, V> {
      */
     V get(K key);
 
+    /**
+     * Returns the values to which the specified keys are mapped. Keys that
+     * are not mapped to any value are absent from the returned map.
+     * <p>
+     * Implementations are expected to read all keys from the backing store
+     * at once, which makes this cheaper than calling {@link #get(Object) get}
+     * for each key.
+     * </p>
+     *
+     * @param keys the keys whose associated values are to be returned
+     * @return map of keys to the values they are mapped to
+     */
+    default Map<K, V> getAll(Set<K> keys) {
+        Map<K, V> values = new HashMap<>();
+        keys.forEach(key -> {
+            V value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
     /**
      * Associates the specified value with the specified key in this map (optional operation).
      * If the map previously contained a mapping for the key, the old value is replaced by the
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for deserialization of typical packet-in payloads with
+ * {@link Ethernet#deserializer()} and {@link IPv4#deserializer()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PacketDeserializationBenchmark {
+
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final int SRC_IP = 0x0a000001;
+    private static final int DST_IP = 0x0a000002;
+
+    private final Deserializer<Ethernet> ethDeserializer = Ethernet.deserializer();
+    private final Deserializer<IPv4> ipv4Deserializer = IPv4.deserializer();
+
+    private byte[] udpFrame;
+    private byte[] tcpFrame;
+    private byte[] arpFrame;
+    private byte[] ipv4Packet;
+
+    @Setup
+    public void setUp() {
+        UDP udp = new UDP();
+        udp.setSourcePort(5000);
+        udp.setDestinationPort(6000);
+        udp.setPayload(new Data(new byte[64]));
+        IPv4 udpIp = ipv4(IPv4.PROTOCOL_UDP);
+        udpIp.setPayload(udp);
+        udpFrame = ethernet(Ethernet.TYPE_IPV4).setPayload(udpIp).serialize();
+        ipv4Packet = udpIp.serialize();
+
+        TCP tcp = new TCP();
+        tcp.setSourcePort(40000);
+        tcp.setDestinationPort(80);
+        tcp.setDataOffset((byte) 5);
+        tcp.setPayload(new Data(new byte[512]));
+        IPv4 tcpIp = ipv4(IPv4.PROTOCOL_TCP);
+        tcpIp.setPayload(tcp);
+        tcpFrame = ethernet(Ethernet.TYPE_IPV4).setPayload(tcpIp).serialize();
+
+        ARP arp = new ARP();
+        arp.setHardwareType(ARP.HW_TYPE_ETHERNET)
+                .setProtocolType(ARP.PROTO_TYPE_IP)
+                .setHardwareAddressLength((byte) Ethernet.DATALAYER_ADDRESS_LENGTH)
+                .setProtocolAddressLength((byte) Ip4Address.BYTE_LENGTH)
+                .setOpCode(ARP.OP_REQUEST)
+                .setSenderHardwareAddress(SRC_MAC.toBytes())
+                .setSenderProtocolAddress(Ip4Address.valueOf(SRC_IP).toOctets())
+                .setTargetHardwareAddress(MacAddress.ZERO.toBytes())
+                .setTargetProtocolAddress(Ip4Address.valueOf(DST_IP).toOctets());
+        arpFrame = ethernet(Ethernet.TYPE_ARP).setPayload(arp).serialize();
+    }
+
+    private Ethernet ethernet(short ethType) {
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(SRC_MAC)
+                .setDestinationMACAddress(DST_MAC)
+                .setEtherType(ethType);
+        return eth;
+    }
+
+    private IPv4 ipv4(byte protocol) {
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress(SRC_IP)
+                .setDestinationAddress(DST_IP)
+                .setTtl((byte) 64)
+                .setProtocol(protocol);
+        return ip;
+    }
+
+    @Benchmark
+    public Ethernet deserializeUdpFrame() throws DeserializationException {
+        return ethDeserializer.deserialize(udpFrame, 0, udpFrame.length);
+    }
+
+    @Benchmark
+    public Ethernet deserializeTcpFrame() throws DeserializationException {
+        return ethDeserializer.deserialize(tcpFrame, 0, tcpFrame.length);
+    }
+
+    @Benchmark
+    public Ethernet deserializeArpFrame() throws DeserializationException {
+        return ethDeserializer.deserialize(arpFrame, 0, arpFrame.length);
+    }
+
+    @Benchmark
+    public IPv4 deserializeIpv4Packet() throws DeserializationException {
+        return ipv4Deserializer.deserialize(ipv4Packet, 0, ipv4Packet.length);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against a published baseline and reports
+ * the benchmarks whose score regressed by more than a given tolerance.
+ * <p>
+ * Usage: {@code BaselineComparator baseline.json results.json [tolerance%]}.
+ * The process exits with status 1 when at least one regression is found, so
+ * that it can gate a build.
+ * </p>
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_TOLERANCE = 10.0;
+    private static final String THROUGHPUT = "thrpt";
+
+    private final double tolerance;
+
+    /**
+     * Creates a comparator that tolerates the given relative slow-down.
+     *
+     * @param tolerance tolerated regression in percent
+     */
+    public BaselineComparator(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compares the two sets of results and prints a summary for every
+     * benchmark present in both.
+     *
+     * @param baseline baseline results keyed by benchmark identity
+     * @param current  current results keyed by benchmark identity
+     * @return number of regressions found
+     */
+    public int compare(Map<String, Score> baseline, Map<String, Score> current) {
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("NEW   %s %s%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double change = entry.getValue().changeFrom(base);
+            boolean regressed = change > tolerance;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-5s %s %s -> %s (%+.1f%%)%n", regressed ? "FAIL" : "OK",
+                              entry.getKey(), base, entry.getValue(), change);
+        }
+        return regressions;
+    }
+
+    /**
+     * Loads the primary metric of every benchmark in a JMH JSON result file.
+     *
+     * @param file JMH result file, as produced with {@code -rf json}
+     * @return scores keyed by benchmark name and parameters
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static Map<String, Score> load(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = Maps.newTreeMap();
+            Iterator<Map.Entry<String, JsonNode>> it = run.path("params").fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((k, v) -> key.append(':').append(k).append('=').append(v));
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(run.path("mode").asText(),
+                                                 metric.path("score").asDouble(),
+                                                 metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    /**
+     * Primary score of a single benchmark run.
+     */
+    public static final class Score {
+        private final String mode;
+        private final double value;
+        private final String unit;
+
+        Score(String mode, double value, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.unit = unit;
+        }
+
+        /**
+         * Returns the relative change from the given baseline score in
+         * percent, where positive values indicate a slow-down regardless of
+         * whether the benchmark measures time or throughput.
+         *
+         * @param base baseline score
+         * @return slow-down in percent
+         */
+        double changeFrom(Score base) {
+            if (base.value == 0) {
+                return 0;
+            }
+            double delta = (value - base.value) / base.value * 100.0;
+            return THROUGHPUT.equals(mode) ? -delta : delta;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <results.json> [tolerance%]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        int regressions = new BaselineComparator(tolerance)
+                .compare(load(new File(args[0])), load(new File(args[1])));
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, tolerance);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmark;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.TpPort;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Shared data-set factories used by the benchmarks, so that results of
+ * different benchmarks are taken over comparable inputs.
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * Application identifier used for all generated flow rules.
+     */
+    public static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.benchmark");
+
+    private static final int PRIORITY = 40000;
+
+    // non-instantiable utility class
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Returns the device identifier for the given device index.
+     *
+     * @param index device index
+     * @return device identifier
+     */
+    public static DeviceId did(int index) {
+        return deviceId(String.format("of:%016x", index));
+    }
+
+    /**
+     * Creates a flow rule that is unique for the given device and index,
+     * with a selector and treatment representative of reactive forwarding.
+     *
+     * @param deviceId device identifier
+     * @param index    rule index within the device
+     * @return flow rule
+     */
+    public static FlowRule flowRule(DeviceId deviceId, int index) {
+        return DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .fromApp(APP_ID)
+                .withPriority(PRIORITY)
+                .makePermanent()
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchInPort(PortNumber.portNumber(1 + index % 48))
+                                      .matchEthType(Ethernet.TYPE_IPV4)
+                                      .matchEthSrc(MacAddress.valueOf(index))
+                                      .matchEthDst(MacAddress.valueOf(~index & 0xffffffL))
+                                      .matchIPProtocol(IPv4.PROTOCOL_TCP)
+                                      .matchIPSrc(Ip4Prefix.valueOf(0x0a000000 | index, 32))
+                                      .matchIPDst(Ip4Prefix.valueOf(0x0b000000 | index, 32))
+                                      .matchTcpDst(TpPort.tpPort(1 + index % 65535))
+                                      .build())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                                       .setEthDst(MacAddress.valueOf(index))
+                                       .setOutput(PortNumber.portNumber(1 + (index + 1) % 48))
+                                       .build())
+                .build();
+    }
+
+    /**
+     * Creates the given number of distinct flow entries for a device.
+     *
+     * @param deviceId device identifier
+     * @param count    number of entries
+     * @return list of flow entries
+     */
+    public static List<FlowEntry> flowEntries(DeviceId deviceId, int count) {
+        List<FlowEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new DefaultFlowEntry(flowRule(deviceId, i)));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.SuurballeGraphSearch;
+import org.onlab.packet.ChassisId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.DefaultGraphDescription;
+import org.onosproject.net.topology.DefaultTopologyVertex;
+import org.onosproject.net.topology.GraphDescription;
+import org.onosproject.net.topology.LinkWeight;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+import static org.onosproject.benchmark.BenchmarkFixtures.did;
+
+/**
+ * Benchmarks for path searches over a {@link DefaultTopologyGraph} and for
+ * the construction of a {@link DefaultTopology} from a graph description,
+ * either from scratch or incrementally from the previous topology.
+ * <p>
+ * The network is a square grid of switches joined by bidirectional links,
+ * which gives many equal-cost paths between opposite corners.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TopologyBenchmark {
+
+    private static final ProviderId PID = new ProviderId("of", "benchmark");
+    private static final LinkWeight HOP_COUNT = edge -> 1.0;
+
+    private static final DijkstraGraphSearch<TopologyVertex, TopologyEdge> DIJKSTRA =
+            new DijkstraGraphSearch<>();
+    private static final SuurballeGraphSearch<TopologyVertex, TopologyEdge> SUURBALLE =
+            new SuurballeGraphSearch<>();
+
+    // 45 x 45 approximates a fabric of 2k switches
+    @Param({"10", "45"})
+    private int gridSize;
+
+    private GraphDescription description;
+    private GraphDescription degraded;
+    private DefaultTopologyGraph graph;
+    private DefaultTopology topology;
+    private TopologyVertex src;
+    private TopologyVertex dst;
+
+    @Setup
+    public void setUp() {
+        List<Device> devices = new ArrayList<>();
+        List<Link> links = new ArrayList<>();
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int index = row * gridSize + col;
+                devices.add(new DefaultDevice(PID, did(index), Device.Type.SWITCH,
+                                              "mfg", "1.0", "1.0", "sn", new ChassisId(index)));
+                if (col + 1 < gridSize) {
+                    addLinks(links, index, index + 1, 1);
+                }
+                if (row + 1 < gridSize) {
+                    addLinks(links, index, index + gridSize, 2);
+                }
+            }
+        }
+
+        description = new DefaultGraphDescription(System.nanoTime(), System.currentTimeMillis(),
+                                                  devices, links);
+        graph = new DefaultTopologyGraph(description.vertexes(), description.edges());
+        topology = new DefaultTopology(PID, description);
+        topology.isBroadcastPoint(new ConnectPoint(did(0), PortNumber.portNumber(1)));
+
+        // the same grid with one pair of links down in its middle
+        List<Link> remaining = new ArrayList<>(links);
+        int pair = links.size() / 4 * 2;
+        remaining.remove(pair);
+        remaining.remove(pair);
+        degraded = new DefaultGraphDescription(System.nanoTime(), System.currentTimeMillis(),
+                                               devices, remaining);
+        src = new DefaultTopologyVertex(did(0));
+        dst = new DefaultTopologyVertex(did(gridSize * gridSize - 1));
+    }
+
+    // Adds a pair of opposing links between the two devices.
+    private void addLinks(List<Link> links, int a, int b, int port) {
+        links.add(link(did(a), port, did(b), port + 2));
+        links.add(link(did(b), port + 2, did(a), port));
+    }
+
+    private Link link(DeviceId src, int srcPort, DeviceId dst, int dstPort) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, PortNumber.portNumber(srcPort)))
+                .dst(new ConnectPoint(dst, PortNumber.portNumber(dstPort)))
+                .type(Link.Type.DIRECT)
+                .state(Link.State.ACTIVE)
+                .build();
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TopologyVertex, TopologyEdge> dijkstraSinglePath() {
+        return DIJKSTRA.search(graph, src, dst, HOP_COUNT, 1);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TopologyVertex, TopologyEdge> dijkstraAllPaths() {
+        return DIJKSTRA.search(graph, src, dst, HOP_COUNT, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TopologyVertex, TopologyEdge> dijkstraSingleSourceTree() {
+        return DIJKSTRA.search(graph, src, null, HOP_COUNT, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TopologyVertex, TopologyEdge> suurballeDisjointPaths() {
+        return SUURBALLE.search(graph, src, dst, HOP_COUNT, ALL_PATHS);
+    }
+
+    @Benchmark
+    public Object topologyGetPaths() {
+        return topology.getPaths(src.deviceId(), dst.deviceId(), HOP_COUNT);
+    }
+
+    @Benchmark
+    public int topologyGetPathsToAllDevices() {
+        // a fresh topology starts with an empty path cache
+        DefaultTopology fresh = new DefaultTopology(PID, description);
+        int count = 0;
+        for (TopologyVertex vertex : graph.getVertexes()) {
+            count += fresh.getPaths(src.deviceId(), vertex.deviceId(), HOP_COUNT).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int buildTopology() {
+        // clusters and broadcast sets are computed lazily; force them.
+        DefaultTopology fresh = new DefaultTopology(PID, description);
+        fresh.isBroadcastPoint(new ConnectPoint(src.deviceId(), PortNumber.portNumber(1)));
+        return fresh.clusterCount();
+    }
+
+    @Benchmark
+    public int rebuildTopology() {
+        DefaultTopology fresh = new DefaultTopology(PID, degraded);
+        fresh.isBroadcastPoint(new ConnectPoint(src.deviceId(), PortNumber.portNumber(1)));
+        return fresh.clusterCount();
+    }
+
+    @Benchmark
+    public int rebuildTopologyIncrementally() {
+        // clusters and broadcast sets are computed eagerly from the previous topology
+        DefaultTopology fresh = new DefaultTopology(PID, degraded, null, topology);
+        return fresh.clusterCount();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.MastershipRole;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleBatchOperation;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.flow.ReplicaInfo;
+import org.onosproject.store.flow.ReplicaInfoEventListener;
+import org.onosproject.store.flow.ReplicaInfoService;
+import org.onosproject.store.persistence.TestPersistenceService;
+import org.onosproject.store.service.TestStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.onosproject.benchmark.BenchmarkFixtures.did;
+import static org.onosproject.benchmark.BenchmarkFixtures.flowEntries;
+
+/**
+ * Benchmarks for the master-local paths of {@link DistributedFlowRuleStore}:
+ * batch writes, per-device reads and the flow statistics update path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DistributedFlowRuleStoreBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int flowsPerDevice;
+
+    @Param({"100"})
+    private int batchSize;
+
+    private final NodeId localNodeId = new ClusterServiceAdapter().getLocalNode().id();
+    private final AtomicLong batchIds = new AtomicLong();
+
+    private DistributedFlowRuleStore store;
+    private DeviceId deviceId;
+    private List<FlowEntry> entries;
+    private FlowRuleBatchOperation batch;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        store = new DistributedFlowRuleStore();
+        store.replicaInfoManager = new LocalReplicaInfoService();
+        store.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+        store.clusterService = new ClusterServiceAdapter();
+        store.deviceService = new DeviceServiceAdapter();
+        store.coreService = new CoreServiceAdapter();
+        store.configService = new ComponentConfigAdapter();
+        store.mastershipService = new LocalMastershipService();
+        store.persistenceService = new TestPersistenceService();
+        store.storageService = new TestStorageService();
+        store.activate(null);
+        store.setDelegate(event -> { });
+
+        deviceId = did(1);
+        entries = flowEntries(deviceId, flowsPerDevice);
+        store.storeBatch(addBatch(entries));
+        batch = addBatch(entries.subList(0, Math.min(batchSize, flowsPerDevice)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.deactivate(null);
+    }
+
+    private FlowRuleBatchOperation addBatch(List<FlowEntry> rules) {
+        return new FlowRuleBatchOperation(
+                rules.stream()
+                        .map(rule -> new FlowRuleBatchEntry(FlowRuleOperation.ADD, rule))
+                        .collect(Collectors.toList()),
+                deviceId, batchIds.incrementAndGet());
+    }
+
+    private FlowEntry nextEntry() {
+        cursor = (cursor + 1) % entries.size();
+        return entries.get(cursor);
+    }
+
+    @Benchmark
+    public void storeBatch() {
+        store.storeBatch(batch);
+    }
+
+    @Benchmark
+    public void getFlowEntries(Blackhole bh) {
+        for (FlowEntry entry : store.getFlowEntries(deviceId)) {
+            bh.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public FlowEntry getFlowEntry() {
+        return store.getFlowEntry(nextEntry());
+    }
+
+    @Benchmark
+    public Object addOrUpdateFlowRule() {
+        // mimics a flow statistics reply for an already installed rule
+        FlowEntry stats = new DefaultFlowEntry(nextEntry(), FlowEntry.FlowEntryState.ADDED, 10, 1000, 100);
+        return store.addOrUpdateFlowRule(stats);
+    }
+
+    private class LocalMastershipService extends MastershipServiceAdapter {
+        @Override
+        public MastershipRole getLocalRole(DeviceId deviceId) {
+            return MastershipRole.MASTER;
+        }
+
+        @Override
+        public NodeId getMasterFor(DeviceId deviceId) {
+            return localNodeId;
+        }
+    }
+
+    private class LocalReplicaInfoService implements ReplicaInfoService {
+        @Override
+        public ReplicaInfo getReplicaInfoFor(DeviceId deviceId) {
+            return new ReplicaInfo(localNodeId, Collections.emptyList());
+        }
+
+        @Override
+        public void addListener(ReplicaInfoEventListener listener) {
+        }
+
+        @Override
+        public void removeListener(ReplicaInfoEventListener listener) {
+        }
+    }
+}
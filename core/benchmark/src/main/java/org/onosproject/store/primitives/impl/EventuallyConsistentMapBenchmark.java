@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.Timestamp;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.onosproject.store.persistence.TestPersistenceService;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.serializers.StoreSerializer;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Benchmarks for {@link EventuallyConsistentMapImpl} local reads and writes
+ * and for the receiving side of an anti-entropy exchange between two
+ * replicas that are already in sync, both with a full digest advertisement
+ * and with a segment hash advertisement.
+ * <p>
+ * The anti-entropy handler ignores advertisements while the map is under
+ * high write load, so the warm-up period must be longer than the load window
+ * in order for the setup writes to age out.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EventuallyConsistentMapBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final NodeId PEER = new NodeId("peer");
+
+    @Param({"1000", "100000"})
+    private int mapSize;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, Timestamp> timestamps = Maps.newConcurrentMap();
+
+    private EventuallyConsistentMap<String, String> ecMap;
+    private Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse> antiEntropyHandler;
+    private AntiEntropyAdvertisement<String> inSyncAdvertisement;
+    private AntiEntropyAdvertisement<String> inSyncSegments;
+    private StoreSerializer serializer;
+    private String[] keys;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ecMap = new EventuallyConsistentMapBuilderImpl<String, String>(
+                new ClusterServiceAdapter(), new CapturingClusterCommunicationService(),
+                new TestPersistenceService())
+                .withName(MAP_NAME)
+                .withSerializer(KryoNamespace.newBuilder().register(KryoNamespaces.API))
+                .withTimestampProvider(this::timestamp)
+                .withCommunicationExecutor(MoreExecutors.newDirectExecutorService())
+                .withTombstonesDisabled()
+                .build();
+
+        keys = new String[mapSize];
+        for (int i = 0; i < mapSize; i++) {
+            keys[i] = "key-" + i;
+            ecMap.put(keys[i], "value-" + i);
+        }
+
+        Map<String, MapValue.Digest> digest = Maps.newHashMap();
+        timestamps.forEach((k, ts) -> digest.put(k, new MapValue.Digest(ts, false)));
+        inSyncAdvertisement = new AntiEntropyAdvertisement<>(PEER, digest);
+
+        BucketDigests buckets = new BucketDigests();
+        timestamps.forEach((k, ts) -> buckets.update(k, null, new MapValue<>(k, ts)));
+        inSyncSegments = new AntiEntropyAdvertisement<>(PEER,
+                AntiEntropyAdvertisement.Type.SEGMENTS, buckets.segmentHashes(), ImmutableMap.of());
+
+        serializer = StoreSerializer.using(KryoNamespace.newBuilder()
+                .register(KryoNamespaces.BASIC)
+                .register(LogicalTimestamp.class)
+                .register(AntiEntropyAdvertisement.class)
+                .register(MapValue.Digest.class)
+                .register(AntiEntropyAdvertisement.Type.class)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ecMap.destroy();
+    }
+
+    private Timestamp timestamp(String key, String value) {
+        Timestamp ts = new LogicalTimestamp(clock.incrementAndGet());
+        timestamps.put(key, ts);
+        return ts;
+    }
+
+    private String nextKey() {
+        cursor = (cursor + 1) % keys.length;
+        return keys[cursor];
+    }
+
+    @Benchmark
+    public void put() {
+        ecMap.put(nextKey(), "value");
+    }
+
+    @Benchmark
+    public String get() {
+        return ecMap.get(nextKey());
+    }
+
+    @Benchmark
+    public AntiEntropyResponse handleInSyncAdvertisement() {
+        return antiEntropyHandler.apply(inSyncAdvertisement);
+    }
+
+    @Benchmark
+    public byte[] encodeAdvertisement() {
+        return serializer.encode(inSyncAdvertisement);
+    }
+
+    @Benchmark
+    public AntiEntropyResponse handleInSyncSegments() {
+        return antiEntropyHandler.apply(inSyncSegments);
+    }
+
+    @Benchmark
+    public byte[] encodeSegments() {
+        return serializer.encode(inSyncSegments);
+    }
+
+    /**
+     * Communication service that keeps hold of the anti-entropy handler
+     * so that advertisements can be injected as if sent by a peer.
+     */
+    private class CapturingClusterCommunicationService extends ClusterCommunicationServiceAdapter {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <M, R> void addSubscriber(MessageSubject subject,
+                                         Function<byte[], M> decoder, Function<M, R> handler,
+                                         Function<R, byte[]> encoder, Executor executor) {
+            if (subject.value().endsWith("-anti-entropy")) {
+                antiEntropyHandler = (Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse>) handler;
+            }
+        }
+
+        @Override
+        public <M> CompletableFuture<Void> unicast(M message, MessageSubject subject,
+                                                   Function<M, byte[]> encoder, NodeId toNodeId) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
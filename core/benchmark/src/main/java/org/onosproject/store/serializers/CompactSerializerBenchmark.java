@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleBatchOperation;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.onosproject.benchmark.BenchmarkFixtures.did;
+import static org.onosproject.benchmark.BenchmarkFixtures.flowEntries;
+
+/**
+ * Compares the compact serializers of flow rule payloads with the
+ * reflective encoding they replaced, by overriding the registrations of
+ * {@link KryoNamespaces#API} with the former serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CompactSerializerBenchmark {
+
+    private static final String COMPACT = "compact";
+
+    @Param({COMPACT, "reflective"})
+    private String encoding;
+
+    @Param({"1", "1000"})
+    private int batchSize;
+
+    private StoreSerializer serializer;
+
+    private TrafficSelector selector;
+    private TrafficTreatment treatment;
+    private FlowEntry flowEntry;
+    private FlowRuleBatchOperation batch;
+
+    private byte[] selectorBytes;
+    private byte[] treatmentBytes;
+    private byte[] flowEntryBytes;
+    private byte[] batchBytes;
+
+    @Setup
+    public void setUp() {
+        serializer = StoreSerializer.using(encoding.equals(COMPACT) ? KryoNamespaces.API : reflective());
+
+        DeviceId deviceId = did(1);
+        List<FlowEntry> entries = flowEntries(deviceId, batchSize);
+        flowEntry = entries.get(0);
+        selector = flowEntry.selector();
+        treatment = flowEntry.treatment();
+        batch = new FlowRuleBatchOperation(
+                entries.stream()
+                        .map(e -> new FlowRuleBatchEntry(FlowRuleOperation.ADD, e))
+                        .collect(Collectors.toList()),
+                deviceId, 1);
+
+        selectorBytes = serializer.encode(selector);
+        treatmentBytes = serializer.encode(treatment);
+        flowEntryBytes = serializer.encode(flowEntry);
+        batchBytes = serializer.encode(batch);
+    }
+
+    // API namespace with the serializers used before the compact ones
+    private static KryoNamespace reflective() {
+        return KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .register(new StringDeviceIdSerializer(), DeviceId.class)
+                .register(new FixedPortNumberSerializer(), PortNumber.class)
+                .register(new ReflectiveSerializer<>(DefaultTrafficSelector.class), DefaultTrafficSelector.class)
+                .register(new ReflectiveSerializer<>(DefaultTrafficTreatment.class), DefaultTrafficTreatment.class)
+                .build("reflective");
+    }
+
+    @Benchmark
+    public byte[] encodeSelector() {
+        return serializer.encode(selector);
+    }
+
+    @Benchmark
+    public TrafficSelector decodeSelector() {
+        return serializer.decode(selectorBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeTreatment() {
+        return serializer.encode(treatment);
+    }
+
+    @Benchmark
+    public TrafficTreatment decodeTreatment() {
+        return serializer.decode(treatmentBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeFlowEntry() {
+        return serializer.encode(flowEntry);
+    }
+
+    @Benchmark
+    public FlowEntry decodeFlowEntry() {
+        return serializer.decode(flowEntryBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeBatch() {
+        return serializer.encode(batch);
+    }
+
+    @Benchmark
+    public FlowRuleBatchOperation decodeBatch() {
+        return serializer.decode(batchBytes);
+    }
+
+    // Writes device identifiers in full at every occurrence.
+    private static final class StringDeviceIdSerializer extends Serializer<DeviceId> {
+
+        private StringDeviceIdSerializer() {
+            super(false, true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, DeviceId object) {
+            output.writeString(object.toString());
+        }
+
+        @Override
+        public DeviceId read(Kryo kryo, Input input, Class<DeviceId> type) {
+            return DeviceId.deviceId(input.readString());
+        }
+    }
+
+    // Writes port numbers as fixed eight byte values.
+    private static final class FixedPortNumberSerializer extends Serializer<PortNumber> {
+
+        private FixedPortNumberSerializer() {
+            super(false, true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, PortNumber object) {
+            output.writeBoolean(object.hasName());
+            output.writeLong(object.toLong());
+            if (object.hasName()) {
+                output.writeString(object.name());
+            }
+        }
+
+        @Override
+        public PortNumber read(Kryo kryo, Input input, Class<PortNumber> type) {
+            if (input.readBoolean()) {
+                return PortNumber.portNumber(input.readLong(), input.readString());
+            } else {
+                return PortNumber.portNumber(input.readLong());
+            }
+        }
+    }
+
+    // Kryo default field serializer, bound to each Kryo instance on first use.
+    private static final class ReflectiveSerializer<T> extends Serializer<T> {
+        private final Class<T> type;
+
+        private ReflectiveSerializer(Class<T> type) {
+            this.type = type;
+        }
+
+        @SuppressWarnings("unchecked")
+        private FieldSerializer<T> serializer(Kryo kryo) {
+            FieldSerializer<T> serializer = (FieldSerializer<T>) kryo.getContext().get(this);
+            if (serializer == null) {
+                serializer = new FieldSerializer<>(kryo, type);
+                kryo.getContext().put(this, serializer);
+            }
+            return serializer;
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, T object) {
+            serializer(kryo).write(kryo, output, object);
+        }
+
+        @Override
+        public T read(Kryo kryo, Input input, Class<T> type) {
+            return serializer(kryo).read(kryo, input, type);
+        }
+    }
+}
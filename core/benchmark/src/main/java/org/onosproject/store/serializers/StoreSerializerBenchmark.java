@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry;
+import org.onosproject.net.flow.FlowRuleBatchEntry.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleBatchOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.onosproject.benchmark.BenchmarkFixtures.did;
+import static org.onosproject.benchmark.BenchmarkFixtures.flowEntries;
+
+/**
+ * Round-trip benchmarks for {@link StoreSerializer} over the
+ * {@link KryoNamespaces#API} namespace used by the distributed stores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StoreSerializerBenchmark {
+
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+
+    @Param({"1", "100", "1000"})
+    private int batchSize;
+
+    private StoreSerializer serializer;
+    private ByteBuffer buffer;
+
+    private DeviceId deviceId;
+    private ConnectPoint connectPoint;
+    private FlowEntry flowEntry;
+    private FlowRuleBatchOperation batch;
+
+    private byte[] deviceIdBytes;
+    private byte[] connectPointBytes;
+    private byte[] flowEntryBytes;
+    private byte[] batchBytes;
+
+    @Setup
+    public void setUp() {
+        serializer = StoreSerializer.using(KryoNamespaces.API);
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        deviceId = did(1);
+        connectPoint = new ConnectPoint(deviceId, PortNumber.portNumber(42));
+        List<FlowEntry> entries = flowEntries(deviceId, batchSize);
+        flowEntry = entries.get(0);
+        batch = new FlowRuleBatchOperation(
+                entries.stream()
+                        .map(e -> new FlowRuleBatchEntry(FlowRuleOperation.ADD, e))
+                        .collect(Collectors.toList()),
+                deviceId, 1);
+
+        deviceIdBytes = serializer.encode(deviceId);
+        connectPointBytes = serializer.encode(connectPoint);
+        flowEntryBytes = serializer.encode(flowEntry);
+        batchBytes = serializer.encode(batch);
+    }
+
+    @Benchmark
+    public byte[] encodeDeviceId() {
+        return serializer.encode(deviceId);
+    }
+
+    @Benchmark
+    public DeviceId decodeDeviceId() {
+        return serializer.decode(deviceIdBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeConnectPoint() {
+        return serializer.encode(connectPoint);
+    }
+
+    @Benchmark
+    public ConnectPoint decodeConnectPoint() {
+        return serializer.decode(connectPointBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeFlowEntry() {
+        return serializer.encode(flowEntry);
+    }
+
+    @Benchmark
+    public FlowEntry decodeFlowEntry() {
+        return serializer.decode(flowEntryBytes);
+    }
+
+    @Benchmark
+    public FlowEntry copyFlowEntry() {
+        return serializer.copy(flowEntry);
+    }
+
+    @Benchmark
+    public byte[] encodeBatch() {
+        return serializer.encode(batch);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBatchIntoBuffer() {
+        buffer.clear();
+        serializer.encode(batch, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public FlowRuleBatchOperation decodeBatch() {
+        return serializer.decode(batchBytes);
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.graph.TarjanGraphSearch;
+import org.onlab.graph.TarjanGraphSearch.SccResult;
+import org.onosproject.net.Link;
+import org.onosproject.net.topology.LinkWeight;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.onosproject.net.Link.State.INACTIVE;
+import static org.onosproject.net.Link.Type.INDIRECT;
+
+/**
+ * Partition of a topology graph into strongly connected clusters.
+ * <p>
+ * A partition can either be searched for from scratch or derived from the
+ * partition of a previous graph, in which case only the clusters affected
+ * by the differences between the two graphs are searched again. Each
+ * cluster of a derived partition remembers the previous cluster it is
+ * identical to, if any, so that results computed for that cluster can be
+ * carried over.
+ * </p>
+ */
+final class ClusterPartition {
+
+    private static final TarjanGraphSearch<TopologyVertex, TopologyEdge> TARJAN = new TarjanGraphSearch<>();
+    private static final LinkWeight NO_INDIRECT_LINKS = new NoIndirectLinksWeight();
+
+    static final int NO_ORIGIN = -1;
+
+    private final List<Set<TopologyVertex>> clusterVertexes;
+    private final List<Set<TopologyEdge>> clusterEdges;
+    private final int[] origins;
+    private final Map<TopologyVertex, Integer> clusterIndexes;
+
+    private ClusterPartition(List<Set<TopologyVertex>> clusterVertexes,
+                             List<Set<TopologyEdge>> clusterEdges,
+                             int[] origins) {
+        this.clusterVertexes = Collections.unmodifiableList(clusterVertexes);
+        this.clusterEdges = Collections.unmodifiableList(clusterEdges);
+        this.origins = origins;
+        this.clusterIndexes = Maps.newHashMap();
+        for (int i = 0; i < clusterVertexes.size(); i++) {
+            for (TopologyVertex vertex : clusterVertexes.get(i)) {
+                clusterIndexes.put(vertex, i);
+            }
+        }
+    }
+
+    /**
+     * Searches for the clusters of the given graph using Tarjan algorithm.
+     *
+     * @param graph topology graph
+     * @return cluster partition
+     */
+    static ClusterPartition search(TopologyGraph graph) {
+        SccResult<TopologyVertex, TopologyEdge> result = TARJAN.search(graph, NO_INDIRECT_LINKS);
+        int[] origins = new int[result.clusterCount()];
+        Arrays.fill(origins, NO_ORIGIN);
+        return new ClusterPartition(new ArrayList<>(result.clusterVertexes()),
+                                    new ArrayList<>(result.clusterEdges()),
+                                    origins);
+    }
+
+    /**
+     * Derives the clusters of a graph from the clusters of a previous graph.
+     * Clusters that lose vertexes or links may split and are searched again;
+     * new devices become clusters of their own. Returns null if a new link
+     * may join separate clusters together, in which case the whole graph
+     * needs to be searched.
+     *
+     * @param previous      partition of the previous graph
+     * @param previousGraph previous graph
+     * @param graph         new graph
+     * @return cluster partition; null if it cannot be derived
+     */
+    static ClusterPartition update(ClusterPartition previous, TopologyGraph previousGraph,
+                                   TopologyGraph graph) {
+        Set<TopologyVertex> vertexes = graph.getVertexes();
+        Set<TopologyVertex> removedVertexes = new HashSet<>();
+        for (TopologyVertex vertex : previousGraph.getVertexes()) {
+            if (!vertexes.contains(vertex)) {
+                removedVertexes.add(vertex);
+            }
+        }
+
+        // Diff the edges, noting the vertexes touched by any change and the
+        // traversable edges that are gone.
+        Set<TopologyVertex> touched = new HashSet<>(removedVertexes);
+        Set<TopologyEdge> lostEdges = new HashSet<>();
+        Map<TopologyEdge, TopologyEdge> previousEdges =
+                Maps.newHashMapWithExpectedSize(previousGraph.getEdges().size());
+        previousGraph.getEdges().forEach(edge -> previousEdges.put(edge, edge));
+        for (TopologyEdge edge : graph.getEdges()) {
+            TopologyEdge old = previousEdges.remove(edge);
+            if (old != null && sameLink(old.link(), edge.link())) {
+                continue;
+            }
+            touched.add(edge.src());
+            touched.add(edge.dst());
+            if (old != null && traversable(old) && !traversable(edge)) {
+                lostEdges.add(old);
+            } else if (traversable(edge) && (old == null || !traversable(old))) {
+                Integer src = previous.clusterIndexes.get(edge.src());
+                if (src == null || !src.equals(previous.clusterIndexes.get(edge.dst()))) {
+                    return null;
+                }
+            }
+        }
+        for (TopologyEdge old : previousEdges.values()) {
+            touched.add(old.src());
+            touched.add(old.dst());
+            if (traversable(old)) {
+                lostEdges.add(old);
+            }
+        }
+
+        // Clusters that lost a vertex, or a link without which they are no
+        // longer strongly connected, need to be searched again.
+        Set<Integer> touchedClusters = new HashSet<>();
+        Set<Integer> dirtyClusters = new TreeSet<>();
+        touched.forEach(vertex -> {
+            Integer index = previous.clusterIndexes.get(vertex);
+            if (index != null) {
+                touchedClusters.add(index);
+                if (removedVertexes.contains(vertex)) {
+                    dirtyClusters.add(index);
+                }
+            }
+        });
+        for (TopologyEdge edge : lostEdges) {
+            Integer index = previous.clusterIndexes.get(edge.src());
+            if (index != null && !dirtyClusters.contains(index)
+                    && index.equals(previous.clusterIndexes.get(edge.dst()))
+                    && !reachable(graph, edge.src(), edge.dst(), previous.clusterVertexes.get(index))) {
+                dirtyClusters.add(index);
+            }
+        }
+
+        List<Set<TopologyVertex>> newVertexes = new ArrayList<>();
+        List<Set<TopologyEdge>> newEdges = new ArrayList<>();
+        List<Integer> newOrigins = new ArrayList<>();
+        for (int i = 0; i < previous.clusterVertexes.size(); i++) {
+            if (dirtyClusters.contains(i)) {
+                continue;
+            }
+            Set<TopologyVertex> cluster = previous.clusterVertexes.get(i);
+            boolean changed = touchedClusters.contains(i);
+            newVertexes.add(cluster);
+            newEdges.add(changed ? clusterEdges(graph, cluster) : previous.clusterEdges.get(i));
+            newOrigins.add(changed ? NO_ORIGIN : i);
+        }
+        for (int i : dirtyClusters) {
+            Set<TopologyVertex> remaining = new HashSet<>(previous.clusterVertexes.get(i));
+            remaining.removeAll(removedVertexes);
+            if (remaining.isEmpty()) {
+                continue;
+            }
+            SccResult<TopologyVertex, TopologyEdge> result =
+                    TARJAN.search(new DefaultTopologyGraph(remaining, clusterEdges(graph, remaining)),
+                                  NO_INDIRECT_LINKS);
+            newVertexes.addAll(result.clusterVertexes());
+            newEdges.addAll(result.clusterEdges());
+            result.clusterVertexes().forEach(c -> newOrigins.add(NO_ORIGIN));
+        }
+        for (TopologyVertex vertex : vertexes) {
+            if (!previous.clusterIndexes.containsKey(vertex)) {
+                Set<TopologyVertex> cluster = ImmutableSet.of(vertex);
+                newVertexes.add(cluster);
+                newEdges.add(clusterEdges(graph, cluster));
+                newOrigins.add(NO_ORIGIN);
+            }
+        }
+        return new ClusterPartition(newVertexes, newEdges,
+                                    newOrigins.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns the list of strongly connected vertex clusters.
+     *
+     * @return list of vertex sets
+     */
+    List<Set<TopologyVertex>> clusterVertexes() {
+        return clusterVertexes;
+    }
+
+    /**
+     * Returns the list of edges within each cluster.
+     *
+     * @return list of edge sets
+     */
+    List<Set<TopologyEdge>> clusterEdges() {
+        return clusterEdges;
+    }
+
+    /**
+     * Returns the number of clusters.
+     *
+     * @return cluster count
+     */
+    int clusterCount() {
+        return clusterVertexes.size();
+    }
+
+    /**
+     * Returns the index of the previous cluster the given cluster is
+     * identical to, including all links touching its devices.
+     *
+     * @param index cluster index
+     * @return previous cluster index; NO_ORIGIN if none
+     */
+    int origin(int index) {
+        return origins[index];
+    }
+
+    // Indicates whether the link is unchanged for the purpose of computing
+    // clusters and broadcast trees.
+    private static boolean sameLink(Link a, Link b) {
+        return a == b || (a.state() == b.state() && Objects.equals(a.annotations(), b.annotations()));
+    }
+
+    private static boolean traversable(TopologyEdge edge) {
+        return NO_INDIRECT_LINKS.weight(edge) >= 0;
+    }
+
+    // Collects the edges of the graph that join vertexes of the given set.
+    private static Set<TopologyEdge> clusterEdges(TopologyGraph graph, Set<TopologyVertex> vertexes) {
+        Set<TopologyEdge> edges = new HashSet<>();
+        for (TopologyVertex vertex : vertexes) {
+            for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                if (vertexes.contains(edge.dst())) {
+                    edges.add(edge);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    // Indicates whether dst can be reached from src over traversable edges
+    // without leaving the given set of vertexes.
+    private static boolean reachable(TopologyGraph graph, TopologyVertex src, TopologyVertex dst,
+                                     Set<TopologyVertex> within) {
+        Set<TopologyVertex> visited = new HashSet<>();
+        Queue<TopologyVertex> queue = new ArrayDeque<>();
+        visited.add(src);
+        queue.add(src);
+        while (!queue.isEmpty()) {
+            for (TopologyEdge edge : graph.getEdgesFrom(queue.remove())) {
+                TopologyVertex next = edge.dst();
+                if (!traversable(edge) || !within.contains(next) || !visited.add(next)) {
+                    continue;
+                }
+                if (next.equals(dst)) {
+                    return true;
+                }
+                queue.add(next);
+            }
+        }
+        return false;
+    }
+
+    // Link weight for preventing traversal over indirect links.
+    private static class NoIndirectLinksWeight implements LinkWeight {
+        @Override
+        public double weight(TopologyEdge edge) {
+            return (edge.link().state() == INACTIVE)
+                    || (edge.link().type() == INDIRECT) ? -1 : 1;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.onosproject.common;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
@@ -28,8 +29,6 @@ import org.onlab.graph.GraphPathSearch;
 import org.onlab.graph.GraphPathSearch.Result;
 import org.onlab.graph.SrlgGraphSearch;
 import org.onlab.graph.SuurballeGraphSearch;
-import org.onlab.graph.TarjanGraphSearch;
-import org.onlab.graph.TarjanGraphSearch.SccResult;
 import org.onosproject.net.AbstractModel;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultDisjointPath;
@@ -64,8 +63,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
 import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
-import static org.onosproject.net.Link.State.INACTIVE;
-import static org.onosproject.net.Link.Type.INDIRECT;
 
 /**
  * Default implementation of the topology descriptor. This carries the backing
@@ -76,12 +73,16 @@ public class DefaultTopology extends AbstractModel implements Topology {
     private static final Logger log = LoggerFactory.getLogger(DefaultTopology.class);
 
     private static final DijkstraGraphSearch<TopologyVertex, TopologyEdge> DIJKSTRA = new DijkstraGraphSearch<>();
-    private static final TarjanGraphSearch<TopologyVertex, TopologyEdge> TARJAN = new TarjanGraphSearch<>();
     private static final SuurballeGraphSearch<TopologyVertex, TopologyEdge> SUURBALLE = new SuurballeGraphSearch<>();
 
     private static LinkWeight defaultLinkWeight = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
 
+    public static final int DEFAULT_PATH_CACHE_SIZE = 10000;
+    private static final CacheStats NO_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private static int pathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+
     private final long time;
     private final long creationTime;
     private final long computeCost;
@@ -89,12 +90,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeight hopCountWeight;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Supplier<ClusterPartition> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
+    private final PathCache pathCache;
 
     /**
      * Sets the default link-weight to be used when computing paths. If null is
@@ -119,6 +121,19 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Sets the maximum number of source and destination pairs whose shortest
+     * paths are cached by topologies created from now on. Zero disables
+     * caching altogether.
+     *
+     * @param size maximum number of cached device pairs
+     */
+    public static void setPathCacheSize(int size) {
+        checkArgument(size >= 0, "Path cache size cannot be negative");
+        log.info("Setting new path cache size to {}", size);
+        pathCacheSize = size;
+    }
+
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -129,6 +144,25 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * deriving its clusters and broadcast trees from those of the previous
+     * topology. Only the clusters affected by the differences between the
+     * two topologies are searched for again and only their broadcast trees
+     * are recomputed. Unlike other topology descriptors, these are computed
+     * eagerly so that their cost is reflected by {@link #computeCost()}.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previous          previous topology; null to compute from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previous) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
         this.time = description.timestamp();
@@ -138,14 +172,27 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.graph = new DefaultTopologyGraph(description.vertexes(),
                                               description.edges());
 
-        this.clusterResults = Suppliers.memoize(() -> searchForClusters());
-        this.clusters = Suppliers.memoize(() -> buildTopologyClusters());
-
         this.clusterIndexes = Suppliers.memoize(() -> buildIndexes());
-
         this.hopCountWeight = new HopCountLinkWeight(graph.getVertexes().size());
-        this.broadcastSets = Suppliers.memoize(() -> buildBroadcastSets());
+
+        if (previous == null) {
+            this.clusterResults = Suppliers.memoize(() -> ClusterPartition.search(graph));
+            this.clusters = Suppliers.memoize(() -> buildTopologyClusters());
+            this.broadcastSets = Suppliers.memoize(() -> buildBroadcastSets(null));
+        } else {
+            ClusterPartition partition = ClusterPartition.update(previous.clusterResults.get(),
+                                                                 previous.graph, graph);
+            if (partition == null) {
+                // New links may have merged clusters; start over.
+                partition = ClusterPartition.search(graph);
+            }
+            this.clusterResults = Suppliers.ofInstance(partition);
+            this.clusters = Suppliers.ofInstance(buildTopologyClusters());
+            this.broadcastSets = Suppliers.ofInstance(buildBroadcastSets(previous.broadcastSets.get()));
+        }
+
         this.infrastructurePoints = Suppliers.memoize(() -> findInfrastructurePoints());
+        this.pathCache = pathCacheSize > 0 ? new PathCache(graph, DIJKSTRA, this::networkPath, pathCacheSize) : null;
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
 
@@ -329,7 +376,12 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     /**
      * Computes on-demand the set of shortest paths between source and
-     * destination devices.
+     * destination devices. Unless a different path search algorithm has been
+     * configured, paths computed with the builtin hop-count link weight are
+     * cached, as they depend on nothing but this topology. Paths computed
+     * with any other link weight, including a configured default one, which
+     * may reflect state outside of the topology, are searched for on every
+     * call.
      *
      * @param src    source device
      * @param dst    destination device
@@ -345,6 +397,10 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
+        if (pathCache != null && weight == hopCountWeight && graphPathSearch() == DIJKSTRA) {
+            return pathCache.paths(srcV, dstV, weight);
+        }
+
         GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
                 graphPathSearch().search(graph, srcV, dstV, weight, ALL_PATHS);
         ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
@@ -354,6 +410,15 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return builder.build();
     }
 
+    /**
+     * Returns statistics on the lookups of shortest paths in the path cache.
+     *
+     * @return path cache statistics; all zero if caching is disabled
+     */
+    public CacheStats pathCacheStats() {
+        return pathCache != null ? pathCache.stats() : NO_STATS;
+    }
+
     /**
      * /**
      * Returns the set of pre-computed shortest disjoint path pairs between source and
@@ -485,14 +550,10 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     // Searches for SCC clusters in the network topology graph using Tarjan
     // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeight());
-    }
-
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder = ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterPartition results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
@@ -528,10 +589,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
     }
 
     // Processes a map of broadcast sets for each cluster.
-    private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets() {
+    // Broadcast sets of clusters carried over unchanged from the previous
+    // topology, if any, are reused as they are.
+    private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets(
+            ImmutableSetMultimap<ClusterId, ConnectPoint> previousSets) {
         Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
         for (TopologyCluster cluster : clusters.get().values()) {
-            addClusterBroadcastSet(cluster, builder);
+            int origin = clusterResults.get().origin(cluster.id().index());
+            if (previousSets != null && origin != ClusterPartition.NO_ORIGIN) {
+                builder.putAll(cluster.id(), previousSets.get(ClusterId.clusterId(origin)));
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
         }
         return builder.build();
     }
@@ -614,15 +683,6 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return defaultLinkWeight != null ? defaultLinkWeight : hopCountWeight;
     }
 
-    // Link weight for preventing traversal over indirect links.
-    private static class NoIndirectLinksWeight implements LinkWeight {
-        @Override
-        public double weight(TopologyEdge edge) {
-            return (edge.link().state() == INACTIVE)
-                    || (edge.link().type() == INDIRECT) ? -1 : 1;
-        }
-    }
-
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.GraphPathSearch.Result;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.LinkWeight;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Bounded cache of shortest paths computed over a topology graph.
+ * <p>
+ * Paths are cached per source, destination and link weight, the latter
+ * being compared by identity, and are evicted in least recently used order.
+ * Only long-lived link weights depending on nothing but the topology, such
+ * as the builtin hop-count, are meant to be cached; weights created per
+ * request would never be hit again.
+ * Paths are built from shortest path trees, which are themselves cached per
+ * source and link weight, so that a single Dijkstra search serves the paths
+ * from a source towards all destinations.
+ * </p>
+ */
+final class PathCache {
+
+    // Trees hold costs and parents of every vertex, so keep far fewer.
+    private static final int TREE_CACHE_DIVISOR = 16;
+
+    private final LoadingCache<TreeKey, Result<TopologyVertex, TopologyEdge>> trees;
+    private final LoadingCache<PathKey, ImmutableSet<Path>> paths;
+
+    /**
+     * Creates a path cache for the given graph.
+     *
+     * @param graph     topology graph
+     * @param search    Dijkstra search used to compute shortest path trees
+     * @param converter function converting graph paths to network paths
+     * @param maxSize   maximum number of source and destination pairs cached
+     */
+    PathCache(TopologyGraph graph, DijkstraGraphSearch<TopologyVertex, TopologyEdge> search,
+              Function<org.onlab.graph.Path<TopologyVertex, TopologyEdge>, Path> converter,
+              int maxSize) {
+        this.trees = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, maxSize / TREE_CACHE_DIVISOR))
+                .build(CacheLoader.from(key -> search.searchTree(graph, key.src, key.weight, ALL_PATHS)));
+        this.paths = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(CacheLoader.from(key -> {
+                    ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+                    search.paths(trees.getUnchecked(key.tree), key.dst, ALL_PATHS)
+                            .forEach(path -> builder.add(converter.apply(path)));
+                    return builder.build();
+                }));
+    }
+
+    /**
+     * Returns the shortest paths between the given vertexes, both of which
+     * must be part of the graph.
+     *
+     * @param src    source vertex
+     * @param dst    destination vertex
+     * @param weight link weight function
+     * @return set of shortest paths
+     */
+    ImmutableSet<Path> paths(TopologyVertex src, TopologyVertex dst, LinkWeight weight) {
+        return paths.getUnchecked(new PathKey(new TreeKey(src, weight), dst));
+    }
+
+    /**
+     * Returns statistics on cache lookups of paths.
+     *
+     * @return cache statistics
+     */
+    CacheStats stats() {
+        return paths.stats();
+    }
+
+    // Source and link weight of a shortest path tree.
+    private static final class TreeKey {
+        private final TopologyVertex src;
+        private final LinkWeight weight;
+
+        private TreeKey(TopologyVertex src, LinkWeight weight) {
+            this.src = src;
+            this.weight = weight;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * src.hashCode() + System.identityHashCode(weight);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof TreeKey) {
+                TreeKey that = (TreeKey) obj;
+                return this.weight == that.weight && Objects.equals(this.src, that.src);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this).add("src", src).add("weight", weight).toString();
+        }
+    }
+
+    // Destination of paths within a shortest path tree.
+    private static final class PathKey {
+        private final TreeKey tree;
+        private final TopologyVertex dst;
+
+        private PathKey(TreeKey tree, TopologyVertex dst) {
+            this.tree = tree;
+            this.dst = dst;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tree.hashCode() + dst.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof PathKey) {
+                PathKey that = (PathKey) obj;
+                return Objects.equals(this.tree, that.tree) && Objects.equals(this.dst, that.dst);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this).add("tree", tree).add("dst", dst).toString();
+        }
+    }
+}
@@ -89,6 +89,20 @@ public class MeteringAgent {
         return new Context(currTimer.time(), op);
     }
 
+    /**
+     * Returns the counter of the given name for the metered object, which
+     * is not reported to the metrics service if metering is disabled.
+     *
+     * @param name counter name
+     * @return counter
+     */
+    public Counter counter(String name) {
+        if (!activated) {
+            return new Counter();
+        }
+        return metricsService.createCounter(metricsComponent, metricsFeature, name);
+    }
+
     /**
      * Timer.Context with a specific operation.
      */
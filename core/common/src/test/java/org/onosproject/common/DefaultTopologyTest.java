@@ -36,6 +36,7 @@ import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyVertex;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.google.common.collect.ImmutableSet.of;
 import static org.junit.Assert.*;
@@ -109,6 +110,47 @@ public class DefaultTopologyTest {
         assertEquals("incorrect path count", 1, paths.size());
     }
 
+    @Test
+    public void pathCache() {
+        assertEquals("incorrect path count", 2, dt.getPaths(D1, D3).size());
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D2).size());
+        assertEquals("incorrect path count", 2, dt.getPaths(D1, D3).size());
+        assertEquals("incorrect hit count", 1, dt.pathCacheStats().hitCount());
+        assertEquals("incorrect miss count", 2, dt.pathCacheStats().missCount());
+
+        // other weights bypass the cache altogether
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHT).size());
+        assertEquals("incorrect path count", 1, dt.getPaths(D1, D3, WEIGHT).size());
+        assertEquals("incorrect request count", 3, dt.pathCacheStats().requestCount());
+
+        DefaultTopology.setPathCacheSize(0);
+        try {
+            DefaultTopology uncached = full(devices(), links());
+            for (DeviceId src : of(D1, D2, D3, D4)) {
+                for (DeviceId dst : of(D1, D2, D3, D4, D5)) {
+                    assertEquals("incorrect paths", uncached.getPaths(src, dst),
+                                 dt.getPaths(src, dst));
+                }
+            }
+            assertEquals("no lookups expected", 0, uncached.pathCacheStats().requestCount());
+        } finally {
+            DefaultTopology.setPathCacheSize(DefaultTopology.DEFAULT_PATH_CACHE_SIZE);
+        }
+    }
+
+    @Test
+    public void defaultWeightNotCached() {
+        DefaultTopology.setDefaultLinkWeight(WEIGHT);
+        try {
+            // a configured default weight may read state outside of the topology
+            assertEquals("incorrect path count", 1, dt.getPaths(D1, D3).size());
+            assertEquals("incorrect path count", 1, dt.getPaths(D1, D3).size());
+            assertEquals("no lookups expected", 0, dt.pathCacheStats().requestCount());
+        } finally {
+            DefaultTopology.setDefaultLinkWeight(null);
+        }
+    }
+
     @Test
     public void pointRelated() {
         assertTrue("should be infrastructure point",
@@ -129,6 +171,86 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalUnchanged() {
+        DefaultTopology next = incremental(dt, devices(), links());
+        assertEquals("incorrect cluster count", 2, next.clusterCount());
+        assertSameClusters(dt, next);
+        assertEquals("incorrect broadcast set size", 6,
+                     next.broadcastSetSize(next.getCluster(D1).id()));
+    }
+
+    @Test
+    public void incrementalSplit() {
+        Set<Link> links = of(link("1", 3, "4", 3), link("4", 3, "1", 3),
+                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        DefaultTopology next = incremental(dt, devices(), links);
+        assertEquals("incorrect cluster count", 3, next.clusterCount());
+        assertSameClusters(full(devices(), links), next);
+        assertEquals("incorrect broadcast set size", 4,
+                     next.broadcastSetSize(next.getCluster(D1).id()));
+        assertEquals("incorrect cluster device count", 1,
+                     next.getClusterDevices(next.getCluster(D2)).size());
+    }
+
+    @Test
+    public void incrementalDeviceChanges() {
+        Set<Device> devices = of(device("1"), device("2"), device("3"),
+                                 device("4"), device("6"));
+        DefaultTopology next = incremental(dt, devices, links());
+        assertEquals("incorrect cluster count", 2, next.clusterCount());
+        assertSameClusters(full(devices, links()), next);
+        assertNull("D5 should be gone", next.getCluster(D5));
+        assertNotNull("D6 should be present", next.getCluster(did("6")));
+    }
+
+    @Test
+    public void incrementalMerge() {
+        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                             link("3", 2, "2", 2), link("2", 2, "3", 2),
+                             link("1", 3, "4", 3), link("4", 3, "1", 3),
+                             link("3", 4, "4", 4), link("4", 4, "3", 4),
+                             link("4", 5, "5", 5), link("5", 5, "4", 5));
+        DefaultTopology next = incremental(dt, devices(), links);
+        assertEquals("incorrect cluster count", 1, next.clusterCount());
+        assertSameClusters(full(devices(), links), next);
+        assertEquals("incorrect broadcast set size", 8,
+                     next.broadcastSetSize(next.getCluster(D1).id()));
+    }
+
+    private static Set<Device> devices() {
+        return of(device("1"), device("2"), device("3"), device("4"), device("5"));
+    }
+
+    private static Set<Link> links() {
+        return of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                  link("3", 2, "2", 2), link("2", 2, "3", 2),
+                  link("1", 3, "4", 3), link("4", 3, "1", 3),
+                  link("3", 4, "4", 4), link("4", 4, "3", 4));
+    }
+
+    private static DefaultTopology full(Set<Device> devices, Set<Link> links) {
+        return incremental(null, devices, links);
+    }
+
+    private static DefaultTopology incremental(DefaultTopology previous,
+                                               Set<Device> devices, Set<Link> links) {
+        long now = System.currentTimeMillis();
+        return new DefaultTopology(PID, new DefaultGraphDescription(now, now, devices, links),
+                                   null, previous);
+    }
+
+    // Compares the clusters of two topologies by their devices.
+    private static void assertSameClusters(DefaultTopology expected, DefaultTopology actual) {
+        assertEquals("incorrect clusters", clusterDevices(expected), clusterDevices(actual));
+    }
+
+    private static Set<Set<DeviceId>> clusterDevices(DefaultTopology topology) {
+        return topology.getClusters().stream()
+                .map(topology::getClusterDevices)
+                .collect(Collectors.toSet());
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
@@ -15,92 +15,280 @@
  */
 package org.onosproject.event.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.SharedExecutors;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.cfg.ConfigProperty;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.Element;
+import org.onosproject.net.Link;
+import org.onosproject.net.Port;
+import org.onosproject.net.intent.Intent;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import java.util.Dictionary;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.LinkKey.linkKey;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.EVENT_READ;
 import static org.onosproject.security.AppPermission.Type.EVENT_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Simple implementation of an event dispatching service.
+ * <p>
+ * Events are partitioned across a configurable number of dispatch lanes
+ * by their subject, so that events pertaining to the same subject (e.g.
+ * the same device or the same intent key) are always delivered in order,
+ * while events for unrelated subjects may be delivered concurrently.
+ * </p>
  */
 @Component(immediate = true)
 @Service
 public class CoreEventDispatcher extends DefaultEventSinkRegistry
-        implements EventDeliveryService {
+        implements EventDeliveryService, MetricsHelper {
 
     private final Logger log = getLogger(getClass());
 
-    private boolean executionTimeLimit = false;
+    private static final String METRICS_COMPONENT = "EventDispatcher";
+    private static final String QUEUE_DEPTH = "queueDepth";
+    private static final String LATENCY = "latency";
 
     // Default number of millis a sink can take to process an event.
     private static final long DEFAULT_EXECUTE_MS = 5_000; // ms
     private static final long WATCHDOG_MS = 250; // ms
 
-    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private static final int DEFAULT_DISPATCH_LANES = 1;
+    @Property(name = "dispatchLanes", intValue = DEFAULT_DISPATCH_LANES,
+            label = "Number of partitioned event dispatch lanes; " +
+                    "events with the same subject always use the same lane")
+    private int dispatchLanes = DEFAULT_DISPATCH_LANES;
 
-    private final ExecutorService executor =
-            newSingleThreadExecutor(groupedThreads("onos/event", "dispatch-%d", log));
+    // Optional, as the configuration service depends on the store, which in
+    // turn depends on event delivery.
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY,
+               policy = ReferencePolicy.DYNAMIC)
+    protected volatile ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
 
     @SuppressWarnings("unchecked")
     private static final Event KILL_PILL = new AbstractEvent(null, 0) {
     };
 
-    private DispatchLoop dispatchLoop;
+    private volatile DispatchLane[] lanes = new DispatchLane[0];
     private long maxProcessMillis = DEFAULT_EXECUTE_MS;
 
     // Means to detect long-running sinks
     private TimerTask watchdog;
-    private EventSink lastSink;
-    private long lastStart = 0;
-    private Future<?> dispatchFuture;
+
+    // Per event class sink latency timers
+    private final Map<Class<?>, Timer> sinkTimers = Maps.newConcurrentMap();
 
     @Override
     public void post(Event event) {
-        if (!events.add(event)) {
+        DispatchLane[] current = lanes;
+        if (current.length == 0 || !current[laneIndex(event, current.length)].post(event)) {
             log.error("Unable to post event {}", event);
         }
     }
 
     @Activate
-    public void activate() {
-        dispatchLoop = new DispatchLoop();
-        dispatchFuture = executor.submit(dispatchLoop);
+    public synchronized void activate(ComponentContext context) {
+        readComponentConfiguration(context);
+        startLanes(createLanes(dispatchLanes));
 
         if (maxProcessMillis != 0) {
             startWatchdog();
         }
 
-        log.info("Started");
+        log.info("Started with {} dispatch lanes", dispatchLanes);
     }
 
     @Deactivate
-    public void deactivate() {
-        dispatchLoop.stop();
+    public synchronized void deactivate() {
         stopWatchdog();
-        post(KILL_PILL);
+        stopLanes(lanes);
+        lanes = new DispatchLane[0];
         log.info("Stopped");
     }
 
+    @Modified
+    public synchronized void modified(ComponentContext context) {
+        int oldLanes = dispatchLanes;
+        readComponentConfiguration(context);
+        if (oldLanes != dispatchLanes) {
+            reconfigureLanes();
+        }
+    }
+
+    protected synchronized void bindCfgService(ComponentConfigService service) {
+        if (cfgService == null) {
+            cfgService = service;
+            service.registerProperties(getClass());
+            readDispatchLanes(service);
+        }
+    }
+
+    protected synchronized void unbindCfgService(ComponentConfigService service) {
+        if (cfgService == service) {
+            service.unregisterProperties(getClass(), false);
+            cfgService = null;
+        }
+    }
+
+    // Re-reads the number of lanes from the configuration service, which
+    // may become available only once the dispatcher is already running.
+    private void readDispatchLanes(ComponentConfigService service) {
+        Set<ConfigProperty> properties = service.getProperties(getClass().getName());
+        if (properties == null || lanes.length == 0) {
+            return;
+        }
+        properties.stream()
+                .filter(property -> property.name().equals("dispatchLanes"))
+                .findFirst()
+                .ifPresent(property -> {
+                    int newDispatchLanes = parseDispatchLanes(property.value());
+                    if (newDispatchLanes != dispatchLanes) {
+                        dispatchLanes = newDispatchLanes;
+                        reconfigureLanes();
+                    }
+                });
+    }
+
+    private void reconfigureLanes() {
+        // Swap in the new lanes so that newly posted events queue up there,
+        // then let the old lanes dispatch all events already queued on them
+        // before the new ones start dispatching; this way the per-subject
+        // ordering holds across the reconfiguration.
+        DispatchLane[] oldDispatchLanes = lanes;
+        DispatchLane[] newDispatchLanes = createLanes(dispatchLanes);
+        lanes = newDispatchLanes;
+        for (DispatchLane lane : oldDispatchLanes) {
+            lane.drain();
+        }
+        for (DispatchLane lane : oldDispatchLanes) {
+            lane.awaitTermination();
+        }
+        startLanes(newDispatchLanes);
+        log.info("Reconfigured with {} dispatch lanes", dispatchLanes);
+    }
+
+    /**
+     * Extracts properties from the component configuration context.
+     *
+     * @param context the component context
+     */
+    private void readComponentConfiguration(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+        try {
+            String s = get(properties, "dispatchLanes");
+            dispatchLanes = isNullOrEmpty(s) ? dispatchLanes : parseDispatchLanes(s);
+        } catch (ClassCastException e) {
+            dispatchLanes = DEFAULT_DISPATCH_LANES;
+        }
+    }
+
+    private int parseDispatchLanes(String value) {
+        int newDispatchLanes;
+        try {
+            newDispatchLanes = isNullOrEmpty(value) ? DEFAULT_DISPATCH_LANES : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            newDispatchLanes = DEFAULT_DISPATCH_LANES;
+        }
+        if (newDispatchLanes < 1) {
+            log.warn("dispatchLanes must be at least 1; using {}", DEFAULT_DISPATCH_LANES);
+            newDispatchLanes = DEFAULT_DISPATCH_LANES;
+        }
+        return newDispatchLanes;
+    }
+
+    private DispatchLane[] createLanes(int count) {
+        DispatchLane[] newLanes = new DispatchLane[count];
+        for (int i = 0; i < count; i++) {
+            newLanes[i] = new DispatchLane(i);
+        }
+        return newLanes;
+    }
+
+    private void startLanes(DispatchLane[] newLanes) {
+        lanes = newLanes;
+        for (DispatchLane lane : newLanes) {
+            lane.start();
+        }
+    }
+
+    private void stopLanes(DispatchLane[] oldLanes) {
+        for (DispatchLane lane : oldLanes) {
+            lane.stop();
+        }
+    }
+
+    // Picks the lane for the event based on its subject; events without
+    // a subject all share the first lane.
+    static int laneIndex(Event event, int laneCount) {
+        if (laneCount == 1 || event.subject() == null) {
+            return 0;
+        }
+        return Math.floorMod(Objects.hashCode(subjectKey(event.subject())), laneCount);
+    }
+
+    // Returns the identity of the subject; the hash codes of network
+    // elements, ports and links also cover their mutable attributes, which
+    // would otherwise send successive events for the same subject to
+    // different lanes.
+    private static Object subjectKey(Object subject) {
+        if (subject instanceof Element) {
+            return ((Element) subject).id();
+        } else if (subject instanceof Port) {
+            return ((Port) subject).element().id();
+        } else if (subject instanceof Link) {
+            return linkKey((Link) subject);
+        } else if (subject instanceof Intent) {
+            return ((Intent) subject).key();
+        }
+        return subject;
+    }
+
     private void startWatchdog() {
         log.info("Starting watchdog task");
         watchdog = new Watchdog();
@@ -135,29 +323,130 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return maxProcessMillis;
     }
 
-    // Auxiliary event dispatching loop that feeds off the events queue.
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
+    // Returns the latency timer for sinks of the given event class.
+    private Timer sinkTimer(Class<?> eventClass) {
+        if (metricsService == null) {
+            return null;
+        }
+        return sinkTimers.computeIfAbsent(eventClass,
+                c -> createTimer(METRICS_COMPONENT, c.getSimpleName(), LATENCY));
+    }
+
+    // Single dispatch thread fed by its own queue of events.
+    private final class DispatchLane {
+        private final int index;
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final ExecutorService executor;
+
+        private DispatchLoop dispatchLoop;
+        private Future<?> dispatchFuture;
+
+        private volatile EventSink lastSink;
+        private volatile long lastStart = 0;
+
+        private MetricsComponent metricsComponent;
+        private MetricsFeature metricsFeature;
+
+        private DispatchLane(int index) {
+            this.index = index;
+            this.executor = newSingleThreadExecutor(groupedThreads("onos/event", "dispatch-" + index + "-%d", log));
+        }
+
+        private boolean post(Event event) {
+            return events.add(event);
+        }
+
+        private void start() {
+            dispatchLoop = new DispatchLoop(this);
+            dispatchFuture = executor.submit(dispatchLoop);
+            if (metricsService != null) {
+                metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+                metricsFeature = metricsComponent.registerFeature("lane-" + index);
+                metricsService.removeMetric(metricsComponent, metricsFeature, QUEUE_DEPTH);
+                metricsService.registerMetric(metricsComponent, metricsFeature, QUEUE_DEPTH,
+                                              (Gauge<Integer>) events::size);
+            }
+        }
+
+        // Stops dispatching once the current event is processed; the events
+        // still queued are discarded.
+        private void stop() {
+            dispatchLoop.stop();
+            shutdown();
+        }
+
+        // Stops dispatching once all events queued so far are processed.
+        private void drain() {
+            shutdown();
+        }
+
+        private void shutdown() {
+            post(KILL_PILL);
+            executor.shutdown();
+            if (metricsService != null && metricsComponent != null) {
+                metricsService.removeMetric(metricsComponent, metricsFeature, QUEUE_DEPTH);
+            }
+        }
+
+        // Waits for the lane to terminate, for as long as it makes progress
+        // through its queue.
+        private void awaitTermination() {
+            try {
+                int queued = events.size();
+                while (!executor.awaitTermination(maxProcessMillis + WATCHDOG_MS, TimeUnit.MILLISECONDS)) {
+                    if (events.size() >= queued) {
+                        log.warn("Dispatch lane {} did not drain in time; {} events left", index, events.size());
+                        return;
+                    }
+                    queued = events.size();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Cancels the stuck dispatch loop and submits a new one.
+        private void restart() {
+            dispatchLoop.stop();
+            dispatchLoop = new DispatchLoop(this);
+            dispatchFuture.cancel(true);
+            dispatchFuture = executor.submit(dispatchLoop);
+        }
+    }
+
+    // Auxiliary event dispatching loop that feeds off a lane's events queue.
     private class DispatchLoop implements Runnable {
+        private final DispatchLane lane;
         private volatile boolean stopped;
 
+        DispatchLoop(DispatchLane lane) {
+            this.lane = lane;
+        }
+
         @Override
         public void run() {
             stopped = false;
-            log.info("Dispatch loop initiated");
+            log.info("Dispatch loop {} initiated", lane.index);
             while (!stopped) {
                 try {
                     // Fetch the next event and if it is the kill-pill, bail
-                    Event event = events.take();
+                    Event event = lane.events.take();
                     if (event == KILL_PILL) {
                         break;
                     }
                     process(event);
                 } catch (InterruptedException e) {
-                    log.warn("Dispatch loop interrupted");
+                    log.warn("Dispatch loop {} interrupted", lane.index);
                 } catch (Exception | Error e) {
                     log.warn("Error encountered while dispatching event:", e);
                 }
             }
-            log.info("Dispatch loop terminated");
+            log.info("Dispatch loop {} terminated", lane.index);
         }
 
         // Locate the sink for the event class and use it to process the event
@@ -165,10 +454,15 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         private void process(Event event) {
             EventSink sink = getSink(event.getClass());
             if (sink != null) {
-                lastSink = sink;
-                lastStart = System.currentTimeMillis();
-                sink.process(event);
-                lastStart = 0;
+                Timer.Context timer = startTimer(sinkTimer(event.getClass()));
+                lane.lastSink = sink;
+                lane.lastStart = System.currentTimeMillis();
+                try {
+                    sink.process(event);
+                } finally {
+                    lane.lastStart = 0;
+                    stopTimer(timer);
+                }
             } else {
                 log.warn("No sink registered for event class {}",
                          event.getClass().getName());
@@ -184,20 +478,21 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
     private class Watchdog extends TimerTask {
         @Override
         public void run() {
-            long delta = System.currentTimeMillis() - lastStart;
-            if (lastStart > 0 && delta > maxProcessMillis) {
-                lastStart = 0;
-                log.warn("Event sink {} exceeded execution time limit: {} ms; spawning new dispatch loop",
-                          lastSink.getClass().getName(), delta);
-
-                // Notify the sink that it has exceeded its time limit.
-                lastSink.onProcessLimit();
-
-                // Cancel the old dispatch loop and submit a new one.
-                dispatchLoop.stop();
-                dispatchLoop = new DispatchLoop();
-                dispatchFuture.cancel(true);
-                dispatchFuture = executor.submit(dispatchLoop);
+            for (DispatchLane lane : lanes) {
+                long lastStart = lane.lastStart;
+                long delta = System.currentTimeMillis() - lastStart;
+                if (lastStart > 0 && delta > maxProcessMillis) {
+                    lane.lastStart = 0;
+                    log.warn("Event sink {} exceeded execution time limit: {} ms; " +
+                                     "spawning new dispatch loop for lane {}",
+                             lane.lastSink.getClass().getName(), delta, lane.index);
+
+                    // Notify the sink that it has exceeded its time limit.
+                    lane.lastSink.onProcessLimit();
+
+                    // Cancel the old dispatch loop and submit a new one.
+                    lane.restart();
+                }
             }
         }
     }
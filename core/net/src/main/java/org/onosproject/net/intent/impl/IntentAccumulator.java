@@ -27,8 +27,10 @@ import java.util.Map;
 import java.util.Timer;
 
 /**
- * An accumulator for building batches of intent operations. Only one batch should
- * be in process per instance at a time.
+ * An accumulator for building batches of intent operations. A new batch is
+ * only handed to the delegate once it signals readiness again; the delegate
+ * may do so before the previous batch is done, so several batches can be in
+ * process at a time.
  */
 public class IntentAccumulator extends AbstractAccumulator<IntentData> {
 
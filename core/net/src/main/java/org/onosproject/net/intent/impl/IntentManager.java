@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.codahale.metrics.Timer;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -23,10 +24,12 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
 import org.onosproject.core.IdGenerator;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.event.AbstractListenerManager;
 import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flowobjective.FlowObjectiveService;
@@ -42,7 +45,6 @@ import org.onosproject.net.intent.IntentState;
 import org.onosproject.net.intent.IntentStore;
 import org.onosproject.net.intent.IntentStoreDelegate;
 import org.onosproject.net.intent.Key;
-import org.onosproject.net.intent.impl.phase.FinalIntentProcessPhase;
 import org.onosproject.net.intent.impl.phase.IntentProcessPhase;
 import org.osgi.service.component.ComponentContext;
 import org.onosproject.net.resource.ResourceService;
@@ -52,11 +54,9 @@ import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -78,13 +78,16 @@ import static org.slf4j.LoggerFactory.getLogger;
 @Service
 public class IntentManager
         extends AbstractListenerManager<IntentEvent, IntentListener>
-        implements IntentService, IntentExtensionService {
+        implements IntentService, IntentExtensionService, MetricsHelper {
 
     private static final Logger log = getLogger(IntentManager.class);
 
     private static final String INTENT_NULL = "Intent cannot be null";
     private static final String INTENT_ID_NULL = "Intent key cannot be null";
 
+    private static final String METRICS_COMPONENT = "IntentManager";
+    private static final String LATENCY = "latency";
+
     private static final EnumSet<IntentState> RECOMPILE
             = EnumSet.of(INSTALL_REQ, FAILED, WITHDRAW_REQ);
     private static final EnumSet<IntentState> WITHDRAW
@@ -102,6 +105,12 @@ public class IntentManager
             label = "Number of worker threads")
     private int numThreads = DEFAULT_NUM_THREADS;
 
+    private static final int DEFAULT_MAX_BATCHES_IN_FLIGHT = 4;
+    @Property(name = "maxBatchesInFlight",
+            intValue = DEFAULT_MAX_BATCHES_IN_FLIGHT,
+            label = "Maximum number of intent batches processed concurrently")
+    private int maxBatchesInFlight = DEFAULT_MAX_BATCHES_IN_FLIGHT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected CoreService coreService;
 
@@ -123,8 +132,14 @@ public class IntentManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ComponentConfigService configService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private ExecutorService batchExecutor;
     private ExecutorService workerExecutor;
+    private ExecutorService installExecutor;
+    private IntentPipeline pipeline;
+    private final AtomicInteger batchesInFlight = new AtomicInteger();
 
     private final IntentInstaller intentInstaller = new IntentInstaller();
     private final CompilerRegistry compilerRegistry = new CompilerRegistry();
@@ -151,6 +166,13 @@ public class IntentManager
         eventDispatcher.addSink(IntentEvent.class, listenerRegistry);
         batchExecutor = newSingleThreadExecutor(groupedThreads("onos/intent", "batch", log));
         workerExecutor = newFixedThreadPool(numThreads, groupedThreads("onos/intent", "worker-%d", log));
+        installExecutor = newFixedThreadPool(numThreads, groupedThreads("onos/intent", "installer-%d", log));
+        // executors are looked up on each use, as they may be reconfigured
+        pipeline = new IntentPipeline(this::createInitialPhase, store::batchWrite,
+                                      r -> workerExecutor.execute(r),
+                                      r -> installExecutor.execute(r),
+                                      r -> batchExecutor.execute(r),
+                                      phaseTimer("compile"), phaseTimer("install"), phaseTimer("store"));
         idGenerator = coreService.getIdGenerator("intent-ids");
         Intent.bindIdGenerator(idGenerator);
         log.info("Started");
@@ -169,6 +191,7 @@ public class IntentManager
         eventDispatcher.removeSink(IntentEvent.class);
         batchExecutor.shutdown();
         workerExecutor.shutdown();
+        installExecutor.shutdown();
         Intent.unbindIdGenerator(idGenerator);
         log.info("Stopped");
     }
@@ -200,12 +223,34 @@ public class IntentManager
         if (newNumThreads != numThreads) {
             numThreads = newNumThreads;
             ExecutorService oldWorkerExecutor = workerExecutor;
+            ExecutorService oldInstallExecutor = installExecutor;
             workerExecutor = newFixedThreadPool(numThreads, groupedThreads("onos/intent", "worker-%d", log));
+            installExecutor = newFixedThreadPool(numThreads, groupedThreads("onos/intent", "installer-%d", log));
             if (oldWorkerExecutor != null) {
                 oldWorkerExecutor.shutdown();
             }
+            if (oldInstallExecutor != null) {
+                oldInstallExecutor.shutdown();
+            }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), "maxBatchesInFlight");
+        int newMaxBatchesInFlight = isNullOrEmpty(s) ? maxBatchesInFlight : Integer.parseInt(s);
+        if (newMaxBatchesInFlight > 0 && newMaxBatchesInFlight != maxBatchesInFlight) {
+            maxBatchesInFlight = newMaxBatchesInFlight;
+            logConfig("Reconfigured maximum number of batches in flight");
+        }
+    }
+
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
+    // Returns the latency timer of the given intent processing phase.
+    private Timer phaseTimer(String phase) {
+        return createTimer(METRICS_COMPONENT, phase, LATENCY);
     }
 
     private void logConfig(String prefix) {
@@ -391,35 +436,16 @@ public class IntentManager
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
-            // batchExecutor is single-threaded, so only one batch is in flight at a time
-            CompletableFuture.runAsync(() -> {
-                // process intent until the phase reaches one of the final phases
-                List<CompletableFuture<IntentData>> futures = operations.stream()
-                        .map(x -> CompletableFuture.completedFuture(x)
-                                .thenApply(IntentManager.this::createInitialPhase)
-                                .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
-                                .thenApply(FinalIntentProcessPhase::data)
-                                .exceptionally(e -> {
-                                    //FIXME
-                                    log.warn("Future failed: {}", e);
-                                    return null;
-                                })).collect(Collectors.toList());
-
-                // write multiple data to store in order
-                store.batchWrite(Tools.allOf(futures).join().stream()
-                                         .filter(Objects::nonNull)
-                                         .collect(Collectors.toList()));
-            }, batchExecutor).exceptionally(e -> {
-                log.error("Error submitting batches:", e);
-                // FIXME incomplete Intents should be cleaned up
-                //       (transition to FAILED, etc.)
-
-                // the batch has failed
-                // TODO: maybe we should do more?
-                log.error("Walk the plank, matey...");
-                return null;
-            }).thenRun(accumulator::ready);
-
+            // Batches overlap in the pipeline; take the next one right away
+            // unless too many are already in flight.
+            int inFlight = batchesInFlight.incrementAndGet();
+            pipeline.submit(operations).whenComplete((r, e) -> {
+                batchesInFlight.decrementAndGet();
+                accumulator.ready();
+            });
+            if (inFlight < maxBatchesInFlight) {
+                accumulator.ready();
+            }
         }
     }
 
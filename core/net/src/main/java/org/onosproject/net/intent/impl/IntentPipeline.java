@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl;
+
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Maps;
+import org.onlab.util.Tools;
+import org.onosproject.net.intent.IntentData;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.impl.phase.FinalIntentProcessPhase;
+import org.onosproject.net.intent.impl.phase.IntentProcessPhase;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pipeline processing batches of intent operations in three stages:
+ * compilation, installation and writing of the results to the store.
+ * <p>
+ * Each stage runs on its own executor and does not wait for the other
+ * operations of the batch, so that a slow operation in one batch does not
+ * hold up the operations of the next ones. Operations on the same intent
+ * key are nevertheless processed strictly in order: an operation is not
+ * compiled before the result of the previous operation on the same key has
+ * been written to the store.
+ * </p>
+ */
+class IntentPipeline {
+
+    private static final Logger log = getLogger(IntentPipeline.class);
+
+    private final Function<IntentData, IntentProcessPhase> initialPhase;
+    private final Consumer<List<IntentData>> writer;
+    private final Executor compileExecutor;
+    private final Executor installExecutor;
+    private final Executor storeExecutor;
+
+    private final Timer compileTimer;
+    private final Timer installTimer;
+    private final Timer storeTimer;
+
+    // Completion of the last operation submitted for each key
+    private final Map<Key, CompletableFuture<Void>> tails = Maps.newConcurrentMap();
+
+    /**
+     * Creates an intent pipeline.
+     *
+     * @param initialPhase    function creating the initial phase of an
+     *                        operation from the data currently stored
+     * @param writer          writer of processed intent data to the store
+     * @param compileExecutor executor for compilation
+     * @param installExecutor executor for installation
+     * @param storeExecutor   executor for store writes; expected to be
+     *                        sequential so that writes are not reordered
+     * @param compileTimer    compilation latency timer; may be null
+     * @param installTimer    installation latency timer; may be null
+     * @param storeTimer      store write latency timer; may be null
+     */
+    IntentPipeline(Function<IntentData, IntentProcessPhase> initialPhase,
+                   Consumer<List<IntentData>> writer,
+                   Executor compileExecutor, Executor installExecutor, Executor storeExecutor,
+                   Timer compileTimer, Timer installTimer, Timer storeTimer) {
+        this.initialPhase = checkNotNull(initialPhase);
+        this.writer = checkNotNull(writer);
+        this.compileExecutor = checkNotNull(compileExecutor);
+        this.installExecutor = checkNotNull(installExecutor);
+        this.storeExecutor = checkNotNull(storeExecutor);
+        this.compileTimer = compileTimer;
+        this.installTimer = installTimer;
+        this.storeTimer = storeTimer;
+    }
+
+    /**
+     * Submits a batch of intent operations, at most one per key.
+     *
+     * @param operations intent operations
+     * @return future completed once the results of the batch are written
+     */
+    CompletableFuture<Void> submit(Collection<IntentData> operations) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        List<CompletableFuture<IntentData>> processed = operations.stream()
+                .map(data -> after(tails.put(data.key(), written), written)
+                        .thenApplyAsync(v -> compile(data), compileExecutor)
+                        .thenApplyAsync(this::install, installExecutor)
+                        .exceptionally(e -> {
+                            log.warn("Unable to process intent {}", data.key(), e);
+                            return null;
+                        }))
+                .collect(Collectors.toList());
+
+        Tools.allOf(processed)
+                .thenAcceptAsync(this::write, storeExecutor)
+                .whenComplete((r, e) -> {
+                    if (e != null) {
+                        log.error("Unable to write intent batch", e);
+                    }
+                    operations.forEach(data -> tails.remove(data.key(), written));
+                    written.complete(null);
+                });
+        return written;
+    }
+
+    // Returns a future completed once the given prior operation is done;
+    // duplicate keys within the batch itself must not wait for each other.
+    private static CompletableFuture<Void> after(CompletableFuture<Void> prior,
+                                                 CompletableFuture<Void> batch) {
+        return prior != null && prior != batch ? prior : CompletableFuture.completedFuture(null);
+    }
+
+    private FinalIntentProcessPhase compile(IntentData data) {
+        Timer.Context timer = startTimer(compileTimer);
+        try {
+            return IntentProcessPhase.compile(initialPhase.apply(data));
+        } finally {
+            stopTimer(timer);
+        }
+    }
+
+    private IntentData install(FinalIntentProcessPhase phase) {
+        Timer.Context timer = startTimer(installTimer);
+        try {
+            phase.execute();
+            return phase.data();
+        } finally {
+            stopTimer(timer);
+        }
+    }
+
+    private void write(List<IntentData> results) {
+        Timer.Context timer = startTimer(storeTimer);
+        try {
+            writer.accept(results.stream()
+                                  .filter(Objects::nonNull)
+                                  .collect(Collectors.toList()));
+        } finally {
+            stopTimer(timer);
+        }
+    }
+}
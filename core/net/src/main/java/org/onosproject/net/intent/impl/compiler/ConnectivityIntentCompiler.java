@@ -95,8 +95,12 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
      */
     protected Path getPath(ConnectivityIntent intent,
                            ElementId one, ElementId two) {
-        Set<Path> paths = pathService.getPaths(one, two, weight(intent.constraints()));
         final List<Constraint> constraints = intent.constraints();
+        // unconstrained intents use the default link weight, whose paths the
+        // topology may have cached
+        Set<Path> paths = constraints.isEmpty() ?
+                pathService.getPaths(one, two) :
+                pathService.getPaths(one, two, weight(constraints));
         ImmutableList<Path> filtered = FluentIterable.from(paths)
                 .filter(path -> checkPath(path, constraints))
                 .toList();
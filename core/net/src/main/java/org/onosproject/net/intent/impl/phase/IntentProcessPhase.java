@@ -59,14 +59,26 @@ public interface IntentProcessPhase {
     }
 
     static FinalIntentProcessPhase process(IntentProcessPhase initial) {
-        Optional<IntentProcessPhase> currentPhase = Optional.of(initial);
-        IntentProcessPhase previousPhase = initial;
+        FinalIntentProcessPhase last = compile(initial);
+        last.execute();
+        return last;
+    }
 
-        while (currentPhase.isPresent()) {
-            previousPhase = currentPhase.get();
-            currentPhase = previousPhase.execute();
+    /**
+     * Executes the phases leading from the given one up to the final phase,
+     * which is returned without being executed. This splits processing into
+     * the compilation of an intent and the application of the result.
+     *
+     * @param initial starting intent process phase
+     * @return final intent process phase, yet to be executed
+     */
+    static FinalIntentProcessPhase compile(IntentProcessPhase initial) {
+        IntentProcessPhase phase = initial;
+        while (!(phase instanceof FinalIntentProcessPhase)) {
+            phase = phase.execute().orElseThrow(
+                    () -> new IllegalStateException("Intent processing ended in a non-final phase"));
         }
-        return (FinalIntentProcessPhase) previousPhase;
+        return (FinalIntentProcessPhase) phase;
     }
 
     static void transferErrorCount(IntentData data, Optional<IntentData> stored) {
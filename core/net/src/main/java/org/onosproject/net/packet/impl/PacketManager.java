@@ -16,7 +16,9 @@
 package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -24,6 +26,13 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
+import org.onlab.packet.IPacket;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IPv6;
+import org.onlab.packet.TCP;
+import org.onlab.packet.UDP;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
@@ -33,9 +42,15 @@ import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+import org.onosproject.net.flow.criteria.IPProtocolCriterion;
+import org.onosproject.net.flow.criteria.TcpPortCriterion;
+import org.onosproject.net.flow.criteria.UdpPortCriterion;
 import org.onosproject.net.flowobjective.DefaultForwardingObjective;
 import org.onosproject.net.flowobjective.FlowObjectiveService;
 import org.onosproject.net.flowobjective.ForwardingObjective;
@@ -60,12 +75,20 @@ import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
 import org.slf4j.Logger;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.GuavaCollectors.toImmutableList;
+import static org.onlab.util.GuavaCollectors.toImmutableSet;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.*;
@@ -86,6 +109,11 @@ public class PacketManager
             "Table Type cannot be null. For requesting packets without " +
                     "table hints, use other methods in the packetService API";
 
+    private static final Set<Criterion.Type> FILTER_CRITERIA =
+            EnumSet.of(Criterion.Type.ETH_TYPE, Criterion.Type.IP_PROTO,
+                       Criterion.Type.TCP_SRC, Criterion.Type.TCP_DST,
+                       Criterion.Type.UDP_SRC, Criterion.Type.UDP_DST);
+
     private final PacketStoreDelegate delegate = new InternalStoreDelegate();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
@@ -112,6 +140,11 @@ public class PacketManager
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
 
+    // Processors to be handed packets of each Ethernet type, in priority
+    // order; packets of other types go to the processors of any type.
+    private volatile Map<Short, List<ProcessorEntry>> dispatchTable = ImmutableMap.of();
+    private volatile List<ProcessorEntry> anyTypeProcessors = ImmutableList.of();
+
     private final  PacketDriverProvider defaultProvider = new PacketDriverProvider();
 
     private ApplicationId appId;
@@ -145,9 +178,18 @@ public class PacketManager
 
     @Override
     public void addProcessor(PacketProcessor processor, int priority) {
+        addProcessor(processor, priority, DefaultTrafficSelector.emptySelector());
+    }
+
+    @Override
+    public synchronized void addProcessor(PacketProcessor processor, int priority,
+                                          TrafficSelector filter) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, "Processor cannot be null");
-        ProcessorEntry entry = new ProcessorEntry(processor, priority);
+        checkNotNull(filter, "Filter cannot be null");
+        filter.criteria().forEach(c -> checkArgument(FILTER_CRITERIA.contains(c.type()),
+                                                     "Unsupported packet filter criterion %s", c));
+        ProcessorEntry entry = new ProcessorEntry(processor, priority, filter);
 
         // Insert the new processor according to its priority.
         int i = 0;
@@ -157,10 +199,11 @@ public class PacketManager
             }
         }
         processors.add(i, entry);
+        updateDispatchTable();
     }
 
     @Override
-    public void removeProcessor(PacketProcessor processor) {
+    public synchronized void removeProcessor(PacketProcessor processor) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, "Processor cannot be null");
 
@@ -171,6 +214,23 @@ public class PacketManager
                 break;
             }
         }
+        updateDispatchTable();
+    }
+
+    // Compiles the processor filters into per Ethernet type processor lists.
+    private void updateDispatchTable() {
+        Set<Short> ethTypes = processors.stream()
+                .map(ProcessorEntry::ethType)
+                .filter(t -> t != null)
+                .collect(Collectors.toSet());
+        Map<Short, List<ProcessorEntry>> table = Maps.newHashMap();
+        ethTypes.forEach(t -> table.put(t, processors.stream()
+                .filter(e -> e.ethType() == null || e.ethType().equals(t))
+                .collect(toImmutableList())));
+        dispatchTable = ImmutableMap.copyOf(table);
+        anyTypeProcessors = processors.stream()
+                .filter(e -> e.ethType() == null)
+                .collect(toImmutableList());
     }
 
     @Override
@@ -366,9 +426,14 @@ public class PacketManager
 
         @Override
         public void processPacket(PacketContext context) {
-            // TODO filter packets sent to processors based on registrations
-            for (ProcessorEntry entry : processors) {
+            EthernetView header = context.inPacket().header();
+            List<ProcessorEntry> entries = header == null ? anyTypeProcessors :
+                    dispatchTable.getOrDefault(header.getEtherType(), anyTypeProcessors);
+            for (ProcessorEntry entry : entries) {
                 try {
+                    if (!entry.matches(context)) {
+                        continue;
+                    }
                     long start = System.nanoTime();
                     entry.processor().process(context);
                     entry.addNanos(System.nanoTime() - start);
@@ -445,12 +510,23 @@ public class PacketManager
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
-        private long invocations = 0;
-        private long nanos = 0;
-
-        public ProcessorEntry(PacketProcessor processor, int priority) {
+        private final TrafficSelector filter;
+        private final Short ethType;
+        // Criteria checked against the parsed packet
+        private final Set<Criterion> packetCriteria;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public ProcessorEntry(PacketProcessor processor, int priority, TrafficSelector filter) {
             this.processor = processor;
             this.priority = priority;
+            this.filter = filter;
+            Criterion ethTypeCriterion = filter.getCriterion(Criterion.Type.ETH_TYPE);
+            this.ethType = ethTypeCriterion == null ? null :
+                    ((EthTypeCriterion) ethTypeCriterion).ethType().toShort();
+            this.packetCriteria = filter.criteria().stream()
+                    .filter(c -> c.type() != Criterion.Type.ETH_TYPE)
+                    .collect(toImmutableSet());
         }
 
         @Override
@@ -463,24 +539,67 @@ public class PacketManager
             return priority;
         }
 
+        @Override
+        public TrafficSelector filter() {
+            return filter;
+        }
+
         @Override
         public long invocations() {
-            return invocations;
+            return invocations.sum();
         }
 
         @Override
         public long totalNanos() {
-            return nanos;
+            return nanos.sum();
         }
 
         @Override
         public long averageNanos() {
-            return invocations > 0 ? nanos / invocations : 0;
+            long count = invocations.sum();
+            return count > 0 ? nanos.sum() / count : 0;
+        }
+
+        Short ethType() {
+            return ethType;
         }
 
         void addNanos(long nanos) {
-            this.nanos += nanos;
-            this.invocations++;
+            this.nanos.add(nanos);
+            this.invocations.increment();
+        }
+
+        boolean matches(PacketContext context) {
+            if (packetCriteria.isEmpty()) {
+                return true;
+            }
+            Ethernet eth = context.inPacket().parsed();
+            return eth != null && packetCriteria.stream().allMatch(c -> matches(c, eth));
+        }
+
+        private boolean matches(Criterion criterion, Ethernet eth) {
+            IPacket ip = eth.getPayload();
+            IPacket l4 = ip instanceof IPv4 || ip instanceof IPv6 ? ip.getPayload() : null;
+            switch (criterion.type()) {
+                case IP_PROTO:
+                    short protocol = ((IPProtocolCriterion) criterion).protocol();
+                    return (ip instanceof IPv4 && ((IPv4) ip).getProtocol() == (byte) protocol) ||
+                            (ip instanceof IPv6 && ((IPv6) ip).getNextHeader() == (byte) protocol);
+                case TCP_SRC:
+                    return l4 instanceof TCP &&
+                            ((TCP) l4).getSourcePort() == ((TcpPortCriterion) criterion).tcpPort().toInt();
+                case TCP_DST:
+                    return l4 instanceof TCP &&
+                            ((TCP) l4).getDestinationPort() == ((TcpPortCriterion) criterion).tcpPort().toInt();
+                case UDP_SRC:
+                    return l4 instanceof UDP &&
+                            ((UDP) l4).getSourcePort() == ((UdpPortCriterion) criterion).udpPort().toInt();
+                case UDP_DST:
+                    return l4 instanceof UDP &&
+                            ((UDP) l4).getDestinationPort() == ((UdpPortCriterion) criterion).udpPort().toInt();
+                default:
+                    return false;
+            }
         }
     }
 }
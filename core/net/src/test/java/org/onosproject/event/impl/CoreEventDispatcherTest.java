@@ -15,18 +15,39 @@
  */
 package org.onosproject.event.impl;
 
+import com.google.common.collect.ImmutableSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.TestUtils.TestUtilsException;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cfg.ConfigProperty;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultPort;
+import org.onosproject.net.Device;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.provider.ProviderId;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.onlab.junit.TestUtils.getField;
+import static org.onosproject.cfg.ConfigProperty.Type.INTEGER;
+import static org.onosproject.net.DeviceId.deviceId;
 
 /**
  * Test of the event dispatcher mechanism.
@@ -37,9 +58,13 @@ public class CoreEventDispatcherTest {
     private final PrickleSink prickleSink = new PrickleSink();
     private final GooSink gooSink = new GooSink();
 
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final int LANES = 4;
+
     @Before
     public void setUp() {
-        dispatcher.activate();
+        dispatcher.bindCfgService(new ComponentConfigAdapter());
+        dispatcher.activate(null);
         dispatcher.addSink(Prickle.class, prickleSink);
         dispatcher.addSink(Goo.class, gooSink);
     }
@@ -69,6 +94,119 @@ public class CoreEventDispatcherTest {
         validate(prickleSink);
     }
 
+    @Test
+    public void postPreservesOrder() throws Exception {
+        prickleSink.latch = new CountDownLatch(3);
+        dispatcher.post(new Prickle("a"));
+        dispatcher.post(new Prickle("b"));
+        dispatcher.post(new Prickle("c"));
+        prickleSink.latch.await(100, TimeUnit.MILLISECONDS);
+        validate(prickleSink, "a", "b", "c");
+    }
+
+    @Test
+    public void laneFollowsSubjectIdentity() {
+        Device d1 = device("of:1", "1.0");
+        Device d2 = device("of:1", "2.0");
+        assertEquals("device lanes should match", lane(d1), lane(d2));
+
+        HostId hostId = HostId.hostId(MacAddress.valueOf(1L), VlanId.NONE);
+        DefaultHost h1 = new DefaultHost(PID, hostId, hostId.mac(), hostId.vlanId(),
+                                         new HostLocation(d1.id(), PortNumber.portNumber(1), 0L),
+                                         ImmutableSet.of(IpAddress.valueOf("10.0.0.1")));
+        DefaultHost h2 = new DefaultHost(PID, hostId, hostId.mac(), hostId.vlanId(),
+                                         new HostLocation(d1.id(), PortNumber.portNumber(2), 0L),
+                                         ImmutableSet.of(IpAddress.valueOf("10.0.0.1")));
+        assertEquals("host lanes should match", lane(h1), lane(h2));
+
+        DefaultPort p1 = new DefaultPort(d1, PortNumber.portNumber(1), true);
+        DefaultPort p2 = new DefaultPort(d2, PortNumber.portNumber(1), false);
+        assertEquals("port lanes should match", lane(p1), lane(p2));
+        assertEquals("port should share its device lane", lane(d1), lane(p1));
+    }
+
+    @Test
+    public void partitionedPostPreservesOrder() throws Exception {
+        dispatcher.unbindCfgService(dispatcher.cfgService);
+        dispatcher.bindCfgService(new LanesConfig(LANES));
+        GadgetSink gadgetSink = new GadgetSink();
+        dispatcher.addSink(Gadget.class, gadgetSink);
+
+        int devices = 8;
+        int versions = 50;
+        gadgetSink.latch = new CountDownLatch(devices * versions);
+        for (int v = 0; v < versions; v++) {
+            for (int d = 0; d < devices; d++) {
+                dispatcher.post(new Gadget(device("of:" + d, Integer.toString(v))));
+            }
+        }
+        gadgetSink.latch.await(1, TimeUnit.SECONDS);
+        dispatcher.removeSink(Gadget.class);
+
+        assertEquals("incorrect event count", devices * versions, gadgetSink.subjects.size());
+        for (int d = 0; d < devices; d++) {
+            String id = "of:" + d;
+            List<String> seen = new ArrayList<>();
+            gadgetSink.subjects.stream()
+                    .filter(s -> s.startsWith(id + "/"))
+                    .forEach(s -> seen.add(s.substring(id.length() + 1)));
+            assertEquals("incorrect event count for " + id, versions, seen.size());
+            for (int v = 0; v < versions; v++) {
+                assertEquals("out of order event for " + id, Integer.toString(v), seen.get(v));
+            }
+        }
+    }
+
+    @Test
+    public void laneChangeKeepsQueuedEvents() throws Exception {
+        GadgetSink gadgetSink = new GadgetSink();
+        gadgetSink.gate = new CountDownLatch(1);
+        dispatcher.addSink(Gadget.class, gadgetSink);
+
+        int devices = 8;
+        int versions = 100;
+        gadgetSink.latch = new CountDownLatch(devices * versions);
+        // queue up the first half behind the held sink on the single lane
+        for (int v = 0; v < versions / 2; v++) {
+            for (int d = 0; d < devices; d++) {
+                dispatcher.post(new Gadget(device("of:" + d, Integer.toString(v))));
+            }
+        }
+
+        Thread reconfiguration = new Thread(() -> {
+            dispatcher.unbindCfgService(dispatcher.cfgService);
+            dispatcher.bindCfgService(new LanesConfig(LANES));
+        });
+        reconfiguration.start();
+        while (laneCount() != LANES) {
+            Thread.sleep(1);
+        }
+
+        // the second half goes to the new lanes while the old one is draining
+        for (int v = versions / 2; v < versions; v++) {
+            for (int d = 0; d < devices; d++) {
+                dispatcher.post(new Gadget(device("of:" + d, Integer.toString(v))));
+            }
+        }
+        gadgetSink.gate.countDown();
+        reconfiguration.join(1000);
+        gadgetSink.latch.await(1, TimeUnit.SECONDS);
+        dispatcher.removeSink(Gadget.class);
+
+        assertEquals("incorrect event count", devices * versions, gadgetSink.subjects.size());
+        for (int d = 0; d < devices; d++) {
+            String id = "of:" + d;
+            List<String> seen = new ArrayList<>();
+            gadgetSink.subjects.stream()
+                    .filter(s -> s.startsWith(id + "/"))
+                    .forEach(s -> seen.add(s.substring(id.length() + 1)));
+            assertEquals("incorrect event count for " + id, versions, seen.size());
+            for (int v = 0; v < versions; v++) {
+                assertEquals("out of order event for " + id, Integer.toString(v), seen.get(v));
+            }
+        }
+    }
+
     @Test
     public void postEventWithNoSink() throws Exception {
         dispatcher.post(new Thing("boom"));
@@ -84,6 +222,20 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    private int laneCount() throws TestUtilsException {
+        Object[] lanes = getField(dispatcher, "lanes");
+        return lanes.length;
+    }
+
+    private static int lane(Object subject) {
+        return CoreEventDispatcher.laneIndex(new Gadget(subject), LANES);
+    }
+
+    private static Device device(String id, String swVersion) {
+        return new DefaultDevice(PID, deviceId(id), Device.Type.SWITCH,
+                                 "m", "h", swVersion, "s", new ChassisId());
+    }
+
     private enum Type { FOO }
 
     private static class Thing extends AbstractEvent<Type, String> {
@@ -104,6 +256,12 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    private static class Gadget extends AbstractEvent<Type, Object> {
+        protected Gadget(Object subject) {
+            super(Type.FOO, subject);
+        }
+    }
+
     private static class Sink {
         final List<String> subjects = new ArrayList<>();
         CountDownLatch latch;
@@ -129,4 +287,40 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    // Records the device and software version of the gadgets, which are
+    // delivered concurrently by the different lanes.
+    private static class GadgetSink implements EventSink<Gadget> {
+        final List<String> subjects = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch;
+        CountDownLatch gate;
+
+        @Override
+        public void process(Gadget event) {
+            if (gate != null) {
+                try {
+                    gate.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Device device = (Device) event.subject();
+            subjects.add(device.id() + "/" + device.swVersion());
+            latch.countDown();
+        }
+    }
+
+    // Configuration service holding a preset number of dispatch lanes.
+    private static class LanesConfig extends ComponentConfigAdapter {
+        private final int lanes;
+
+        LanesConfig(int lanes) {
+            this.lanes = lanes;
+        }
+
+        @Override
+        public Set<ConfigProperty> getProperties(String componentName) {
+            ConfigProperty property = ConfigProperty.defineProperty("dispatchLanes", INTEGER, "1", "lanes");
+            return ImmutableSet.of(ConfigProperty.setProperty(property, Integer.toString(lanes)));
+        }
+    }
 }
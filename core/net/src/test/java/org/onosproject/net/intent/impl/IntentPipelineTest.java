@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.IdGenerator;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentData;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.IntentTestsMocks.MockIntent;
+import org.onosproject.net.intent.IntentTestsMocks.MockTimestamp;
+import org.onosproject.net.intent.MockIdGenerator;
+import org.onosproject.net.intent.impl.phase.FinalIntentProcessPhase;
+import org.onosproject.net.intent.impl.phase.IntentProcessPhase;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the intent processing pipeline.
+ */
+public class IntentPipelineTest {
+
+    private IdGenerator idGenerator;
+    private ExecutorService workers;
+    private ExecutorService writer;
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowCompile = new CountDownLatch(1);
+    private final CountDownLatch heldWrite = new CountDownLatch(1);
+    private Intent slow;
+    private Intent held;
+
+    private IntentPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        idGenerator = new MockIdGenerator();
+        Intent.bindIdGenerator(idGenerator);
+        slow = new MockIntent(1L);
+        workers = newCachedThreadPool();
+        writer = newSingleThreadExecutor();
+        pipeline = new IntentPipeline(this::phase, this::write,
+                                      workers, workers, writer, null, null, null);
+    }
+
+    @After
+    public void tearDown() {
+        slowCompile.countDown();
+        heldWrite.countDown();
+        workers.shutdownNow();
+        writer.shutdownNow();
+        Intent.unbindIdGenerator(idGenerator);
+    }
+
+    // Creates a final phase for the data, blocking on the slow intent.
+    private IntentProcessPhase phase(IntentData data) {
+        if (data.intent().equals(slow)) {
+            try {
+                slowCompile.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        events.add("compile " + data.intent().id() + " " + data.request());
+        return new FinalIntentProcessPhase() {
+            @Override
+            public IntentData data() {
+                return data;
+            }
+        };
+    }
+
+    // Records the writes of the batch, holding those of the held intent back.
+    private void write(List<IntentData> batch) {
+        if (held != null && batch.stream().anyMatch(data -> data.intent().equals(held))) {
+            try {
+                heldWrite.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        batch.forEach(data -> events.add("write " + data.intent().id() + " " + data.request()));
+    }
+
+    private void awaitEvent(String event) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!events.contains(event) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("missing event " + event, events.contains(event));
+    }
+
+    private static IntentData op(Intent intent, IntentState request, long version) {
+        return new IntentData(intent, request, new MockTimestamp((int) version));
+    }
+
+    @Test
+    public void batchesOverlap() throws Exception {
+        CompletableFuture<Void> first = pipeline.submit(ImmutableList.of(op(slow, IntentState.INSTALL_REQ, 1)));
+        Intent other = new MockIntent(2L);
+        pipeline.submit(ImmutableList.of(op(other, IntentState.INSTALL_REQ, 1))).get(5, TimeUnit.SECONDS);
+
+        // the second batch went through while the first one is still compiling
+        assertFalse("first batch should be pending", first.isDone());
+        assertEquals(ImmutableList.of("compile " + other.id() + " INSTALL_REQ",
+                                      "write " + other.id() + " INSTALL_REQ"), events);
+
+        slowCompile.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(4, events.size());
+    }
+
+    @Test
+    public void sameKeyStaysOrdered() throws Exception {
+        CompletableFuture<Void> first = pipeline.submit(ImmutableList.of(op(slow, IntentState.INSTALL_REQ, 1)));
+        CompletableFuture<Void> second = pipeline.submit(ImmutableList.of(op(slow, IntentState.WITHDRAW_REQ, 2)));
+        assertFalse("second batch should wait for the first", second.isDone());
+
+        slowCompile.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue("first batch should be done", first.isDone());
+        assertEquals(ImmutableList.of("compile " + slow.id() + " INSTALL_REQ",
+                                      "write " + slow.id() + " INSTALL_REQ",
+                                      "compile " + slow.id() + " WITHDRAW_REQ",
+                                      "write " + slow.id() + " WITHDRAW_REQ"), events);
+    }
+
+    @Test
+    public void sameKeyWaitsForWrite() throws Exception {
+        held = new MockIntent(3L);
+        CompletableFuture<Void> first = pipeline.submit(ImmutableList.of(op(held, IntentState.INSTALL_REQ, 1)));
+        awaitEvent("compile " + held.id() + " INSTALL_REQ");
+
+        CompletableFuture<Void> second = pipeline.submit(ImmutableList.of(op(held, IntentState.WITHDRAW_REQ, 2)));
+        Intent other = new MockIntent(4L);
+        pipeline.submit(ImmutableList.of(op(other, IntentState.INSTALL_REQ, 1)));
+        // other keys still compile while the write of the first batch is held
+        awaitEvent("compile " + other.id() + " INSTALL_REQ");
+        assertFalse("second batch should not compile before the first is written",
+                    events.contains("compile " + held.id() + " WITHDRAW_REQ"));
+
+        heldWrite.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue("first batch should be done", first.isDone());
+        assertTrue("second batch should compile after the first is written",
+                   events.indexOf("write " + held.id() + " INSTALL_REQ")
+                           < events.indexOf("compile " + held.id() + " WITHDRAW_REQ"));
+    }
+}
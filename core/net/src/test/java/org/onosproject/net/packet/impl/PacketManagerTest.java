@@ -20,30 +20,51 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.packet.Data;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPacket;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.TCP;
+import org.onlab.packet.TpPort;
+import org.onlab.packet.UDP;
+import org.onlab.packet.VlanId;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.device.DeviceServiceAdapter;
 import org.onosproject.net.driver.AbstractHandlerBehaviour;
 import org.onosproject.net.driver.DefaultDriver;
 import org.onosproject.net.driver.impl.DriverManager;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
@@ -58,6 +79,8 @@ public class PacketManagerTest {
 
     private static final DeviceId FOO_DID = DeviceId.deviceId("foo:002");
 
+    private static final int PORT = 5000;
+
     private static final DefaultAnnotations ANNOTATIONS =
             DefaultAnnotations.builder().set(AnnotationKeys.DRIVER, "foo").build();
 
@@ -102,6 +125,88 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests that filtered processors are only handed matching packets.
+     */
+    @Test
+    public void filteredProcessors() {
+        PacketProcessor any = context -> { };
+        PacketProcessor arp = context -> { };
+        PacketProcessor udp = context -> { };
+        mgr.addProcessor(any, PacketProcessor.director(0));
+        mgr.addProcessor(arp, PacketProcessor.advisor(0),
+                         DefaultTrafficSelector.builder().matchEthType(Ethernet.TYPE_ARP).build());
+        mgr.addProcessor(udp, PacketProcessor.advisor(1),
+                         DefaultTrafficSelector.builder()
+                                 .matchEthType(Ethernet.TYPE_IPV4)
+                                 .matchIPProtocol(IPv4.PROTOCOL_UDP)
+                                 .matchUdpDst(TpPort.tpPort(PORT))
+                                 .build());
+
+        PacketProviderService service = providerRegistry.register(new TestPacketProvider());
+        service.processPacket(context(frame(Ethernet.TYPE_ARP, new Data(new byte[28]))));
+        service.processPacket(context(frame(Ethernet.TYPE_IPV4, ipv4(
+                IPv4.PROTOCOL_UDP, new UDP().setDestinationPort(PORT)))));
+        service.processPacket(context(frame(Ethernet.TYPE_IPV4, ipv4(
+                IPv4.PROTOCOL_TCP, new TCP().setDestinationPort(PORT)))));
+
+        List<PacketProcessorEntry> entries = mgr.getProcessors();
+        assertEquals("incorrect processor order", ImmutableList.of(arp, udp, any),
+                     ImmutableList.of(entries.get(0).processor(), entries.get(1).processor(),
+                                      entries.get(2).processor()));
+        assertEquals("incorrect ARP invocations", 1, entries.get(0).invocations());
+        assertEquals("incorrect UDP invocations", 1, entries.get(1).invocations());
+        assertEquals("incorrect invocations", 3, entries.get(2).invocations());
+    }
+
+    /**
+     * Tests that filters with unsupported criteria are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedFilter() {
+        mgr.addProcessor(context -> { }, PacketProcessor.advisor(0),
+                         DefaultTrafficSelector.builder().matchVlanId(VlanId.vlanId((short) 1)).build());
+    }
+
+    private static Ethernet frame(short ethType, IPacket payload) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(ethType)
+                .setSourceMACAddress(MacAddress.valueOf(1L))
+                .setDestinationMACAddress(MacAddress.BROADCAST)
+                .setPayload(payload);
+        return eth;
+    }
+
+    private static IPv4 ipv4(byte protocol, IPacket payload) {
+        IPv4 ip = new IPv4();
+        ip.setProtocol(protocol)
+                .setSourceAddress(1)
+                .setDestinationAddress(2)
+                .setPayload(payload);
+        return ip;
+    }
+
+    private static PacketContext context(Ethernet eth) {
+        ConnectPoint cp = new ConnectPoint(FOO_DID, PortNumber.portNumber(1));
+        return new DefaultPacketContext(0, new DefaultInboundPacket(cp, ByteBuffer.wrap(eth.serialize()),
+                                                                    Optional.empty()),
+                                        null, false) {
+            @Override
+            public void send() {
+            }
+        };
+    }
+
+    private static class TestPacketProvider extends TestProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(new ProviderId("of", "test"));
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Objects;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -201,7 +202,7 @@ public class ClusterCommunicationManager
                               ClusterMessageHandler subscriber,
                               ExecutorService executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.value(),
+        messagingService.registerBufferHandler(subject.value(),
                 new InternalClusterMessageHandler(subscriber),
                 executor);
     }
@@ -218,8 +219,17 @@ public class ClusterCommunicationManager
             Function<M, R> handler,
             Function<R, byte[]> encoder,
             Executor executor) {
+        addBufferSubscriber(subject, copying(decoder), handler, encoder, executor);
+    }
+
+    @Override
+    public <M, R> void addBufferSubscriber(MessageSubject subject,
+            Function<ByteBuffer, M> decoder,
+            Function<M, R> handler,
+            Function<R, byte[]> encoder,
+            Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.value(),
+        messagingService.registerBufferHandler(subject.value(),
                 new InternalMessageResponder<M, R>(decoder, encoder, m -> {
                     CompletableFuture<R> responseFuture = new CompletableFuture<>();
                     executor.execute(() -> {
@@ -239,8 +249,8 @@ public class ClusterCommunicationManager
             Function<M, CompletableFuture<R>> handler,
             Function<R, byte[]> encoder) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.value(),
-                new InternalMessageResponder<>(decoder, encoder, handler));
+        messagingService.registerBufferHandler(subject.value(),
+                new InternalMessageResponder<>(copying(decoder), encoder, handler));
     }
 
     @Override
@@ -248,12 +258,29 @@ public class ClusterCommunicationManager
             Function<byte[], M> decoder,
             Consumer<M> handler,
             Executor executor) {
+        addBufferSubscriber(subject, copying(decoder), handler, executor);
+    }
+
+    @Override
+    public <M> void addBufferSubscriber(MessageSubject subject,
+            Function<ByteBuffer, M> decoder,
+            Consumer<M> handler,
+            Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.value(),
+        messagingService.registerBufferHandler(subject.value(),
                 new InternalMessageConsumer<>(decoder, handler),
                 executor);
     }
 
+    // Adapts a decoder of byte arrays to payload buffers, copying the payload.
+    private static <M> Function<ByteBuffer, M> copying(Function<byte[], M> decoder) {
+        return buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return decoder.apply(bytes);
+        };
+    }
+
     /**
      * Performs the timed function, returning the value it would while timing the operation.
      *
@@ -288,7 +315,7 @@ public class ClusterCommunicationManager
     }
 
 
-    private class InternalClusterMessageHandler implements BiFunction<Endpoint, byte[], byte[]> {
+    private class InternalClusterMessageHandler implements BiFunction<Endpoint, ByteBuffer, byte[]> {
         private ClusterMessageHandler handler;
 
         public InternalClusterMessageHandler(ClusterMessageHandler handler) {
@@ -296,19 +323,20 @@ public class ClusterCommunicationManager
         }
 
         @Override
-        public byte[] apply(Endpoint sender, byte[] bytes) {
+        public byte[] apply(Endpoint sender, ByteBuffer bytes) {
             ClusterMessage message = ClusterMessage.fromBytes(bytes);
             handler.handle(message);
             return message.response();
         }
     }
 
-    private class InternalMessageResponder<M, R> implements BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> {
-        private final Function<byte[], M> decoder;
+    private class InternalMessageResponder<M, R>
+            implements BiFunction<Endpoint, ByteBuffer, CompletableFuture<byte[]>> {
+        private final Function<ByteBuffer, M> decoder;
         private final Function<R, byte[]> encoder;
         private final Function<M, CompletableFuture<R>> handler;
 
-        public InternalMessageResponder(Function<byte[], M> decoder,
+        public InternalMessageResponder(Function<ByteBuffer, M> decoder,
                                         Function<R, byte[]> encoder,
                                         Function<M, CompletableFuture<R>> handler) {
             this.decoder = decoder;
@@ -317,26 +345,26 @@ public class ClusterCommunicationManager
         }
 
         @Override
-        public CompletableFuture<byte[]> apply(Endpoint sender, byte[] bytes) {
+        public CompletableFuture<byte[]> apply(Endpoint sender, ByteBuffer bytes) {
             return handler.apply(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload())).
+                    apply(ClusterMessage.payloadOf(bytes))).
                     thenApply(m -> timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(m));
         }
     }
 
-    private class InternalMessageConsumer<M> implements BiConsumer<Endpoint, byte[]> {
-        private final Function<byte[], M> decoder;
+    private class InternalMessageConsumer<M> implements BiConsumer<Endpoint, ByteBuffer> {
+        private final Function<ByteBuffer, M> decoder;
         private final Consumer<M> consumer;
 
-        public InternalMessageConsumer(Function<byte[], M> decoder, Consumer<M> consumer) {
+        public InternalMessageConsumer(Function<ByteBuffer, M> decoder, Consumer<M> consumer) {
             this.decoder = decoder;
             this.consumer = consumer;
         }
 
         @Override
-        public void accept(Endpoint sender, byte[] bytes) {
+        public void accept(Endpoint sender, ByteBuffer bytes) {
             consumer.accept(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload()));
+                    apply(ClusterMessage.payloadOf(bytes)));
         }
     }
 }
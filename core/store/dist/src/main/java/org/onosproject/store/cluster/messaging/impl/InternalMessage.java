@@ -16,12 +16,21 @@
 package org.onosproject.store.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
+import io.netty.buffer.ByteBuf;
 import org.onlab.util.ByteArraySizeHashPrinter;
 import org.onosproject.store.cluster.messaging.Endpoint;
 
+import java.nio.ByteBuffer;
+
 /**
  * Internal message representation with additional attributes
  * for supporting, synchronous request/reply behavior.
+ * <p>
+ * Inbound messages may hold their payload as a reference counted buffer
+ * sliced out of the channel's pooled receive buffer. Such a message owns one
+ * reference to the buffer, which is given up either by {@link #release()} or
+ * by the first call to {@link #payload()}, which copies the payload out.
+ * </p>
  */
 public final class InternalMessage {
 
@@ -58,8 +67,9 @@ public final class InternalMessage {
     private final long id;
     private final Endpoint sender;
     private final String type;
-    private final byte[] payload;
     private final Status status;
+    private byte[] payload;
+    private ByteBuf payloadBuffer;
 
     public InternalMessage(int preamble, long id, Endpoint sender, String type, byte[] payload) {
         this(preamble, id, sender, type, payload, Status.OK);
@@ -74,6 +84,26 @@ public final class InternalMessage {
         this.status = status;
     }
 
+    /**
+     * Creates a message whose payload is backed by the given buffer. The
+     * message takes over one reference to the buffer.
+     *
+     * @param preamble      message preamble
+     * @param id            message identifier
+     * @param sender        sender end point
+     * @param type          message type
+     * @param payloadBuffer retained payload buffer
+     * @param status        message status
+     */
+    public InternalMessage(int preamble, long id, Endpoint sender, String type, ByteBuf payloadBuffer, Status status) {
+        this.preamble = preamble;
+        this.id = id;
+        this.sender = sender;
+        this.type = type;
+        this.payloadBuffer = payloadBuffer;
+        this.status = status;
+    }
+
     public int preamble() {
         return preamble;
     }
@@ -90,10 +120,63 @@ public final class InternalMessage {
         return sender;
     }
 
-    public byte[] payload() {
+    /**
+     * Returns the payload as a byte array. If the payload is still backed by
+     * a buffer, it is copied out and the buffer is released.
+     *
+     * @return payload bytes
+     */
+    public synchronized byte[] payload() {
+        if (payload == null) {
+            if (payloadBuffer == null) {
+                throw new IllegalStateException("Message payload has already been released");
+            }
+            payload = new byte[payloadBuffer.readableBytes()];
+            payloadBuffer.getBytes(payloadBuffer.readerIndex(), payload);
+            release();
+        }
         return payload;
     }
 
+    /**
+     * Returns a read-only view of the payload without copying it. The view
+     * is only valid until the message is released.
+     *
+     * @return payload view
+     */
+    public synchronized ByteBuffer payloadBuffer() {
+        if (payload != null) {
+            return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+        }
+        if (payloadBuffer == null) {
+            throw new IllegalStateException("Message payload has already been released");
+        }
+        return payloadBuffer.nioBuffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the payload size in bytes.
+     *
+     * @return payload length
+     */
+    public synchronized int payloadLength() {
+        if (payload != null) {
+            return payload.length;
+        }
+        return payloadBuffer == null ? 0 : payloadBuffer.readableBytes();
+    }
+
+    /**
+     * Gives up the reference this message holds to its payload buffer, if
+     * any. Calling this more than once has no effect.
+     */
+    public synchronized void release() {
+        if (payloadBuffer != null) {
+            payloadBuffer.release();
+            payloadBuffer = null;
+        }
+    }
+
     public Status status() {
         return status;
     }
@@ -105,7 +188,7 @@ public final class InternalMessage {
                 .add("type", type)
                 .add("sender", sender)
                 .add("status", status)
-                .add("payload", ByteArraySizeHashPrinter.of(payload))
+                .add("payload", payload != null ? ByteArraySizeHashPrinter.of(payload) : payloadLength())
                 .toString();
     }
 }
@@ -34,6 +34,11 @@ import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Decoder for inbound messages.
+ * <p>
+ * When payloads are retained, each decoded message holds a retained slice of
+ * the cumulated receive buffer instead of a copy, and whoever consumes the
+ * message is responsible for releasing it.
+ * </p>
  */
 public class MessageDecoder extends ReplayingDecoder<DecoderState> {
 
@@ -48,9 +53,21 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
     private String messageType;
     private Status status;
     private int contentLength;
+    private final boolean retainPayloads;
 
     public MessageDecoder() {
+        this(false);
+    }
+
+    /**
+     * Creates a new decoder.
+     *
+     * @param retainPayloads true to hand out payloads as retained slices of
+     *                       the receive buffer rather than as copies
+     */
+    public MessageDecoder(boolean retainPayloads) {
         super(DecoderState.READ_MESSAGE_PREAMBLE);
+        this.retainPayloads = retainPayloads;
     }
 
     @Override
@@ -93,20 +110,31 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
             contentLength = buffer.readInt();
             checkpoint(DecoderState.READ_CONTENT);
         case READ_CONTENT:
-            byte[] payload;
-            if (contentLength > 0) {
-                //TODO Perform a sanity check on the size before allocating
-                payload = new byte[contentLength];
-                buffer.readBytes(payload);
+            Endpoint sender = new Endpoint(senderIp, senderPort);
+            InternalMessage message;
+            if (retainPayloads && contentLength > 0) {
+                message = new InternalMessage(preamble,
+                                              messageId,
+                                              sender,
+                                              messageType,
+                                              buffer.readSlice(contentLength).retain(),
+                                              status);
             } else {
-                payload = new byte[0];
+                byte[] payload;
+                if (contentLength > 0) {
+                    //TODO Perform a sanity check on the size before allocating
+                    payload = new byte[contentLength];
+                    buffer.readBytes(payload);
+                } else {
+                    payload = new byte[0];
+                }
+                message = new InternalMessage(preamble,
+                                              messageId,
+                                              sender,
+                                              messageType,
+                                              payload,
+                                              status);
             }
-            InternalMessage message = new InternalMessage(preamble,
-                                                          messageId,
-                                                          new Endpoint(senderIp, senderPort),
-                                                          messageType,
-                                                          payload,
-                                                          status);
             out.add(message);
             checkpoint(DecoderState.READ_MESSAGE_PREAMBLE);
             break;
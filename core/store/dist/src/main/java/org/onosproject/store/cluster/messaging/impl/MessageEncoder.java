@@ -27,9 +27,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Encode InternalMessage out into a byte buffer.
+ * <p>
+ * Each message is written into a single pooled buffer sized up front, so the
+ * buffer never has to grow and be copied while encoding.
+ * </p>
  */
 @Sharable
 public class MessageEncoder extends MessageToByteEncoder<InternalMessage> {
@@ -43,6 +49,28 @@ public class MessageEncoder extends MessageToByteEncoder<InternalMessage> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    // Message types are drawn from a small set of subjects; cache their encoding
+    private final Map<String, byte[]> messageTypes = new ConcurrentHashMap<>();
+
+    private byte[] messageTypeBytes(String messageType) {
+        return messageTypes.computeIfAbsent(messageType, type -> type.getBytes(Charsets.UTF_8));
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(
+            ChannelHandlerContext context,
+            InternalMessage message,
+            boolean preferDirect) throws Exception {
+        int length = Integer.BYTES                                          // preamble
+                + Long.BYTES                                                // message id
+                + Byte.BYTES + message.sender().host().toOctets().length    // sender ip
+                + Integer.BYTES                                             // sender port
+                + Integer.BYTES + messageTypeBytes(message.type()).length   // message type
+                + Integer.BYTES                                             // status
+                + Integer.BYTES + message.payload().length;                 // payload
+        return preferDirect ? context.alloc().ioBuffer(length) : context.alloc().heapBuffer(length);
+    }
+
     @Override
     protected void encode(
             ChannelHandlerContext context,
@@ -67,7 +95,7 @@ public class MessageEncoder extends MessageToByteEncoder<InternalMessage> {
         // write sender port
         out.writeInt(sender.port());
 
-        byte[] messageTypeBytes = message.type().getBytes(Charsets.UTF_8);
+        byte[] messageTypeBytes = messageTypeBytes(message.type());
 
         // write length of message type
         out.writeInt(messageTypeBytes.length);
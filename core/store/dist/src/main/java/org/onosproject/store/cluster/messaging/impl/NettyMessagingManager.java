@@ -15,6 +15,9 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.google.common.base.Strings;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -50,6 +53,9 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ControllerNode;
@@ -67,6 +73,7 @@ import javax.net.ssl.TrustManagerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.KeyStore;
 import java.util.Map;
 import java.util.Optional;
@@ -77,6 +84,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -99,6 +107,16 @@ public class NettyMessagingManager implements MessagingService {
 
     private static final String REPLY_MESSAGE_TYPE = "NETTY_MESSAGING_REQUEST_REPLY";
 
+    // Outbound messages are coalesced and flushed together; by default only
+    // messages written within the same event loop cycle are coalesced.
+    private static final long DEFAULT_FLUSH_WINDOW_MICROS = 0;
+    private static final int DEFAULT_FLUSH_BATCH_BYTES = 64 * 1024;
+
+    // Inbound payloads stay in the pooled receive buffer until consumed.
+    private static final boolean DEFAULT_RETAIN_PAYLOADS = true;
+
+    private static final String METRICS_COMPONENT = "NettyMessaging";
+
     private Endpoint localEp;
     private int preamble;
     private final AtomicBoolean started = new AtomicBoolean(false);
@@ -132,13 +150,28 @@ public class NettyMessagingManager implements MessagingService {
     protected char[] ksPwd;
     protected char[] tsPwd;
 
+    protected long flushWindowMicros = DEFAULT_FLUSH_WINDOW_MICROS;
+    protected int flushBatchBytes = DEFAULT_FLUSH_BATCH_BYTES;
+    protected boolean retainPayloads = DEFAULT_RETAIN_PAYLOADS;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterMetadataService clusterMetadataService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
+    private MetricsComponent metricsComponent;
+    private Counter flushCounter;
+    private Histogram flushBatchSize;
+    private final Map<Endpoint, AtomicInteger> queueDepths = new ConcurrentHashMap<>();
+
     @Activate
     public void activate() throws Exception {
         ControllerNode localNode = clusterMetadataService.getLocalNode();
         getTlsParameters();
+        getFlushParameters();
+        getDecoderParameters();
+        registerMetrics();
 
         if (started.get()) {
             log.warn("Already running at local endpoint: {}", localEp);
@@ -196,6 +229,48 @@ public class NettyMessagingManager implements MessagingService {
             }
         }
     }
+
+    private void getFlushParameters() {
+        String tempString = System.getProperty("nettyFlushWindowMicros");
+        flushWindowMicros = Strings.isNullOrEmpty(tempString) ?
+                DEFAULT_FLUSH_WINDOW_MICROS : Long.parseLong(tempString.trim());
+        tempString = System.getProperty("nettyFlushBatchBytes");
+        flushBatchBytes = Strings.isNullOrEmpty(tempString) ?
+                DEFAULT_FLUSH_BATCH_BYTES : Integer.parseInt(tempString.trim());
+        log.info("nettyFlushWindowMicros = {}, nettyFlushBatchBytes = {}", flushWindowMicros, flushBatchBytes);
+    }
+
+    private void getDecoderParameters() {
+        String tempString = System.getProperty("nettyRetainPayloads");
+        retainPayloads = Strings.isNullOrEmpty(tempString) ?
+                DEFAULT_RETAIN_PAYLOADS : Boolean.parseBoolean(tempString.trim());
+        log.info("nettyRetainPayloads = {}", retainPayloads);
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = metricsComponent.registerFeature("outbound");
+        flushCounter = metricsService.createCounter(metricsComponent, feature, "flushes");
+        flushBatchSize = metricsService.createHistogram(metricsComponent, feature, "batchSize");
+    }
+
+    // Returns the count of written but not yet flushed messages to the endpoint.
+    private AtomicInteger queueDepth(Endpoint ep) {
+        return queueDepths.computeIfAbsent(ep, endpoint -> {
+            AtomicInteger depth = new AtomicInteger();
+            if (metricsComponent != null) {
+                MetricsFeature feature = metricsComponent.registerFeature(endpoint.toString());
+                metricsService.removeMetric(metricsComponent, feature, "queueDepth");
+                metricsService.registerMetric(metricsComponent, feature, "queueDepth",
+                                              (Gauge<Integer>) depth::get);
+            }
+            return depth;
+        });
+    }
+
     private void initEventLoopGroup() {
         // try Epoll first and if that does work, use nio.
         try {
@@ -304,6 +379,54 @@ public class NettyMessagingManager implements MessagingService {
         });
     }
 
+    @Override
+    public void registerBufferHandler(String type, BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, message -> executor.execute(() -> {
+            try {
+                handler.accept(message.sender(), message.payloadBuffer());
+            } finally {
+                message.release();
+            }
+        }));
+    }
+
+    @Override
+    public void registerBufferHandler(String type, BiFunction<Endpoint, ByteBuffer, byte[]> handler,
+                                      Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, message -> executor.execute(() -> {
+            byte[] responsePayload = null;
+            Status status = Status.OK;
+            try {
+                responsePayload = handler.apply(message.sender(), message.payloadBuffer());
+            } catch (Exception e) {
+                status = Status.ERROR_HANDLER_EXCEPTION;
+            } finally {
+                message.release();
+            }
+            sendReply(message, status, Optional.ofNullable(responsePayload));
+        }));
+    }
+
+    @Override
+    public void registerBufferHandler(String type,
+                                      BiFunction<Endpoint, ByteBuffer, CompletableFuture<byte[]>> handler) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, message -> {
+            CompletableFuture<byte[]> future;
+            try {
+                future = handler.apply(message.sender(), message.payloadBuffer());
+            } finally {
+                message.release();
+            }
+            future.whenComplete((result, error) -> {
+                Status status = error == null ? Status.OK : Status.ERROR_HANDLER_EXCEPTION;
+                sendReply(message, status, Optional.ofNullable(result));
+            });
+        });
+    }
+
     @Override
     public void unregisterHandler(String type) {
         checkPermission(CLUSTER_WRITE);
@@ -382,7 +505,7 @@ public class NettyMessagingManager implements MessagingService {
                 }
             });
             log.debug("Established a new connection to {}", ep);
-            return new Connection(retFuture);
+            return new Connection(retFuture, queueDepth(ep));
         }
 
         @Override
@@ -426,7 +549,7 @@ public class NettyMessagingManager implements MessagingService {
 
             channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
                     .addLast("encoder", encoder)
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(retainPayloads))
                     .addLast("handler", dispatcher);
         }
     }
@@ -460,7 +583,7 @@ public class NettyMessagingManager implements MessagingService {
 
             channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
                     .addLast("encoder", encoder)
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(retainPayloads))
                     .addLast("handler", dispatcher);
         }
     }
@@ -474,7 +597,7 @@ public class NettyMessagingManager implements MessagingService {
         protected void initChannel(SocketChannel channel) throws Exception {
             channel.pipeline()
                     .addLast("encoder", encoder)
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(retainPayloads))
                     .addLast("handler", dispatcher);
         }
     }
@@ -524,14 +647,22 @@ public class NettyMessagingManager implements MessagingService {
                 }
             } finally {
                 callbacks.invalidate(message.id());
+                message.release();
             }
             return;
         }
         Consumer<InternalMessage> handler = handlers.get(type);
         if (handler != null) {
-            handler.accept(message);
+            try {
+                handler.accept(message);
+            } catch (RuntimeException e) {
+                // the handler never got to consume the payload
+                message.release();
+                throw e;
+            }
         } else {
             log.debug("No handler for message type {}", message.type(), message.sender());
+            message.release();
             sendReply(message, Status.ERROR_NO_HANDLER, Optional.empty());
         }
     }
@@ -569,34 +700,83 @@ public class NettyMessagingManager implements MessagingService {
     }
     private final class Connection {
         private final CompletableFuture<Channel> internalFuture;
+        private final AtomicInteger queueDepth;
 
-        public Connection(CompletableFuture<Channel> internalFuture) {
+        // Flush state; only accessed from the channel's event loop
+        private int pendingMessages;
+        private long pendingBytes;
+        private boolean flushScheduled;
+
+        public Connection(CompletableFuture<Channel> internalFuture, AtomicInteger queueDepth) {
             this.internalFuture = internalFuture;
+            this.queueDepth = queueDepth;
         }
 
         /**
          * Sends a message out on its channel and associated the message with a
          * completable future used for signaling.
+         * <p>
+         * The message is written right away but the flush is deferred, so that
+         * messages written in quick succession go out with a single flush.
+         * </p>
          * @param message the message to be sent
          * @param future a future that is completed normally or exceptionally if
          *               message sending succeeds or fails respectively
          */
-        public void send(Object message, CompletableFuture<Void> future) {
+        public void send(InternalMessage message, CompletableFuture<Void> future) {
             internalFuture.whenComplete((channel, throwable) -> {
                 if (throwable == null) {
-                    channel.writeAndFlush(message).addListener(channelFuture -> {
-                        if (!channelFuture.isSuccess()) {
-                            future.completeExceptionally(channelFuture.cause());
-                        } else {
-                            future.complete(null);
-                        }
-                    });
+                    queueDepth.incrementAndGet();
+                    // Write and schedule the flush from the event loop so that
+                    // the flush is guaranteed to follow the write.
+                    if (channel.eventLoop().inEventLoop()) {
+                        write(channel, message, future);
+                    } else {
+                        channel.eventLoop().execute(() -> write(channel, message, future));
+                    }
                 } else {
                     future.completeExceptionally(throwable);
                 }
             });
         }
 
+        private void write(Channel channel, InternalMessage message, CompletableFuture<Void> future) {
+            channel.write(message).addListener(channelFuture -> {
+                if (!channelFuture.isSuccess()) {
+                    future.completeExceptionally(channelFuture.cause());
+                } else {
+                    future.complete(null);
+                }
+            });
+            pendingMessages++;
+            pendingBytes += message.payload().length;
+            if (pendingBytes >= flushBatchBytes) {
+                flush(channel);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                if (flushWindowMicros > 0) {
+                    channel.eventLoop().schedule(() -> flush(channel), flushWindowMicros, TimeUnit.MICROSECONDS);
+                } else {
+                    channel.eventLoop().execute(() -> flush(channel));
+                }
+            }
+        }
+
+        private void flush(Channel channel) {
+            flushScheduled = false;
+            if (pendingMessages == 0) {
+                return;
+            }
+            channel.flush();
+            queueDepth.addAndGet(-pendingMessages);
+            if (flushCounter != null) {
+                flushCounter.inc();
+                flushBatchSize.update(pendingMessages);
+            }
+            pendingMessages = 0;
+            pendingBytes = 0;
+        }
+
         /**
          * Destroys a channel by closing its channel (if it exists) and
          * cancelling its future.
@@ -604,6 +784,11 @@ public class NettyMessagingManager implements MessagingService {
         public void destroy() {
             Channel channel = internalFuture.getNow(null);
             if (channel != null) {
+                channel.eventLoop().execute(() -> {
+                    // messages never flushed no longer count towards the queue depth
+                    queueDepth.addAndGet(-pendingMessages);
+                    pendingMessages = 0;
+                });
                 channel.close();
             }
             internalFuture.cancel(false);
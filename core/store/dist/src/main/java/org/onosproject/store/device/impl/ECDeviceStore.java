@@ -16,6 +16,7 @@
 package org.onosproject.store.device.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -120,6 +121,10 @@ public class ECDeviceStore
 
     private final Map<DeviceId, Device> devices = Maps.newConcurrentMap();
     private final Map<DeviceId, Map<PortNumber, Port>> devicePorts = Maps.newConcurrentMap();
+    // Port descriptions indexed by device, so that composing the ports of a
+    // device does not scan the descriptions of every port in the network
+    private final Map<DeviceId, Map<PortNumber, Map<ProviderId, PortDescription>>> devicePortDescriptions =
+            Maps.newConcurrentMap();
     Set<DeviceId> pendingAvailableChangeUpdates = Sets.newConcurrentHashSet();
 
     private EventuallyConsistentMap<DeviceKey, DeviceDescription> deviceDescriptions;
@@ -238,6 +243,7 @@ public class ECDeviceStore
 
         deviceDescriptions.addListener(deviceUpdateListener);
         portDescriptions.addListener(portUpdateListener);
+        portDescriptions.entrySet().forEach(e -> indexPortDescription(e.getKey(), e.getValue()));
         devicePortStats.addListener(portStatsListener);
         availableDevices.addListener(deviceStatusTracker);
         log.info("Started");
@@ -255,6 +261,7 @@ public class ECDeviceStore
         portDescriptions.destroy();
         devices.clear();
         devicePorts.clear();
+        devicePortDescriptions.clear();
         clusterCommunicator.removeSubscriber(DEVICE_INJECTED);
         clusterCommunicator.removeSubscriber(PORT_INJECTED);
         log.info("Stopped");
@@ -443,20 +450,23 @@ public class ECDeviceStore
         List<DeviceEvent> events = Lists.newArrayList();
 
         Map<PortNumber, Port> ports = devicePorts.computeIfAbsent(deviceId, key -> Maps.newConcurrentMap());
+        Map<PortNumber, Map<ProviderId, PortDescription>> indexed =
+                devicePortDescriptions.getOrDefault(deviceId, Collections.emptyMap());
         List<PortDescription> descriptions = Lists.newArrayList();
-        portDescriptions.entrySet().forEach(e -> {
-            PortKey key = e.getKey();
-            PortDescription value = e.getValue();
-            if (key.deviceId().equals(deviceId) && key.providerId().equals(providerId)) {
-                if (portNumber.isPresent()) {
-                    if (portNumber.get().equals(key.portNumber())) {
-                        descriptions.add(value);
-                    }
-                } else {
-                    descriptions.add(value);
-                }
+        if (portNumber.isPresent()) {
+            PortDescription description =
+                    indexed.getOrDefault(portNumber.get(), Collections.emptyMap()).get(providerId);
+            if (description != null) {
+                descriptions.add(description);
             }
-        });
+        } else {
+            indexed.values().forEach(byProvider -> {
+                PortDescription description = byProvider.get(providerId);
+                if (description != null) {
+                    descriptions.add(description);
+                }
+            });
+        }
 
         for (PortDescription description : descriptions) {
             final PortNumber number = description.portNumber();
@@ -488,13 +498,9 @@ public class ECDeviceStore
      */
     private Port composePort(Device device, PortNumber number) {
 
-        Map<ProviderId, PortDescription> descriptions = Maps.newHashMap();
-        portDescriptions.entrySet().forEach(entry -> {
-            PortKey portKey = entry.getKey();
-            if (portKey.deviceId().equals(device.id()) && portKey.portNumber().equals(number)) {
-                descriptions.put(portKey.providerId(), entry.getValue());
-            }
-        });
+        Map<ProviderId, PortDescription> descriptions = ImmutableMap.copyOf(
+                devicePortDescriptions.getOrDefault(device.id(), Collections.emptyMap())
+                        .getOrDefault(number, Collections.emptyMap()));
         ProviderId primary = getPrimaryProviderId(device.id());
         PortDescription primaryDescription = descriptions.get(primary);
 
@@ -559,6 +565,22 @@ public class ECDeviceStore
         }
     }
 
+    private void indexPortDescription(PortKey key, PortDescription description) {
+        devicePortDescriptions.computeIfAbsent(key.deviceId(), k -> Maps.newConcurrentMap())
+                .computeIfAbsent(key.portNumber(), k -> Maps.newConcurrentMap())
+                .put(key.providerId(), description);
+    }
+
+    private void unindexPortDescription(PortKey key) {
+        Map<PortNumber, Map<ProviderId, PortDescription>> indexed = devicePortDescriptions.get(key.deviceId());
+        if (indexed != null) {
+            indexed.computeIfPresent(key.portNumber(), (k, byProvider) -> {
+                byProvider.remove(key.providerId());
+                return byProvider.isEmpty() ? null : byProvider;
+            });
+        }
+    }
+
     @Override
     public DeviceEvent updatePortStatus(ProviderId providerId,
             DeviceId deviceId,
@@ -783,6 +805,7 @@ public class ECDeviceStore
             ProviderId providerId = event.key().providerId();
             PortNumber portNumber = event.key().portNumber();
             if (event.type() == PUT) {
+                indexPortDescription(event.key(), event.value());
                 if (devices.containsKey(deviceId)) {
                     List<DeviceEvent> events = refreshDevicePortCache(providerId, deviceId, Optional.of(portNumber));
                     for (DeviceEvent deviceEvent : events) {
@@ -790,6 +813,7 @@ public class ECDeviceStore
                     }
                 }
             } else if (event.type() == REMOVE) {
+                unindexPortDescription(event.key());
                 log.warn("Unexpected port removed event");
             }
         }
@@ -0,0 +1,504 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Flow table of a single device, keyed by the primitive flow identifier.
+ * <p>
+ * Entries are held in an open-addressing hash table of {@code long} flow ids,
+ * which avoids boxing the keys and allocating a nested map per flow id.
+ * Entries sharing a flow id without being equal are chained in a small array
+ * held in the same slot. A read-only snapshot of the entries is built lazily
+ * and shared by all readers until the next structural change to the table.
+ * </p>
+ * <p>
+ * If a backing store is given, the table is loaded from it on creation and
+ * all changes are written through to it.
+ * </p>
+ * <p>
+ * The table is versioned and keeps track of the flow ids changed since the
+ * last backup, so that only those need to be shipped to the backup node.
+ * When too many changes accumulate, or the contents were replaced wholesale,
+ * the next backup falls back to a full snapshot.
+ * </p>
+ */
+final class DeviceFlowTable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    // Kept low so that probe sequences stay short
+    private static final float LOAD_FACTOR = 0.5f;
+    // Minimum number of changes tracked before falling back to a full backup
+    private static final int MIN_TRACKED_CHANGES = 1024;
+
+    static final long NO_VERSION = -1;
+
+    private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> backingStore;
+
+    // Slots hold either a single StoredFlowEntry or a StoredFlowEntry[]
+    private long[] keys;
+    private Object[] slots;
+    private int occupied;
+    private int size;
+
+    private List<FlowEntry> snapshot;
+
+    // Change tracking for incremental backups
+    private long version;
+    private long mirroredVersion = NO_VERSION;
+    private long[] changedKeys = new long[16];
+    private int changedCount;
+    private boolean changesOverflowed = true;
+    private long changedSince;
+
+    /**
+     * Creates an empty in-memory flow table.
+     */
+    DeviceFlowTable() {
+        this(null);
+    }
+
+    /**
+     * Creates a flow table that writes through to the given backing store.
+     *
+     * @param backingStore backing store; null for in-memory only
+     */
+    DeviceFlowTable(Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> backingStore) {
+        this.backingStore = backingStore;
+        allocate(DEFAULT_CAPACITY);
+        if (backingStore != null) {
+            backingStore.values().forEach(entries -> entries.values().forEach(this::put));
+        }
+    }
+
+    /**
+     * Returns the stored entry matching the given rule.
+     *
+     * @param rule flow rule
+     * @return stored flow entry; null if none
+     */
+    synchronized StoredFlowEntry get(FlowRule rule) {
+        int index = indexOf(rule.id().value());
+        return slots[index] == null ? null : find(slots[index], rule);
+    }
+
+    /**
+     * Adds the given entry, replacing any stored entry equal to it.
+     *
+     * @param entry flow entry
+     */
+    synchronized void add(StoredFlowEntry entry) {
+        put(entry);
+        persist(entry.id().value());
+        recordChange(entry.id().value());
+    }
+
+    /**
+     * Records that the stored entry matching the given rule was modified in
+     * place, e.g. its state changed, so that it is included in the next backup.
+     *
+     * @param rule flow rule
+     */
+    synchronized void markChanged(FlowRule rule) {
+        recordChange(rule.id().value());
+    }
+
+    /**
+     * Removes the stored entry matching the given rule, provided that the
+     * stored entry satisfies the given condition.
+     *
+     * @param rule      flow rule
+     * @param condition condition the stored entry must satisfy to be removed
+     * @return removed flow entry; null if none was removed
+     */
+    synchronized StoredFlowEntry remove(FlowRule rule, Predicate<StoredFlowEntry> condition) {
+        long key = rule.id().value();
+        int index = indexOf(key);
+        Object slot = slots[index];
+        if (slot == null) {
+            return null;
+        }
+        StoredFlowEntry stored = find(slot, rule);
+        if (stored == null || !condition.test(stored)) {
+            return null;
+        }
+        if (slot instanceof StoredFlowEntry) {
+            delete(index);
+        } else {
+            StoredFlowEntry[] chain = (StoredFlowEntry[]) slot;
+            if (chain.length == 2) {
+                slots[index] = chain[0] == stored ? chain[1] : chain[0];
+            } else {
+                StoredFlowEntry[] newChain = new StoredFlowEntry[chain.length - 1];
+                int i = 0;
+                for (StoredFlowEntry e : chain) {
+                    if (e != stored) {
+                        newChain[i++] = e;
+                    }
+                }
+                slots[index] = newChain;
+            }
+        }
+        size--;
+        snapshot = null;
+        persist(key);
+        recordChange(key);
+        return stored;
+    }
+
+    /**
+     * Replaces the contents of the table with the given entries.
+     *
+     * @param entries new flow entries
+     */
+    synchronized void replaceAll(Collection<? extends StoredFlowEntry> entries) {
+        allocate(Math.max(DEFAULT_CAPACITY, capacityFor(entries.size())));
+        entries.forEach(this::put);
+        if (backingStore != null) {
+            backingStore.clear();
+            backingStore.putAll(toMap());
+        }
+        version++;
+        mirroredVersion = NO_VERSION;
+        changesOverflowed = true;
+        changedCount = 0;
+    }
+
+    /**
+     * Returns the current version of the table. The version advances with
+     * every change to the table.
+     *
+     * @return table version
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the master table mirrored by this table, if its
+     * contents were last set from a backup and not changed locally since.
+     *
+     * @return mirrored version; {@link #NO_VERSION} if none
+     */
+    synchronized long mirroredVersion() {
+        return mirroredVersion;
+    }
+
+    /**
+     * Builds the backup to send for the changes made since the given version
+     * was acknowledged by the backup node, and resets the change tracking.
+     * A full snapshot is built if there is no acknowledged version or the
+     * changes since cannot be determined.
+     *
+     * @param deviceId     identifier of the device the table belongs to
+     * @param ackedVersion version last acknowledged by the backup node; null if none
+     * @return flow table backup
+     */
+    synchronized FlowTableDelta backup(DeviceId deviceId, Long ackedVersion) {
+        boolean full = ackedVersion == null || changesOverflowed;
+        Map<FlowId, List<StoredFlowEntry>> changes;
+        if (full) {
+            changes = Maps.newHashMapWithExpectedSize(occupied);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) {
+                    changes.put(FlowId.valueOf(keys[i]), chainList(slots[i]));
+                }
+            }
+        } else {
+            long[] changed = Arrays.copyOf(changedKeys, changedCount);
+            Arrays.sort(changed);
+            changes = Maps.newHashMapWithExpectedSize(changed.length);
+            for (int i = 0; i < changed.length; i++) {
+                if (i > 0 && changed[i] == changed[i - 1]) {
+                    continue;
+                }
+                int index = indexOf(changed[i]);
+                changes.put(FlowId.valueOf(changed[i]),
+                            slots[index] == null ? ImmutableList.of() : chainList(slots[index]));
+            }
+        }
+        FlowTableDelta delta = new FlowTableDelta(deviceId, full ? NO_VERSION : ackedVersion,
+                                                  version, full, changes, changedSince);
+        changedCount = 0;
+        changesOverflowed = false;
+        changedSince = 0;
+        return delta;
+    }
+
+    /**
+     * Applies a backup received from the master of the device. Deltas are
+     * expected to have been checked against {@link #mirroredVersion()}.
+     *
+     * @param delta flow table backup
+     */
+    synchronized void applyBackup(FlowTableDelta delta) {
+        if (delta.isFull()) {
+            replaceAll(delta.changes().values().stream()
+                               .flatMap(List::stream)
+                               .collect(Collectors.toList()));
+        } else {
+            delta.changes().forEach((flowId, entries) -> {
+                long key = flowId.value();
+                int index = indexOf(key);
+                if (slots[index] != null) {
+                    size -= slots[index] instanceof StoredFlowEntry ? 1 : ((StoredFlowEntry[]) slots[index]).length;
+                    delete(index);
+                }
+                entries.forEach(this::put);
+                persist(key);
+            });
+            snapshot = null;
+            version++;
+        }
+        // contents now come from elsewhere; a future backup from this
+        // table has to start over with a full snapshot
+        changesOverflowed = true;
+        changedCount = 0;
+        mirroredVersion = delta.version();
+    }
+
+    /**
+     * Returns the number of entries in the table.
+     *
+     * @return number of flow entries
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only snapshot of the table entries. The returned list
+     * is shared between callers and does not reflect subsequent additions
+     * or removals, although the entries themselves remain live.
+     *
+     * @return unmodifiable list of flow entries
+     */
+    synchronized List<FlowEntry> snapshot() {
+        if (snapshot == null) {
+            FlowEntry[] entries = new FlowEntry[size];
+            int i = 0;
+            for (Object slot : slots) {
+                if (slot instanceof StoredFlowEntry) {
+                    entries[i++] = (StoredFlowEntry) slot;
+                } else if (slot != null) {
+                    for (StoredFlowEntry e : (StoredFlowEntry[]) slot) {
+                        entries[i++] = e;
+                    }
+                }
+            }
+            snapshot = Collections.unmodifiableList(Arrays.asList(entries));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the table contents as a map of flow id to the entries sharing it.
+     *
+     * @return map of flow entries
+     */
+    synchronized Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> toMap() {
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> map = Maps.newHashMapWithExpectedSize(occupied);
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                map.put(FlowId.valueOf(keys[i]), chainMap(slots[i]));
+            }
+        }
+        return map;
+    }
+
+    private void put(StoredFlowEntry entry) {
+        long key = entry.id().value();
+        int index = indexOf(key);
+        Object slot = slots[index];
+        if (slot == null) {
+            keys[index] = key;
+            slots[index] = entry;
+            size++;
+            if (++occupied > slots.length * LOAD_FACTOR) {
+                rehash(slots.length << 1);
+            }
+        } else if (slot instanceof StoredFlowEntry) {
+            if (entry.equals(slot)) {
+                slots[index] = entry;
+            } else {
+                slots[index] = new StoredFlowEntry[]{(StoredFlowEntry) slot, entry};
+                size++;
+            }
+        } else {
+            StoredFlowEntry[] chain = (StoredFlowEntry[]) slot;
+            for (int i = 0; i < chain.length; i++) {
+                if (entry.equals(chain[i])) {
+                    chain[i] = entry;
+                    snapshot = null;
+                    return;
+                }
+            }
+            StoredFlowEntry[] newChain = Arrays.copyOf(chain, chain.length + 1);
+            newChain[chain.length] = entry;
+            slots[index] = newChain;
+            size++;
+        }
+        snapshot = null;
+    }
+
+    // Tracks a change of the entries with the given flow id.
+    private void recordChange(long key) {
+        version++;
+        mirroredVersion = NO_VERSION;
+        if (changedSince == 0) {
+            changedSince = System.currentTimeMillis();
+        }
+        if (changesOverflowed) {
+            return;
+        }
+        if (changedCount >= Math.max(MIN_TRACKED_CHANGES, size)) {
+            // a full snapshot is about as cheap; stop tracking
+            changesOverflowed = true;
+            changedCount = 0;
+            return;
+        }
+        if (changedCount == changedKeys.length) {
+            changedKeys = Arrays.copyOf(changedKeys, changedCount << 1);
+        }
+        changedKeys[changedCount++] = key;
+    }
+
+    // Writes the entries for the given flow id through to the backing store.
+    private void persist(long key) {
+        if (backingStore == null) {
+            return;
+        }
+        int index = indexOf(key);
+        if (slots[index] == null) {
+            backingStore.remove(FlowId.valueOf(key));
+        } else {
+            backingStore.put(FlowId.valueOf(key), chainMap(slots[index]));
+        }
+    }
+
+    private static Map<StoredFlowEntry, StoredFlowEntry> chainMap(Object slot) {
+        Map<StoredFlowEntry, StoredFlowEntry> map = Maps.newConcurrentMap();
+        if (slot instanceof StoredFlowEntry) {
+            map.put((StoredFlowEntry) slot, (StoredFlowEntry) slot);
+        } else {
+            for (StoredFlowEntry e : (StoredFlowEntry[]) slot) {
+                map.put(e, e);
+            }
+        }
+        return map;
+    }
+
+    private static List<StoredFlowEntry> chainList(Object slot) {
+        if (slot instanceof StoredFlowEntry) {
+            return ImmutableList.of((StoredFlowEntry) slot);
+        }
+        return ImmutableList.copyOf((StoredFlowEntry[]) slot);
+    }
+
+    private static StoredFlowEntry find(Object slot, FlowRule rule) {
+        if (slot instanceof StoredFlowEntry) {
+            return rule.equals(slot) ? (StoredFlowEntry) slot : null;
+        }
+        for (StoredFlowEntry e : (StoredFlowEntry[]) slot) {
+            if (rule.equals(e)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // Returns the index of the slot holding the key, or of the empty slot
+    // where it would be inserted.
+    private int indexOf(long key) {
+        int mask = slots.length - 1;
+        int index = hash(key) & mask;
+        while (slots[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    // Removes the slot at the given index, shifting back any following
+    // entries of the probe sequence so that no tombstones are needed.
+    private void delete(int index) {
+        int mask = slots.length - 1;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (slots[next] == null) {
+                break;
+            }
+            int home = hash(keys[next]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        slots[hole] = null;
+        occupied--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldSlots = slots;
+        keys = new long[capacity];
+        slots = new Object[capacity];
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                slots[index] = oldSlots[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        slots = new Object[capacity];
+        occupied = 0;
+        size = 0;
+        snapshot = null;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, (int) (entries / LOAD_FACTOR)));
+        return capacity << 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -16,8 +16,10 @@
 package org.onosproject.store.flow.impl;
 
  import com.google.common.collect.ImmutableList;
- import com.google.common.collect.ImmutableMap;
+ import com.codahale.metrics.Counter;
+ import com.codahale.metrics.Timer;
  import com.google.common.collect.Iterables;
+ import com.google.common.collect.Lists;
  import com.google.common.collect.Maps;
  import com.google.common.collect.Sets;
  import com.google.common.util.concurrent.Futures;
@@ -29,6 +31,9 @@ package org.onosproject.store.flow.impl;
  import org.apache.felix.scr.annotations.Reference;
  import org.apache.felix.scr.annotations.ReferenceCardinality;
  import org.apache.felix.scr.annotations.Service;
+ import org.onlab.metrics.MetricsComponent;
+ import org.onlab.metrics.MetricsFeature;
+ import org.onlab.metrics.MetricsService;
  import org.onlab.util.KryoNamespace;
  import org.onlab.util.Tools;
  import org.onosproject.cfg.ComponentConfigService;
@@ -85,13 +90,13 @@ package org.onosproject.store.flow.impl;
  import java.util.Map;
  import java.util.Objects;
  import java.util.Set;
- import java.util.concurrent.ExecutorService;
+ import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
  import java.util.concurrent.Executors;
  import java.util.concurrent.ScheduledExecutorService;
  import java.util.concurrent.ScheduledFuture;
  import java.util.concurrent.TimeUnit;
  import java.util.concurrent.atomic.AtomicInteger;
- import java.util.concurrent.atomic.AtomicReference;
  import java.util.stream.Collectors;
 
  import static com.google.common.base.Strings.isNullOrEmpty;
@@ -117,8 +122,6 @@ public class DistributedFlowRuleStore
     private static final boolean DEFAULT_PERSISTENCE_ENABLED = false;
     private static final int DEFAULT_BACKUP_PERIOD_MILLIS = 2000;
     private static final long FLOW_RULE_STORE_TIMEOUT_MILLIS = 5000;
-    // number of devices whose flow entries will be backed up in one communication round
-    private static final int FLOW_TABLE_BACKUP_BATCH_SIZE = 1;
 
     @Property(name = "msgHandlerPoolSize", intValue = MESSAGE_HANDLER_THREAD_POOL_SIZE,
             label = "Number of threads in the message handler pool")
@@ -161,6 +164,14 @@ public class DistributedFlowRuleStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected PersistenceService persistenceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
+    private Counter backupBytesSent;
+    private Counter backupDeltas;
+    private Counter backupFullSnapshots;
+    private Timer backupLag;
+
     private Map<Long, NodeId> pendingResponses = Maps.newConcurrentMap();
     private ExecutorService messageHandlingExecutor;
 
@@ -179,6 +190,7 @@ public class DistributedFlowRuleStore
             KryoNamespace.newBuilder()
                     .register(DistributedStoreSerializers.STORE_COMMON)
                     .nextId(DistributedStoreSerializers.STORE_CUSTOM_BEGIN)
+                    .register(FlowTableDelta.class)
                     .build("FlowRuleStore"));
 
     protected static final KryoNamespace.Builder SERIALIZER_BUILDER = KryoNamespace.newBuilder()
@@ -201,6 +213,7 @@ public class DistributedFlowRuleStore
                 msgHandlerPoolSize, groupedThreads("onos/store/flow", "message-handlers", log));
 
         registerMessageHandlers(messageHandlingExecutor);
+        registerMetrics();
 
         if (backupEnabled) {
             replicaInfoManager.addListener(flowTable);
@@ -312,17 +325,19 @@ public class DistributedFlowRuleStore
     private void registerMessageHandlers(ExecutorService executor) {
 
         clusterCommunicator.addSubscriber(APPLY_BATCH_FLOWS, new OnStoreBatch(), executor);
-        clusterCommunicator.<FlowRuleBatchEvent>addSubscriber(
+        clusterCommunicator.<FlowRuleBatchEvent>addBufferSubscriber(
                 REMOTE_APPLY_COMPLETED, SERIALIZER::decode, this::notifyDelegate, executor);
-        clusterCommunicator.addSubscriber(
+        clusterCommunicator.addBufferSubscriber(
                 GET_FLOW_ENTRY, SERIALIZER::decode, flowTable::getFlowEntry, SERIALIZER::encode, executor);
-        clusterCommunicator.addSubscriber(
-                GET_DEVICE_FLOW_ENTRIES, SERIALIZER::decode, flowTable::getFlowEntries, SERIALIZER::encode, executor);
-        clusterCommunicator.addSubscriber(
+        clusterCommunicator.addBufferSubscriber(
+                GET_DEVICE_FLOW_ENTRIES, SERIALIZER::decode,
+                (DeviceId deviceId) -> ImmutableList.copyOf(flowTable.getFlowEntries(deviceId)),
+                SERIALIZER::encode, executor);
+        clusterCommunicator.addBufferSubscriber(
                 REMOVE_FLOW_ENTRY, SERIALIZER::decode, this::removeFlowRuleInternal, SERIALIZER::encode, executor);
-        clusterCommunicator.addSubscriber(
+        clusterCommunicator.addBufferSubscriber(
                 REMOVE_FLOW_ENTRY, SERIALIZER::decode, this::removeFlowRuleInternal, SERIALIZER::encode, executor);
-        clusterCommunicator.addSubscriber(
+        clusterCommunicator.addBufferSubscriber(
                 FLOW_TABLE_BACKUP, SERIALIZER::decode, flowTable::onBackupReceipt, SERIALIZER::encode, executor);
     }
 
@@ -335,6 +350,25 @@ public class DistributedFlowRuleStore
         clusterCommunicator.removeSubscriber(FLOW_TABLE_BACKUP);
     }
 
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent("FlowRuleStore");
+        MetricsFeature feature = component.registerFeature("backup");
+        backupBytesSent = metricsService.createCounter(component, feature, "bytesSent");
+        backupDeltas = metricsService.createCounter(component, feature, "deltas");
+        backupFullSnapshots = metricsService.createCounter(component, feature, "fullSnapshots");
+        backupLag = metricsService.createTimer(component, feature, "lag");
+    }
+
+    // Records the time it took for a change to be acknowledged by the backup node.
+    private void updateBackupLag(long millis) {
+        if (backupLag != null) {
+            backupLag.update(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void logConfig(String prefix) {
         log.info("{} with msgHandlerPoolSize = {}; backupEnabled = {}, backupPeriod = {}",
                  prefix, msgHandlerPoolSize, backupEnabled, backupPeriod);
@@ -495,6 +529,7 @@ public class DistributedFlowRuleStore
                             if (entry != null) {
                                 //FIXME modification of "stored" flow entry outside of flow table
                                 entry.setState(FlowEntryState.PENDING_REMOVE);
+                                flowTable.markChanged(entry);
                                 log.debug("Setting state of rule to pending remove: {}", entry);
                                 return op;
                             }
@@ -527,6 +562,7 @@ public class DistributedFlowRuleStore
             if (stored != null &&
                     stored.state() != FlowEntryState.PENDING_ADD) {
                 stored.setState(FlowEntryState.PENDING_ADD);
+                flowTable.markChanged(stored);
                 return new FlowRuleEvent(Type.RULE_UPDATED, rule);
             }
         }
@@ -556,6 +592,7 @@ public class DistributedFlowRuleStore
             stored.setLastSeen();
             if (stored.state() == FlowEntryState.PENDING_ADD) {
                 stored.setState(FlowEntryState.ADDED);
+                flowTable.markChanged(stored);
                 return new FlowRuleEvent(Type.RULE_ADDED, rule);
             }
             return new FlowRuleEvent(Type.RULE_UPDATED, rule);
@@ -653,13 +690,13 @@ public class DistributedFlowRuleStore
 
     private class InternalFlowTable implements ReplicaInfoEventListener {
 
-        //TODO replace the Map<V,V> with ExtendedSet
-        private final Map<DeviceId, Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>>
-                flowEntries = Maps.newConcurrentMap();
+        private final Map<DeviceId, DeviceFlowTable> flowEntries = Maps.newConcurrentMap();
 
-        private final Map<DeviceId, Long> lastBackupTimes = Maps.newConcurrentMap();
-        private final Map<DeviceId, Long> lastUpdateTimes = Maps.newConcurrentMap();
+        // flow table versions acknowledged by the backup node of each device
+        private final Map<DeviceId, Long> lastBackupVersions = Maps.newConcurrentMap();
         private final Map<DeviceId, NodeId> lastBackupNodes = Maps.newConcurrentMap();
+        // devices with a backup under way; only one backup per device is kept in flight
+        private final Set<DeviceId> inFlightBackups = Sets.newConcurrentHashSet();
 
         @Override
         public void event(ReplicaInfoEvent event) {
@@ -687,7 +724,7 @@ public class DistributedFlowRuleStore
                     log.warn("Lost backup location {} for deviceId {} and no alternate backup node exists. "
                             + "Flows can be lost if the master goes down", currentBackupNode, deviceId);
                     lastBackupNodes.remove(deviceId);
-                    lastBackupTimes.remove(deviceId);
+                    lastBackupVersions.remove(deviceId);
                     return;
                     // TODO: Pick any available node as backup and ensure hand-off occurs when
                     // a new master is elected.
@@ -700,54 +737,90 @@ public class DistributedFlowRuleStore
             }
         }
 
-        private void sendBackups(NodeId nodeId, Set<DeviceId> deviceIds) {
-            // split up the devices into smaller batches and send them separately.
-            Iterables.partition(deviceIds, FLOW_TABLE_BACKUP_BATCH_SIZE)
-                     .forEach(ids -> backupFlowEntries(nodeId, Sets.newHashSet(ids)));
+        private void backupFlowEntries(NodeId nodeId, Set<DeviceId> deviceIds) {
+            List<FlowTableDelta> deltas = Lists.newArrayList();
+            for (DeviceId deviceId : deviceIds) {
+                if (!inFlightBackups.add(deviceId)) {
+                    // the next run will pick up whatever changed meanwhile
+                    continue;
+                }
+                Long ackedVersion = Objects.equals(lastBackupNodes.get(deviceId), nodeId) ?
+                        lastBackupVersions.get(deviceId) : null;
+                FlowTableDelta delta = getFlowTable(deviceId).backup(deviceId, ackedVersion);
+                if (delta.isFull()) {
+                    // full snapshots can be large; send each one on its own
+                    sendBackup(nodeId, ImmutableList.of(delta));
+                } else {
+                    deltas.add(delta);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                sendBackup(nodeId, deltas);
+            }
         }
 
-        private void backupFlowEntries(NodeId nodeId, Set<DeviceId> deviceIds) {
-            if (deviceIds.isEmpty()) {
-                return;
+        private void sendBackup(NodeId nodeId, List<FlowTableDelta> deltas) {
+            log.debug("Sending flow table backups {} to {}.", deltas, nodeId);
+            CompletableFuture<Set<DeviceId>> backup;
+            try {
+                backup = clusterCommunicator.sendAndReceive(
+                        deltas,
+                        FLOW_TABLE_BACKUP,
+                        this::encodeBackup,
+                        SERIALIZER::decode,
+                        nodeId);
+            } catch (RuntimeException e) {
+                // the devices must leave the in-flight set whatever happens
+                backup = Tools.exceptionalFuture(e);
             }
-            log.debug("Sending flowEntries for devices {} to {} as backup.", deviceIds, nodeId);
-            Map<DeviceId, Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>>
-                    deviceFlowEntries = Maps.newConcurrentMap();
-            deviceIds.forEach(id -> deviceFlowEntries.put(id, ImmutableMap.copyOf(getFlowTable(id))));
-            clusterCommunicator.<Map<DeviceId,
-                                 Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>>,
-                                 Set<DeviceId>>
-                    sendAndReceive(deviceFlowEntries,
-                                   FLOW_TABLE_BACKUP,
-                                   SERIALIZER::encode,
-                                   SERIALIZER::decode,
-                                   nodeId)
-                    .whenComplete((backedupDevices, error) -> {
-                        Set<DeviceId> devicesNotBackedup = error != null ?
-                            deviceFlowEntries.keySet() :
-                            Sets.difference(deviceFlowEntries.keySet(), backedupDevices);
-                        if (devicesNotBackedup.size() > 0) {
-                            log.warn("Failed to backup devices: {}. Reason: {}",
-                                     devicesNotBackedup, error.getMessage());
-                        }
-                        if (backedupDevices != null) {
-                            backedupDevices.forEach(id -> {
-                                lastBackupTimes.put(id, System.currentTimeMillis());
-                                lastBackupNodes.put(id, nodeId);
-                            });
+            backup.whenComplete((backedupDevices, error) -> {
+                long now = System.currentTimeMillis();
+                Set<DeviceId> devicesNotBackedup = Sets.newHashSet();
+                deltas.forEach(delta -> {
+                    DeviceId deviceId = delta.deviceId();
+                    if (backedupDevices != null && backedupDevices.contains(deviceId)) {
+                        lastBackupVersions.put(deviceId, delta.version());
+                        lastBackupNodes.put(deviceId, nodeId);
+                        if (delta.changedSince() > 0) {
+                            updateBackupLag(now - delta.changedSince());
                         }
-                    });
+                    } else {
+                        // changes shipped by this delta are lost; start over with a snapshot
+                        lastBackupVersions.remove(deviceId);
+                        devicesNotBackedup.add(deviceId);
+                    }
+                    inFlightBackups.remove(deviceId);
+                });
+                if (!devicesNotBackedup.isEmpty()) {
+                    log.warn("Failed to backup devices: {}. Reason: {}", devicesNotBackedup,
+                             error != null ? error.getMessage() : "backup version mismatch");
+                }
+            });
+        }
+
+        private byte[] encodeBackup(List<FlowTableDelta> deltas) {
+            byte[] bytes = SERIALIZER.encode(deltas);
+            if (backupBytesSent != null) {
+                backupBytesSent.inc(bytes.length);
+            }
+            deltas.forEach(delta -> {
+                Counter counter = delta.isFull() ? backupFullSnapshots : backupDeltas;
+                if (counter != null) {
+                    counter.inc();
+                }
+            });
+            return bytes;
         }
 
         /**
          * Returns the flow table for specified device.
          *
          * @param deviceId identifier of the device
-         * @return Map representing Flow Table of given device.
+         * @return Flow Table of given device.
          */
-        private Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> getFlowTable(DeviceId deviceId) {
+        private DeviceFlowTable getFlowTable(DeviceId deviceId) {
             if (persistenceEnabled) {
-                return flowEntries.computeIfAbsent(deviceId, id -> persistenceService
+                return flowEntries.computeIfAbsent(deviceId, id -> new DeviceFlowTable(persistenceService
                         .<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>persistentMapBuilder()
                         .withName("FlowTable:" + deviceId.toString())
                         .withSerializer(new Serializer() {
@@ -761,70 +834,55 @@ public class DistributedFlowRuleStore
                                 return SERIALIZER.decode(bytes);
                             }
                         })
-                        .build());
+                        .build()));
             } else {
-                return flowEntries.computeIfAbsent(deviceId, id -> Maps.newConcurrentMap());
+                return flowEntries.computeIfAbsent(deviceId, id -> new DeviceFlowTable());
             }
         }
 
-        private Map<StoredFlowEntry, StoredFlowEntry> getFlowEntriesInternal(DeviceId deviceId, FlowId flowId) {
-            return getFlowTable(deviceId).computeIfAbsent(flowId, id -> Maps.newConcurrentMap());
-        }
-
-        private StoredFlowEntry getFlowEntryInternal(FlowRule rule) {
-            return getFlowEntriesInternal(rule.deviceId(), rule.id()).get(rule);
-        }
-
-        private Set<FlowEntry> getFlowEntriesInternal(DeviceId deviceId) {
-            return getFlowTable(deviceId).values().stream()
-                        .flatMap(m -> m.values().stream())
-                        .collect(Collectors.toSet());
-        }
-
         public StoredFlowEntry getFlowEntry(FlowRule rule) {
-            return getFlowEntryInternal(rule);
+            return getFlowTable(rule.deviceId()).get(rule);
         }
 
-        public Set<FlowEntry> getFlowEntries(DeviceId deviceId) {
-            return getFlowEntriesInternal(deviceId);
+        /**
+         * Returns a read-only snapshot of the flow entries of the given device.
+         * The snapshot is shared between callers until the table changes.
+         *
+         * @param deviceId identifier of the device
+         * @return flow entries of the device
+         */
+        public List<FlowEntry> getFlowEntries(DeviceId deviceId) {
+            return getFlowTable(deviceId).snapshot();
         }
 
         public void add(FlowEntry rule) {
-            getFlowEntriesInternal(rule.deviceId(), rule.id())
-                    .compute((StoredFlowEntry) rule, (k, stored) -> {
-                        //TODO compare stored and rule timestamps
-                        //TODO the key is not updated
-                        return (StoredFlowEntry) rule;
-                    });
-            lastUpdateTimes.put(rule.deviceId(), System.currentTimeMillis());
+            //TODO compare stored and rule timestamps
+            getFlowTable(rule.deviceId()).add((StoredFlowEntry) rule);
+        }
+
+        /**
+         * Marks the stored entry matching the rule as modified in place, so
+         * that the change gets backed up.
+         *
+         * @param rule flow rule
+         */
+        public void markChanged(FlowRule rule) {
+            getFlowTable(rule.deviceId()).markChanged(rule);
         }
 
         public FlowEntry remove(DeviceId deviceId, FlowEntry rule) {
-            final AtomicReference<FlowEntry> removedRule = new AtomicReference<>();
-            getFlowEntriesInternal(rule.deviceId(), rule.id())
-                .computeIfPresent((StoredFlowEntry) rule, (k, stored) -> {
-                    if (rule instanceof DefaultFlowEntry) {
-                        DefaultFlowEntry toRemove = (DefaultFlowEntry) rule;
-                        if (stored instanceof DefaultFlowEntry) {
-                            DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
-                            if (toRemove.created() < storedEntry.created()) {
-                                log.debug("Trying to remove more recent flow entry {} (stored: {})",
-                                          toRemove, stored);
-                                // the key is not updated, removedRule remains null
-                                return stored;
-                            }
-                        }
+            return getFlowTable(deviceId).remove(rule, stored -> {
+                if (rule instanceof DefaultFlowEntry && stored instanceof DefaultFlowEntry) {
+                    DefaultFlowEntry toRemove = (DefaultFlowEntry) rule;
+                    DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
+                    if (toRemove.created() < storedEntry.created()) {
+                        log.debug("Trying to remove more recent flow entry {} (stored: {})",
+                                  toRemove, stored);
+                        return false;
                     }
-                    removedRule.set(stored);
-                    return null;
-                });
-
-            if (removedRule.get() != null) {
-                lastUpdateTimes.put(deviceId, System.currentTimeMillis());
-                return removedRule.get();
-            } else {
-                return null;
-            }
+                }
+                return true;
+            });
         }
 
         public void purgeFlowRule(DeviceId deviceId) {
@@ -846,14 +904,14 @@ public class DistributedFlowRuleStore
                 Set<DeviceId> devicesToBackup = flowEntries.keySet()
                             .stream()
                             .filter(mastershipService::isLocalMaster)
+                            .filter(deviceId -> !inFlightBackups.contains(deviceId))
                             .filter(deviceId -> {
-                                Long lastBackupTime = lastBackupTimes.get(deviceId);
-                                Long lastUpdateTime = lastUpdateTimes.get(deviceId);
+                                Long lastBackupVersion = lastBackupVersions.get(deviceId);
                                 NodeId lastBackupNode = lastBackupNodes.get(deviceId);
                                 NodeId newBackupNode = getBackupNode(deviceId);
-                                return lastBackupTime == null
-                                        ||  !Objects.equals(lastBackupNode, newBackupNode)
-                                        || (lastUpdateTime != null && lastUpdateTime > lastBackupTime);
+                                return lastBackupVersion == null
+                                        || !Objects.equals(lastBackupNode, newBackupNode)
+                                        || getFlowTable(deviceId).version() != lastBackupVersion;
                             })
                             .collect(Collectors.toSet());
 
@@ -867,26 +925,32 @@ public class DistributedFlowRuleStore
                     }
                 });
                 // send the device flow entries to their respective backup nodes
-                devicesToBackupByNode.forEach(this::sendBackups);
+                devicesToBackupByNode.forEach(this::backupFlowEntries);
             } catch (Exception e) {
                 log.error("Backup failed.", e);
             }
         }
 
-        private Set<DeviceId> onBackupReceipt(Map<DeviceId,
-                Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>> flowTables) {
-            log.debug("Received flowEntries for {} to backup", flowTables.keySet());
+        private Set<DeviceId> onBackupReceipt(List<FlowTableDelta> deltas) {
+            log.debug("Received flow table backups {}", deltas);
             Set<DeviceId> backedupDevices = Sets.newHashSet();
             try {
-                flowTables.forEach((deviceId, deviceFlowTable) -> {
+                deltas.forEach(delta -> {
+                    DeviceId deviceId = delta.deviceId();
                     // Only process those devices are that not managed by the local node.
-                    if (!Objects.equals(local, mastershipService.getMasterFor(deviceId))) {
-                        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> backupFlowTable =
-                                getFlowTable(deviceId);
-                        backupFlowTable.clear();
-                        backupFlowTable.putAll(deviceFlowTable);
-                        backedupDevices.add(deviceId);
+                    if (Objects.equals(local, mastershipService.getMasterFor(deviceId))) {
+                        return;
+                    }
+                    DeviceFlowTable backupFlowTable = getFlowTable(deviceId);
+                    if (!delta.isFull() && backupFlowTable.mirroredVersion() != delta.baseVersion()) {
+                        // versions diverged; the master will follow up with a full snapshot
+                        log.debug("Backup of {} is at version {} but delta is based on version {}",
+                                  deviceId, backupFlowTable.mirroredVersion(), delta.baseVersion());
+                        return;
                     }
+                    backupFlowTable.applyBackup(delta);
+                    lastBackupVersions.remove(deviceId);
+                    backedupDevices.add(deviceId);
                 });
             } catch (Exception e) {
                 log.warn("Failure processing backup request", e);
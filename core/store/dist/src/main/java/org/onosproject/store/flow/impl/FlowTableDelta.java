@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Versioned backup of a device flow table sent from the master to the
+ * backup node. A delta carries, for every flow id changed since the base
+ * version, the complete list of entries now stored under that flow id;
+ * a full snapshot carries all flow ids of the table.
+ */
+public final class FlowTableDelta {
+
+    private final DeviceId deviceId;
+    private final long baseVersion;
+    private final long version;
+    private final boolean full;
+    private final Map<FlowId, List<StoredFlowEntry>> changes;
+
+    // local bookkeeping only; not relevant to the receiver
+    private final transient long changedSince;
+
+    /**
+     * Creates a new flow table backup.
+     *
+     * @param deviceId     device identifier
+     * @param baseVersion  version the delta applies to; ignored for full snapshots
+     * @param version      version of the table after applying the backup
+     * @param full         true if this is a full snapshot of the table
+     * @param changes      entries keyed by the flow id they are stored under
+     * @param changedSince time in millis of the oldest change included
+     */
+    FlowTableDelta(DeviceId deviceId, long baseVersion, long version, boolean full,
+                   Map<FlowId, List<StoredFlowEntry>> changes, long changedSince) {
+        this.deviceId = deviceId;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.full = full;
+        this.changes = changes;
+        this.changedSince = changedSince;
+    }
+
+    /**
+     * Returns the device whose flow table is backed up.
+     *
+     * @return device identifier
+     */
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Returns the version of the backup this delta applies to.
+     *
+     * @return base version
+     */
+    public long baseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * Returns the version of the flow table after applying this backup.
+     *
+     * @return version
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns whether this is a full snapshot of the flow table.
+     *
+     * @return true for a full snapshot; false for a delta
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns the entries to store, keyed by flow id. An empty list means
+     * that all entries with that flow id were removed.
+     *
+     * @return changed entries
+     */
+    public Map<FlowId, List<StoredFlowEntry>> changes() {
+        return changes;
+    }
+
+    /**
+     * Returns the time of the oldest change carried by this backup, as seen
+     * by the sender.
+     *
+     * @return time in millis; 0 if unknown
+     */
+    long changedSince() {
+        return changedSince;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("deviceId", deviceId)
+                .add("baseVersion", baseVersion)
+                .add("version", version)
+                .add("full", full)
+                .add("changes", changes.size())
+                .toString();
+    }
+}
@@ -50,14 +50,13 @@ import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
 import org.slf4j.Logger;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
@@ -82,9 +81,17 @@ public class DistributedHostStore
     private ConsistentMap<HostId, DefaultHost> hostsConsistentMap;
     private Map<HostId, DefaultHost> hosts;
 
+    // Local mirror of the hosts, maintained along with the indexes below
+    // by the host location tracker.
     private final ConcurrentHashMap<HostId, DefaultHost> prevHosts =
             new ConcurrentHashMap<>();
 
+    private final Map<VlanId, Set<HostId>> hostsByVlan = new ConcurrentHashMap<>();
+    private final Map<MacAddress, Set<HostId>> hostsByMac = new ConcurrentHashMap<>();
+    private final Map<IpAddress, Set<HostId>> hostsByIp = new ConcurrentHashMap<>();
+    private final Map<ConnectPoint, Set<HostId>> hostsByLocation = new ConcurrentHashMap<>();
+    private final Map<DeviceId, Set<HostId>> hostsByDevice = new ConcurrentHashMap<>();
+
     private MapEventListener<HostId, DefaultHost> hostLocationTracker =
             new HostLocationTracker();
 
@@ -101,7 +108,7 @@ public class DistributedHostStore
 
         hosts = hostsConsistentMap.asJavaMap();
 
-        prevHosts.putAll(hosts);
+        hosts.values().forEach(host -> updateIndexes(prevHosts.put(host.id(), host), host));
 
         hostsConsistentMap.addListener(hostLocationTracker);
 
@@ -112,6 +119,11 @@ public class DistributedHostStore
     public void deactivate() {
         hostsConsistentMap.removeListener(hostLocationTracker);
         prevHosts.clear();
+        hostsByVlan.clear();
+        hostsByMac.clear();
+        hostsByIp.clear();
+        hostsByLocation.clear();
+        hostsByDevice.clear();
 
         log.info("Stopped");
     }
@@ -245,39 +257,91 @@ public class DistributedHostStore
 
     @Override
     public Set<Host> getHosts(VlanId vlanId) {
-        return filter(hosts.values(), host -> Objects.equals(host.vlan(), vlanId));
+        return lookup(hostsByVlan, vlanId, host -> Objects.equals(host.vlan(), vlanId));
     }
 
     @Override
     public Set<Host> getHosts(MacAddress mac) {
-        return filter(hosts.values(), host -> Objects.equals(host.mac(), mac));
+        return lookup(hostsByMac, mac, host -> Objects.equals(host.mac(), mac));
     }
 
     @Override
     public Set<Host> getHosts(IpAddress ip) {
-        return filter(hosts.values(), host -> host.ipAddresses().contains(ip));
+        return lookup(hostsByIp, ip, host -> host.ipAddresses().contains(ip));
     }
 
     @Override
     public Set<Host> getConnectedHosts(ConnectPoint connectPoint) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().location().equals(connectPoint))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        ConnectPoint key = new ConnectPoint(connectPoint.elementId(), connectPoint.port());
+        return lookup(hostsByLocation, key, host -> host.location().equals(connectPoint));
     }
 
     @Override
     public Set<Host> getConnectedHosts(DeviceId deviceId) {
-        Set<Host> filtered = hosts.entrySet().stream()
-                .filter(entry -> entry.getValue().location().deviceId().equals(deviceId))
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet());
-        return ImmutableSet.copyOf(filtered);
+        return lookup(hostsByDevice, deviceId, host -> host.location().deviceId().equals(deviceId));
+    }
+
+    // Returns the hosts recorded under the given key of an index. Hosts are
+    // checked against the predicate to leave out those whose index entries
+    // are in the process of being updated.
+    private <K> Set<Host> lookup(Map<K, Set<HostId>> index, K key, Predicate<DefaultHost> predicate) {
+        Set<HostId> hostIds = index.get(key);
+        if (hostIds == null) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<Host> builder = ImmutableSet.builder();
+        hostIds.forEach(hostId -> {
+            DefaultHost host = prevHosts.get(hostId);
+            if (host != null && predicate.test(host)) {
+                builder.add(host);
+            }
+        });
+        return builder.build();
+    }
+
+    // Moves the index entries of a host from its previous to its current
+    // attributes; either may be null.
+    private void updateIndexes(Host prevHost, Host host) {
+        if (prevHost == null && host == null) {
+            return;
+        }
+        HostId hostId = prevHost != null ? prevHost.id() : host.id();
+        updateIndex(hostsByVlan, hostId, keys(prevHost, Host::vlan), keys(host, Host::vlan));
+        updateIndex(hostsByMac, hostId, keys(prevHost, Host::mac), keys(host, Host::mac));
+        updateIndex(hostsByIp, hostId,
+                    prevHost != null ? prevHost.ipAddresses() : ImmutableSet.of(),
+                    host != null ? host.ipAddresses() : ImmutableSet.of());
+        updateIndex(hostsByLocation, hostId, keys(prevHost, DistributedHostStore::location),
+                    keys(host, DistributedHostStore::location));
+        updateIndex(hostsByDevice, hostId, keys(prevHost, h -> h.location().deviceId()),
+                    keys(host, h -> h.location().deviceId()));
+    }
+
+    // Strips the timestamp off a host location so that it can be looked up
+    // by plain connect point.
+    private static ConnectPoint location(Host host) {
+        return new ConnectPoint(host.location().elementId(), host.location().port());
+    }
+
+    private static <K> Set<K> keys(Host host, Function<Host, K> key) {
+        return host != null ? ImmutableSet.of(key.apply(host)) : ImmutableSet.of();
     }
 
-    private Set<Host> filter(Collection<DefaultHost> collection, Predicate<DefaultHost> predicate) {
-        return collection.stream().filter(predicate).collect(Collectors.toSet());
+    private static <K> void updateIndex(Map<K, Set<HostId>> index, HostId hostId,
+                                        Set<K> prevKeys, Set<K> keys) {
+        keys.stream()
+                .filter(key -> !prevKeys.contains(key))
+                .forEach(key -> index.compute(key, (k, hostIds) -> {
+                    Set<HostId> updated = hostIds != null ? hostIds : Sets.newConcurrentHashSet();
+                    updated.add(hostId);
+                    return updated;
+                }));
+        prevKeys.stream()
+                .filter(key -> !keys.contains(key))
+                .forEach(key -> index.computeIfPresent(key, (k, hostIds) -> {
+                    hostIds.remove(hostId);
+                    return hostIds.isEmpty() ? null : hostIds;
+                }));
     }
 
     private class HostLocationTracker implements MapEventListener<HostId, DefaultHost> {
@@ -287,9 +351,11 @@ public class DistributedHostStore
             Host prevHost = prevHosts.put(host.id(), host);
             switch (event.type()) {
                 case INSERT:
+                    updateIndexes(prevHost, host);
                     notifyDelegate(new HostEvent(HOST_ADDED, host));
                     break;
                 case UPDATE:
+                    updateIndexes(prevHost, host);
                     if (!Objects.equals(prevHost.location(), host.location())) {
                         notifyDelegate(new HostEvent(HOST_MOVED, host, prevHost));
                     } else if (!Objects.equals(prevHost, host)) {
@@ -297,6 +363,7 @@ public class DistributedHostStore
                     }
                     break;
                 case REMOVE:
+                    updateIndexes(prevHost, null);
                     if (prevHosts.remove(host.id()) != null) {
                         notifyDelegate(new HostEvent(HOST_REMOVED, host));
                     }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.resource.impl;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.Beta;
 import com.google.common.collect.ImmutableSet;
 import org.apache.felix.scr.annotations.Activate;
@@ -22,6 +23,9 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.net.resource.ContinuousResource;
@@ -46,6 +50,7 @@ import org.onosproject.store.service.TransactionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -53,6 +58,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,20 +90,41 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
             .register(MplsLabelCodec.class)
             .build());
 
+    // allocations and releases whose commit fails, as on concurrent updates, are attempted again
+    // at most this number of times in total
+    private static final int MAX_COMMIT_ATTEMPTS = 3;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected StorageService service;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private ConsistentDiscreteResourceSubStore discreteStore;
     private ConsistentContinuousResourceSubStore continuousStore;
 
+    private Counter commitFailures = new Counter();
+    private Counter commitRetries = new Counter();
+
     @Activate
     public void activate() {
         discreteStore = new ConsistentDiscreteResourceSubStore(service);
         continuousStore = new ConsistentContinuousResourceSubStore(service);
+        registerMetrics();
 
         log.info("Started");
     }
 
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent("ResourceStore");
+        MetricsFeature feature = component.registerFeature("allocation");
+        commitFailures = metricsService.createCounter(component, feature, "commitFailures");
+        commitRetries = metricsService.createCounter(component, feature, "commitRetries");
+    }
+
     // Computational complexity: O(1) if the resource is discrete type.
     // O(n) if the resource is continuous type where n is the number of the existing allocations for the resource
     @Override
@@ -203,56 +230,86 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
         }).join() == CommitStatus.SUCCESS;
     }
 
+    // Discrete resources are allocated in a single batch, so that the consumers of all
+    // of them are read at once, and the registration of all resources under the same
+    // parent is checked against a single read of the parent, whatever their number.
     @Override
     public boolean allocate(List<Resource> resources, ResourceConsumer consumer) {
         checkNotNull(resources);
         checkNotNull(consumer);
 
-        TransactionContext tx = service.transactionContextBuilder().build();
-        tx.begin();
-
-        TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
-        TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
-        for (Resource resource : resources) {
-            if (resource instanceof DiscreteResource) {
-                if (!discreteTxStore.allocate(consumer.consumerId(), (DiscreteResource) resource)) {
-                    return abortTransaction(tx);
-                }
-            } else if (resource instanceof ContinuousResource) {
-                if (!continuousTxStore.allocate(consumer.consumerId(), (ContinuousResource) resource)) {
-                    return abortTransaction(tx);
+        return execute(tx -> {
+            TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
+            TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
+            List<DiscreteResource> discreteResources = new ArrayList<>(resources.size());
+            for (Resource resource : resources) {
+                if (resource instanceof DiscreteResource) {
+                    discreteResources.add((DiscreteResource) resource);
+                } else if (resource instanceof ContinuousResource) {
+                    if (!continuousTxStore.allocate(consumer.consumerId(), (ContinuousResource) resource)) {
+                        return false;
+                    }
                 }
             }
-        }
 
-        return tx.commit().join() == CommitStatus.SUCCESS;
+            return discreteTxStore.allocate(consumer.consumerId(), discreteResources);
+        });
     }
 
     @Override
     public boolean release(List<ResourceAllocation> allocations) {
         checkNotNull(allocations);
 
-        TransactionContext tx = service.transactionContextBuilder().build();
-        tx.begin();
+        return execute(tx -> {
+            TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
+            TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
+            Map<DiscreteResourceId, ResourceConsumerId> discreteAllocations = new LinkedHashMap<>();
+            for (ResourceAllocation allocation : allocations) {
+                Resource resource = allocation.resource();
+                ResourceConsumerId consumerId = allocation.consumerId();
+
+                if (resource instanceof DiscreteResource) {
+                    // releasing the same resource twice fails as the second release would
+                    if (discreteAllocations.put(((DiscreteResource) resource).id(), consumerId) != null) {
+                        return false;
+                    }
+                } else if (resource instanceof ContinuousResource) {
+                    if (!continuousTxStore.release((ContinuousResource) resource, consumerId)) {
+                        return false;
+                    }
+                }
+            }
 
-        TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
-        TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
-        for (ResourceAllocation allocation : allocations) {
-            Resource resource = allocation.resource();
-            ResourceConsumerId consumerId = allocation.consumerId();
+            return discreteTxStore.release(discreteAllocations);
+        });
+    }
 
-            if (resource instanceof DiscreteResource) {
-                if (!discreteTxStore.release((DiscreteResource) resource, consumerId)) {
-                    return abortTransaction(tx);
-                }
-            } else if (resource instanceof ContinuousResource) {
-                if (!continuousTxStore.release((ContinuousResource) resource, consumerId)) {
-                    return abortTransaction(tx);
-                }
+    /**
+     * Runs the given operation in a transaction and commits it. The transaction is
+     * attempted again if the commit fails, as it does on concurrent updates, in which
+     * case the operation sees the result of these updates.
+     *
+     * @param operation operation to run, returning false if the transaction is to be aborted
+     * @return true if the transaction is committed, false otherwise
+     */
+    private boolean execute(Predicate<TransactionContext> operation) {
+        for (int attempt = 1; attempt <= MAX_COMMIT_ATTEMPTS; attempt++) {
+            TransactionContext tx = service.transactionContextBuilder().build();
+            tx.begin();
+            if (!operation.test(tx)) {
+                return abortTransaction(tx);
             }
-        }
 
-        return tx.commit().join() == CommitStatus.SUCCESS;
+            if (tx.commit().join() == CommitStatus.SUCCESS) {
+                return true;
+            }
+            commitFailures.inc();
+            if (attempt < MAX_COMMIT_ATTEMPTS) {
+                commitRetries.inc();
+            }
+        }
+        log.debug("Transaction failed after {} attempts", MAX_COMMIT_ATTEMPTS);
+        return false;
     }
 
     // computational complexity: O(1) if the resource is discrete type.
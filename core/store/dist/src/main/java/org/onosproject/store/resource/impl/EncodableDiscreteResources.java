@@ -88,7 +88,17 @@ final class EncodableDiscreteResources implements DiscreteResources {
     @Override
     public DiscreteResources difference(DiscreteResources other) {
         if (other instanceof EncodableDiscreteResources) {
-            return of(parent, Sets.difference(this.values(), other.values()));
+            Map<Class<?>, EncodedDiscreteResources> otherMap = ((EncodableDiscreteResources) other).map;
+            Map<Class<?>, EncodedDiscreteResources> newMap = new LinkedHashMap<>();
+            for (Map.Entry<Class<?>, EncodedDiscreteResources> entry : map.entrySet()) {
+                EncodedDiscreteResources otherValues = otherMap.get(entry.getKey());
+                EncodedDiscreteResources values = otherValues == null ? entry.getValue()
+                        : entry.getValue().difference(otherValues);
+                if (!values.isEmpty()) {
+                    newMap.put(entry.getKey(), values);
+                }
+            }
+            return new EncodableDiscreteResources(parent, newMap);
         } else if (other instanceof EmptyDiscreteResources) {
             return this;
         }
@@ -104,13 +114,20 @@ final class EncodableDiscreteResources implements DiscreteResources {
 
     @Override
     public boolean containsAny(Set<DiscreteResource> other) {
-        return !Sets.intersection(this.values(), other).isEmpty();
+        return other.stream()
+                .filter(x -> x.parent().map(parent::equals).orElse(false))
+                .anyMatch(x -> Optional.ofNullable(map.get(getClass(x)))
+                        .map(values -> values.contains(x))
+                        .orElse(false));
     }
 
     @Override
     public DiscreteResources add(DiscreteResources other) {
         if (other instanceof EncodableDiscreteResources) {
-            return of(parent, Sets.union(this.values(), other.values()));
+            Map<Class<?>, EncodedDiscreteResources> newMap = new LinkedHashMap<>(map);
+            ((EncodableDiscreteResources) other).map.forEach((cls, values) ->
+                    newMap.merge(cls, values, EncodedDiscreteResources::add));
+            return new EncodableDiscreteResources(parent, newMap);
         } else if (other instanceof EmptyDiscreteResources) {
             return this;
         }
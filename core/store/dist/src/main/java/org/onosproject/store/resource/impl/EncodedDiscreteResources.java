@@ -86,6 +86,32 @@ final class EncodedDiscreteResources {
         return rangeSet.isEmpty();
     }
 
+    /**
+     * Returns the resources contained in this set but not in the other one,
+     * computed on the encoded ranges without decoding the individual values.
+     *
+     * @param other resources encoded by the same codec
+     * @return difference of the two sets
+     */
+    EncodedDiscreteResources difference(EncodedDiscreteResources other) {
+        RangeSet<Integer> newRangeSet = TreeRangeSet.create(rangeSet);
+        newRangeSet.removeAll(other.rangeSet);
+        return new EncodedDiscreteResources(newRangeSet, codec);
+    }
+
+    /**
+     * Returns the resources contained in either this set or the other one,
+     * computed on the encoded ranges without decoding the individual values.
+     *
+     * @param other resources encoded by the same codec
+     * @return union of the two sets
+     */
+    EncodedDiscreteResources add(EncodedDiscreteResources other) {
+        RangeSet<Integer> newRangeSet = TreeRangeSet.create(rangeSet);
+        newRangeSet.addAll(other.rangeSet);
+        return new EncodedDiscreteResources(newRangeSet, codec);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(rangeSet, codec);
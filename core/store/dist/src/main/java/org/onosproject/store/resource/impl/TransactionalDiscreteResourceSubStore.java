@@ -24,6 +24,9 @@ import org.onosproject.store.service.TransactionalMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -111,24 +114,33 @@ class TransactionalDiscreteResourceSubStore {
         return consumers.get(id) != null;
     }
 
-    boolean allocate(ResourceConsumerId consumerId, DiscreteResource resource) {
-        // if the resource is not registered, then abort
-        Optional<DiscreteResource> lookedUp = lookup(resource.id());
-        if (!lookedUp.isPresent()) {
-            return false;
+    // the registration of resources under the same parent is checked against a single
+    // read of the parent, and the consumers of all resources are read at once
+    boolean allocate(ResourceConsumerId consumerId, List<DiscreteResource> resources) {
+        Set<DiscreteResourceId> ids = new LinkedHashSet<>(resources.size());
+        for (DiscreteResource resource : resources) {
+            // if the resource is not registered or requested twice, then abort
+            if (!lookup(resource.id()).isPresent() || !ids.add(resource.id())) {
+                return false;
+            }
         }
 
-        ResourceConsumerId oldValue = consumers.put(resource.id(), consumerId);
-        return oldValue == null;
+        if (!consumers.getAll(ids).isEmpty()) {
+            return false;
+        }
+        ids.forEach(id -> consumers.put(id, consumerId));
+        return true;
     }
 
-    boolean release(DiscreteResource resource, ResourceConsumerId consumerId) {
-        // if this single release fails (because the resource is allocated to another consumer)
+    // the consumers of all resources are read at once
+    boolean release(Map<DiscreteResourceId, ResourceConsumerId> allocations) {
+        // if a single release fails (because the resource is allocated to another consumer)
         // the whole release fails
-        if (!consumers.remove(resource.id(), consumerId)) {
+        Map<DiscreteResourceId, ResourceConsumerId> current = consumers.getAll(allocations.keySet());
+        if (!current.equals(allocations)) {
             return false;
         }
-
+        allocations.keySet().forEach(consumers::remove);
         return true;
     }
 }
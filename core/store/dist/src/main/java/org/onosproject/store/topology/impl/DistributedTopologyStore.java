@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.topology.impl;
 
+import com.google.common.base.Strings;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -73,6 +74,7 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.isNullOrEmpty;
+import static org.onlab.util.Tools.isPropertyEnabled;
 import static org.onosproject.net.topology.TopologyEvent.Type.TOPOLOGY_CHANGED;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -91,7 +93,8 @@ public class DistributedTopologyStore
 
     private final Logger log = getLogger(getClass());
 
-    private static final String FORMAT = "Settings: linkWeightFunction={}";
+    private static final String FORMAT =
+            "Settings: linkWeightFunction={}, incrementalCompute={}, pathCacheSize={}";
 
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
@@ -123,6 +126,15 @@ public class DistributedTopologyStore
             label = "Default link-weight function: hopCount, linkMetric, geoDistance")
     private String linkWeightFunction = DEFAULT_LINK_WEIGHT_FUNCTION;
 
+    private static final boolean DEFAULT_INCREMENTAL_COMPUTE = true;
+    @Property(name = "incrementalCompute", boolValue = DEFAULT_INCREMENTAL_COMPUTE,
+            label = "Derive clusters and broadcast trees from the previous topology")
+    private boolean incrementalCompute = DEFAULT_INCREMENTAL_COMPUTE;
+
+    @Property(name = "pathCacheSize", intValue = DefaultTopology.DEFAULT_PATH_CACHE_SIZE,
+            label = "Maximum number of device pairs whose shortest paths are cached per topology; 0 to disable")
+    private int pathCacheSize = DefaultTopology.DEFAULT_PATH_CACHE_SIZE;
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -168,7 +180,23 @@ public class DistributedTopologyStore
                             new GeoDistanceLinkWeight(deviceService) : null;
             setDefaultLinkWeight(weight);
         }
-        log.info(FORMAT, linkWeightFunction);
+
+        Boolean newIncrementalCompute = isPropertyEnabled(properties, "incrementalCompute");
+        if (newIncrementalCompute != null) {
+            incrementalCompute = newIncrementalCompute;
+        }
+
+        String s = get(properties, "pathCacheSize");
+        try {
+            int newPathCacheSize = Strings.isNullOrEmpty(s) ? pathCacheSize : Integer.parseInt(s.trim());
+            if (newPathCacheSize >= 0 && newPathCacheSize != pathCacheSize) {
+                pathCacheSize = newPathCacheSize;
+                DefaultTopology.setPathCacheSize(pathCacheSize);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid path cache size {}", s);
+        }
+        log.info(FORMAT, linkWeightFunction, incrementalCompute, pathCacheSize);
     }
 
     @Override
@@ -277,9 +305,11 @@ public class DistributedTopologyStore
             return null;
         }
 
-        // Have the default topology construct self from the description data.
+        // Have the default topology construct self from the description data,
+        // reusing whatever it can from the current topology.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint,
+                                    incrementalCompute ? current : null);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
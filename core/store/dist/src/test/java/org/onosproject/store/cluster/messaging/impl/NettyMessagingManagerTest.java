@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -122,6 +123,23 @@ public class NettyMessagingManagerTest {
         assertEquals(ep1, sender.get());
     }
 
+    @Test
+    public void testSendAndReceiveWithBufferHandler() {
+        AtomicReference<byte[]> request = new AtomicReference<>();
+
+        BiFunction<Endpoint, ByteBuffer, byte[]> handler = (ep, data) -> {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            request.set(bytes);
+            return "hello there".getBytes();
+        };
+        netty2.registerBufferHandler("test-subject", handler, MoreExecutors.directExecutor());
+
+        CompletableFuture<byte[]> response = netty1.sendAndReceive(ep2, "test-subject", "hello world".getBytes());
+        assertTrue(Arrays.equals("hello there".getBytes(), response.join()));
+        assertTrue(Arrays.equals(request.get(), "hello world".getBytes()));
+    }
+
     /*
      * Supplies executors when registering a handler and calling sendAndReceive and verifies the request handling
      * and response completion occurs on the expected thread.
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the per-device flow table.
+ */
+public class DeviceFlowTableTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("of:1");
+
+    private static StoredFlowEntry entry(long cookie, int port) {
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(DID)
+                .withCookie(cookie)
+                .withPriority(100)
+                .makePermanent()
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchInPort(PortNumber.portNumber(port)).build())
+                .build();
+        return new DefaultFlowEntry(rule);
+    }
+
+    @Test
+    public void addGetRemove() {
+        DeviceFlowTable table = new DeviceFlowTable();
+        List<StoredFlowEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            StoredFlowEntry e = entry(i, i);
+            entries.add(e);
+            table.add(e);
+        }
+        assertEquals(1000, table.size());
+        entries.forEach(e -> assertSame(e, table.get(e)));
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertSame(entries.get(i), table.remove(entries.get(i), e -> true));
+        }
+        assertEquals(500, table.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertNull(table.get(entries.get(i)));
+            } else {
+                assertSame(entries.get(i), table.get(entries.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void sharedFlowId() {
+        DeviceFlowTable table = new DeviceFlowTable();
+        StoredFlowEntry e1 = entry(7, 1);
+        StoredFlowEntry e2 = entry(7, 2);
+        StoredFlowEntry e3 = entry(7, 3);
+        table.add(e1);
+        table.add(e2);
+        table.add(e3);
+        assertEquals(3, table.size());
+        assertSame(e2, table.get(e2));
+
+        StoredFlowEntry replacement = entry(7, 2);
+        table.add(replacement);
+        assertEquals(3, table.size());
+        assertSame(replacement, table.get(e2));
+
+        assertSame(replacement, table.remove(e2, e -> true));
+        assertSame(e1, table.get(e1));
+        assertSame(e3, table.get(e3));
+        assertNull(table.get(e2));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void conditionalRemove() {
+        DeviceFlowTable table = new DeviceFlowTable();
+        StoredFlowEntry e1 = entry(1, 1);
+        table.add(e1);
+        assertNull(table.remove(e1, e -> false));
+        assertSame(e1, table.get(e1));
+    }
+
+    @Test
+    public void snapshot() {
+        DeviceFlowTable table = new DeviceFlowTable();
+        StoredFlowEntry e1 = entry(1, 1);
+        StoredFlowEntry e2 = entry(2, 2);
+        table.add(e1);
+        table.add(e2);
+
+        List<FlowEntry> snapshot = table.snapshot();
+        assertEquals(2, snapshot.size());
+        assertSame("snapshot should be shared", snapshot, table.snapshot());
+
+        table.add(entry(3, 3));
+        assertEquals(2, snapshot.size());
+        assertEquals(3, table.snapshot().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsReadOnly() {
+        DeviceFlowTable table = new DeviceFlowTable();
+        table.add(entry(1, 1));
+        table.snapshot().remove(0);
+    }
+
+    @Test
+    public void replaceAllAndBackingStore() {
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> store = Maps.newHashMap();
+        DeviceFlowTable table = new DeviceFlowTable(store);
+        StoredFlowEntry e1 = entry(1, 1);
+        StoredFlowEntry e2 = entry(2, 2);
+        table.add(e1);
+        table.add(e2);
+        assertEquals(2, store.size());
+
+        table.remove(e1, e -> true);
+        assertEquals(1, store.size());
+
+        DeviceFlowTable reloaded = new DeviceFlowTable(store);
+        assertSame(e2, reloaded.get(e2));
+
+        List<StoredFlowEntry> replacement = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            replacement.add(entry(i, i));
+        }
+        reloaded.replaceAll(replacement);
+        assertEquals(100, reloaded.size());
+        assertEquals(100, store.size());
+        assertTrue(new HashSet<>(reloaded.snapshot()).containsAll(replacement));
+    }
+
+    @Test
+    public void incrementalBackup() {
+        DeviceFlowTable master = new DeviceFlowTable();
+        DeviceFlowTable backup = new DeviceFlowTable();
+        for (int i = 0; i < 100; i++) {
+            master.add(entry(i, i));
+        }
+
+        FlowTableDelta full = master.backup(DID, null);
+        assertTrue(full.isFull());
+        assertEquals(100, full.changes().size());
+        backup.applyBackup(full);
+        assertEquals(100, backup.size());
+        assertEquals(full.version(), backup.mirroredVersion());
+
+        StoredFlowEntry added = entry(500, 500);
+        master.add(added);
+        master.remove(entry(3, 3), e -> true);
+        master.markChanged(entry(4, 4));
+
+        FlowTableDelta delta = master.backup(DID, full.version());
+        assertFalse(delta.isFull());
+        assertEquals(3, delta.changes().size());
+        assertEquals(full.version(), delta.baseVersion());
+        assertEquals(master.version(), delta.version());
+        assertTrue(delta.changes().get(FlowId.valueOf(3)).isEmpty());
+
+        backup.applyBackup(delta);
+        assertEquals(100, backup.size());
+        assertSame(added, backup.get(added));
+        assertNull(backup.get(entry(3, 3)));
+        assertEquals(delta.version(), backup.mirroredVersion());
+        assertEquals(new HashSet<>(master.snapshot()), new HashSet<>(backup.snapshot()));
+    }
+
+    @Test
+    public void localChangeInvalidatesMirror() {
+        DeviceFlowTable master = new DeviceFlowTable();
+        DeviceFlowTable backup = new DeviceFlowTable();
+        master.add(entry(1, 1));
+        backup.applyBackup(master.backup(DID, null));
+        backup.add(entry(2, 2));
+        assertEquals(DeviceFlowTable.NO_VERSION, backup.mirroredVersion());
+
+        // a table populated from a backup must start over with a snapshot
+        assertTrue(backup.backup(DID, 0L).isFull());
+    }
+}
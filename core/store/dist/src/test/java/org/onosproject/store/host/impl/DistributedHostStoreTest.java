@@ -15,12 +15,15 @@
  */
 package org.onosproject.store.host.impl;
 
+import com.google.common.collect.ImmutableSet;
 import junit.framework.TestCase;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Host;
 import org.onosproject.net.HostId;
 import org.onosproject.net.HostLocation;
@@ -80,4 +83,42 @@ public class DistributedHostStoreTest extends TestCase {
         assertTrue(host.ipAddresses().contains(IP2));
     }
 
+    /**
+     * Tests the lookups by host attribute.
+     */
+    @Test
+    public void testLookups() {
+        ConnectPoint cp1 = ConnectPoint.deviceConnectPoint("of:0000000000000001/1");
+        ConnectPoint cp2 = ConnectPoint.deviceConnectPoint("of:0000000000000002/1");
+        HostId hostId2 = HostId.hostId(MacAddress.valueOf("2b:2b:2b:2b:2b:2b"), VlanId.vlanId((short) 10));
+
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, new DefaultHostDescription(
+                HOSTID.mac(), HOSTID.vlanId(), new HostLocation(cp1, 0), ImmutableSet.of(IP1)), false);
+        ecXHostStore.createOrUpdateHost(PID, hostId2, new DefaultHostDescription(
+                hostId2.mac(), hostId2.vlanId(), new HostLocation(cp1, 0), ImmutableSet.of(IP2)), false);
+        Host host1 = ecXHostStore.getHost(HOSTID);
+        Host host2 = ecXHostStore.getHost(hostId2);
+
+        assertEquals(ImmutableSet.of(host1), ecXHostStore.getHosts(IP1));
+        assertEquals(ImmutableSet.of(host2), ecXHostStore.getHosts(hostId2.mac()));
+        assertEquals(ImmutableSet.of(host2), ecXHostStore.getHosts(hostId2.vlanId()));
+        assertEquals(ImmutableSet.of(host1, host2), ecXHostStore.getConnectedHosts(cp1));
+        assertEquals(ImmutableSet.of(host1, host2), ecXHostStore.getConnectedHosts(cp1.deviceId()));
+
+        // move the first host and give it another address
+        ecXHostStore.createOrUpdateHost(PID, HOSTID, new DefaultHostDescription(
+                HOSTID.mac(), HOSTID.vlanId(), new HostLocation(cp2, 0), ImmutableSet.of(IP2)), true);
+        host1 = ecXHostStore.getHost(HOSTID);
+
+        assertTrue(ecXHostStore.getHosts(IP1).isEmpty());
+        assertEquals(ImmutableSet.of(host1, host2), ecXHostStore.getHosts(IP2));
+        assertEquals(ImmutableSet.of(host2), ecXHostStore.getConnectedHosts(cp1));
+        assertEquals(ImmutableSet.of(host1), ecXHostStore.getConnectedHosts(cp2.deviceId()));
+
+        ecXHostStore.removeHost(hostId2);
+        assertEquals(ImmutableSet.of(host1), ecXHostStore.getHosts(IP2));
+        assertTrue(ecXHostStore.getHosts(hostId2.mac()).isEmpty());
+        assertTrue(ecXHostStore.getConnectedHosts(cp1).isEmpty());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.store.resource.impl;
+
+import com.codahale.metrics.Counter;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.junit.TestUtils.TestUtilsException;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.resource.DiscreteResource;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.Resources;
+import org.onosproject.store.primitives.TransactionId;
+import org.onosproject.store.service.CommitStatus;
+import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.ConsistentMapBuilder;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.TestConsistentMap;
+import org.onosproject.store.service.TestStorageService;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionContextBuilder;
+import org.onosproject.store.service.TransactionalMap;
+import org.onosproject.store.service.Versioned;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.onlab.junit.TestUtils.getField;
+
+/**
+ * Unit tests for ConsistentResourceStore.
+ */
+public class ConsistentResourceStoreTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("a");
+    private static final DiscreteResource DEVICE = Resources.discrete(DID).resource();
+    private static final DiscreteResource PORT1 = Resources.discrete(DID, PortNumber.portNumber(1)).resource();
+    private static final DiscreteResource PORT2 = Resources.discrete(DID, PortNumber.portNumber(2)).resource();
+    private static final ResourceConsumer CONSUMER1 = IntentId.valueOf(1);
+    private static final ResourceConsumer CONSUMER2 = IntentId.valueOf(2);
+
+    private TransactionalStorageService storage;
+    private ConsistentResourceStore store;
+
+    @Before
+    public void setUp() {
+        storage = new TransactionalStorageService();
+        store = new ConsistentResourceStore();
+        store.service = storage;
+        store.activate();
+
+        assertThat(store.register(ImmutableList.of(DEVICE)), is(true));
+        assertThat(store.register(ImmutableList.of(PORT1, PORT2)), is(true));
+    }
+
+    private long counter(String name) throws TestUtilsException {
+        Counter counter = getField(store, name);
+        return counter.getCount();
+    }
+
+    /**
+     * Tests that a discrete resource requested twice in one call fails the whole allocation.
+     */
+    @Test
+    public void testAllocateDuplicate() {
+        assertThat(store.allocate(ImmutableList.of(PORT1, PORT2, PORT1), CONSUMER1), is(false));
+
+        assertThat(store.isAvailable(PORT1), is(true));
+        assertThat(store.isAvailable(PORT2), is(true));
+    }
+
+    /**
+     * Tests that a discrete resource released twice in one call fails the whole release.
+     */
+    @Test
+    public void testReleaseDuplicate() {
+        assertThat(store.allocate(ImmutableList.of(PORT1, PORT2), CONSUMER1), is(true));
+
+        assertThat(store.release(ImmutableList.of(
+                new ResourceAllocation(PORT1, CONSUMER1),
+                new ResourceAllocation(PORT2, CONSUMER1),
+                new ResourceAllocation(PORT1, CONSUMER1))), is(false));
+
+        assertThat(store.isAvailable(PORT1), is(false));
+        assertThat(store.isAvailable(PORT2), is(false));
+    }
+
+    /**
+     * Tests that a resource allocated to another consumer is not released, nor
+     * any other resource released in the same call.
+     */
+    @Test
+    public void testReleaseHeldByAnotherConsumer() {
+        assertThat(store.allocate(ImmutableList.of(PORT1), CONSUMER1), is(true));
+        assertThat(store.allocate(ImmutableList.of(PORT2), CONSUMER2), is(true));
+
+        assertThat(store.release(ImmutableList.of(
+                new ResourceAllocation(PORT1, CONSUMER1),
+                new ResourceAllocation(PORT2, CONSUMER1))), is(false));
+
+        assertThat(store.getResourceAllocations(PORT1.id()),
+                contains(new ResourceAllocation(PORT1, CONSUMER1)));
+        assertThat(store.getResourceAllocations(PORT2.id()),
+                contains(new ResourceAllocation(PORT2, CONSUMER2)));
+    }
+
+    /**
+     * Tests that an allocation whose commit fails is attempted again.
+     */
+    @Test
+    public void testAllocateRetriedAfterFailedCommit() throws TestUtilsException {
+        storage.commitResults.add(CommitStatus.FAILURE);
+
+        assertThat(store.allocate(ImmutableList.of(PORT1), CONSUMER1), is(true));
+
+        assertThat(store.getResourceAllocations(PORT1.id()),
+                contains(new ResourceAllocation(PORT1, CONSUMER1)));
+        assertThat(counter("commitFailures"), is(1L));
+        assertThat(counter("commitRetries"), is(1L));
+    }
+
+    /**
+     * Tests that an allocation whose commits keep failing gives up after the last attempt.
+     */
+    @Test
+    public void testAllocateGivesUpAfterFailedCommits() throws TestUtilsException {
+        storage.commitResults.add(CommitStatus.FAILURE);
+        storage.commitResults.add(CommitStatus.FAILURE);
+        storage.commitResults.add(CommitStatus.FAILURE);
+
+        assertThat(store.allocate(ImmutableList.of(PORT1), CONSUMER1), is(false));
+
+        assertThat(store.getResourceAllocations(PORT1.id()), is(empty()));
+        assertThat(counter("commitFailures"), is(3L));
+        assertThat(counter("commitRetries"), is(2L));
+    }
+
+    /**
+     * Tests that an allocation rejected by the store is not attempted again.
+     */
+    @Test
+    public void testRejectedAllocationNotRetried() throws TestUtilsException {
+        assertThat(store.allocate(ImmutableList.of(PORT1), CONSUMER1), is(true));
+
+        assertThat(store.allocate(ImmutableList.of(PORT1), CONSUMER2), is(false));
+
+        assertThat(counter("commitFailures"), is(0L));
+        assertThat(counter("commitRetries"), is(0L));
+    }
+
+    /**
+     * Storage service whose transactions buffer their updates and apply them to
+     * the backing maps on successful commit. Commits succeed unless another
+     * result is queued.
+     */
+    private static final class TransactionalStorageService extends TestStorageService {
+        private final Map<String, ConsistentMap<?, ?>> maps = new HashMap<>();
+        private final Queue<CommitStatus> commitResults = new ArrayDeque<>();
+        private long nextTransactionId;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> ConsistentMapBuilder<K, V> consistentMapBuilder() {
+            return new TestConsistentMap.Builder<K, V>() {
+                @Override
+                public ConsistentMap<K, V> build() {
+                    return (ConsistentMap<K, V>) maps.computeIfAbsent(name(), name -> super.build());
+                }
+            };
+        }
+
+        @Override
+        public TransactionContextBuilder transactionContextBuilder() {
+            return new TransactionContextBuilder() {
+                @Override
+                public TransactionContext build() {
+                    return new TestTransactionContext(TransactionId.from(Long.toString(nextTransactionId++)));
+                }
+            };
+        }
+
+        private final class TestTransactionContext implements TransactionContext {
+            private final TransactionId transactionId;
+            private final Map<String, TestTransactionalMap<?, ?>> txMaps = new HashMap<>();
+            private boolean open;
+
+            private TestTransactionContext(TransactionId transactionId) {
+                this.transactionId = transactionId;
+            }
+
+            @Override
+            public String name() {
+                return transactionId.toString();
+            }
+
+            @Override
+            public TransactionId transactionId() {
+                return transactionId;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void begin() {
+                open = true;
+            }
+
+            @Override
+            public CompletableFuture<CommitStatus> commit() {
+                open = false;
+                CommitStatus status = commitResults.isEmpty() ? CommitStatus.SUCCESS : commitResults.remove();
+                if (status == CommitStatus.SUCCESS) {
+                    txMaps.values().forEach(TestTransactionalMap::apply);
+                }
+                return CompletableFuture.completedFuture(status);
+            }
+
+            @Override
+            public void abort() {
+                open = false;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> TransactionalMap<K, V> getTransactionalMap(String mapName, Serializer serializer) {
+                return (TransactionalMap<K, V>) txMaps.computeIfAbsent(mapName,
+                        name -> new TestTransactionalMap<>((ConsistentMap<K, V>) maps.get(name)));
+            }
+        }
+    }
+
+    /**
+     * Transactional map buffering its updates until they are applied.
+     */
+    private static final class TestTransactionalMap<K, V> implements TransactionalMap<K, V> {
+        private final ConsistentMap<K, V> backingMap;
+        private final Map<K, V> writes = new HashMap<>();
+        private final Set<K> deletes = new HashSet<>();
+
+        private TestTransactionalMap(ConsistentMap<K, V> backingMap) {
+            this.backingMap = backingMap;
+        }
+
+        @Override
+        public V get(K key) {
+            if (deletes.contains(key)) {
+                return null;
+            }
+            if (writes.containsKey(key)) {
+                return writes.get(key);
+            }
+            return Versioned.valueOrNull(backingMap.get(key));
+        }
+
+        @Override
+        public V put(K key, V value) {
+            V latest = get(key);
+            deletes.remove(key);
+            writes.put(key, value);
+            return latest;
+        }
+
+        @Override
+        public V remove(K key) {
+            V latest = get(key);
+            writes.remove(key);
+            deletes.add(key);
+            return latest;
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            V latest = get(key);
+            if (latest == null) {
+                put(key, value);
+            }
+            return latest;
+        }
+
+        @Override
+        public boolean remove(K key, V value) {
+            if (value.equals(get(key))) {
+                remove(key);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            if (oldValue.equals(get(key))) {
+                put(key, newValue);
+                return true;
+            }
+            return false;
+        }
+
+        private void apply() {
+            deletes.forEach(backingMap::remove);
+            writes.forEach(backingMap::put);
+        }
+    }
+}
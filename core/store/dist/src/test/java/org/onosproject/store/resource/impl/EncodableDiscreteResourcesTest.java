@@ -18,6 +18,7 @@ package org.onosproject.store.resource.impl;
 
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
+import org.onlab.packet.VlanId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.PortNumber;
 import org.onosproject.net.resource.DiscreteResource;
@@ -29,6 +30,12 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 public class EncodableDiscreteResourcesTest {
+    private static final DeviceId DID = DeviceId.deviceId("device1");
+    private static final PortNumber PN = PortNumber.portNumber(1);
+    private static final DiscreteResource VLAN1 = Resources.discrete(DID, PN, VlanId.vlanId((short) 1)).resource();
+    private static final DiscreteResource VLAN2 = Resources.discrete(DID, PN, VlanId.vlanId((short) 2)).resource();
+    private static final DiscreteResource VLAN3 = Resources.discrete(DID, PN, VlanId.vlanId((short) 3)).resource();
+
     @Test
     public void testIfResourceIsFound() {
         DiscreteResource res1 = Resources.discrete(DeviceId.deviceId("a"), PortNumber.portNumber(1)).resource();
@@ -165,4 +172,38 @@ public class EncodableDiscreteResourcesTest {
 
         assertThat(sut.values(), is(ImmutableSet.of(res1, res2)));
     }
+
+    @Test
+    public void testEncodedDifference() {
+        DiscreteResources sut = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN2, VLAN3));
+        DiscreteResources other = EncodableDiscreteResources.of(ImmutableSet.of(VLAN2));
+
+        DiscreteResources expected = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN3));
+        assertThat(sut.difference(other), is(expected));
+    }
+
+    @Test
+    public void testEncodedDifferenceIsEmpty() {
+        DiscreteResources sut = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN2));
+        DiscreteResources other = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN2, VLAN3));
+
+        assertThat(sut.difference(other).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEncodedAdd() {
+        DiscreteResources sut = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN3));
+        DiscreteResources other = EncodableDiscreteResources.of(ImmutableSet.of(VLAN2));
+
+        DiscreteResources expected = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN2, VLAN3));
+        assertThat(sut.add(other), is(expected));
+    }
+
+    @Test
+    public void testEncodedContainsAny() {
+        DiscreteResources sut = EncodableDiscreteResources.of(ImmutableSet.of(VLAN1, VLAN2));
+
+        assertThat(sut.containsAny(ImmutableSet.of(VLAN3, VLAN2)), is(true));
+        assertThat(sut.containsAny(ImmutableSet.of(VLAN3)), is(false));
+    }
 }
@@ -29,7 +29,34 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class AntiEntropyAdvertisement<K> {
 
+    /**
+     * Kind of summary carried by an advertisement.
+     */
+    public enum Type {
+        /**
+         * Digests of all map entries.
+         */
+        FULL,
+
+        /**
+         * Hashes of all segments of the map.
+         */
+        SEGMENTS,
+
+        /**
+         * Hashes of the buckets of some segments.
+         */
+        BUCKETS,
+
+        /**
+         * Hashes of some buckets along with the digests of their entries.
+         */
+        ENTRIES
+    }
+
     private final NodeId sender;
+    private final Type type;
+    private final Map<Integer, Long> hashes;
     private final Map<K, MapValue.Digest> digest;
 
     /**
@@ -40,7 +67,24 @@ public class AntiEntropyAdvertisement<K> {
      */
     public AntiEntropyAdvertisement(NodeId sender,
                                     Map<K, MapValue.Digest> digest) {
+        this(sender, Type.FULL, ImmutableMap.of(), digest);
+    }
+
+    /**
+     * Creates a new anti entropy advertisement message.
+     *
+     * @param sender the sender's node ID
+     * @param type   kind of summary carried
+     * @param hashes segment or bucket hashes, keyed by their index
+     * @param digest for map entries
+     */
+    public AntiEntropyAdvertisement(NodeId sender,
+                                    Type type,
+                                    Map<Integer, Long> hashes,
+                                    Map<K, MapValue.Digest> digest) {
         this.sender = checkNotNull(sender);
+        this.type = checkNotNull(type);
+        this.hashes = ImmutableMap.copyOf(checkNotNull(hashes));
         this.digest = ImmutableMap.copyOf(checkNotNull(digest));
     }
 
@@ -53,6 +97,25 @@ public class AntiEntropyAdvertisement<K> {
         return sender;
     }
 
+    /**
+     * Returns the kind of summary carried by this advertisement.
+     *
+     * @return advertisement type
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the segment or bucket hashes. For entry advertisements the
+     * keys identify the buckets whose entries are included.
+     *
+     * @return mapping from segment or bucket index to hash
+     */
+    public Map<Integer, Long> hashes() {
+        return hashes;
+    }
+
     /**
      * Returns the digest for map entries.
      *
@@ -66,6 +129,8 @@ public class AntiEntropyAdvertisement<K> {
     public String toString() {
         return MoreObjects.toStringHelper(getClass())
                 .add("sender", sender)
+                .add("type", type)
+                .add("totalHashes", hashes.size())
                 .add("totalEntries", digest.size())
                 .toString();
     }
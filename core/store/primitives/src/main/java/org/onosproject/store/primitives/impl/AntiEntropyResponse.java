@@ -33,5 +33,11 @@ public enum AntiEntropyResponse {
     /**
      * Signifies a ignored anti-entropy message, potentially due to the receiver operating under high load.
      */
-    IGNORED
+    IGNORED,
+
+    /**
+     * Signifies that the receiver found the replicas to differ and started
+     * narrowing down the entries that need to be reconciled.
+     */
+    RECONCILING
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.onosproject.store.service.Serializer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Two level hash tree summarizing the entries of an eventually consistent
+ * map for anti-entropy.
+ * <p>
+ * Entries are spread over a fixed number of buckets, each of which holds the
+ * XOR of the hashes of its entries so that it can be kept up to date in
+ * constant time as entries change. Buckets are grouped into segments. Two
+ * replicas first compare segment hashes, then the bucket hashes of the
+ * segments that differ, and finally exchange entry digests only for the
+ * buckets that differ.
+ * </p>
+ * <p>
+ * Placement and entry hashes are derived from the serialized form of keys
+ * and timestamps rather than from their hash codes, so that replicas agree
+ * on them even for keys whose hash codes differ from one JVM to another.
+ * </p>
+ */
+final class BucketDigests {
+
+    static final int SEGMENTS = 64;
+    static final int BUCKETS_PER_SEGMENT = 64;
+    static final int BUCKETS = SEGMENTS * BUCKETS_PER_SEGMENT;
+
+    private final AtomicLongArray hashes = new AtomicLongArray(BUCKETS);
+    private final Serializer serializer;
+
+    /**
+     * Creates digests hashing keys and timestamps with the given serializer.
+     *
+     * @param serializer serializer of the map keys and timestamps
+     */
+    BucketDigests(Serializer serializer) {
+        this.serializer = checkNotNull(serializer);
+    }
+
+    /**
+     * Returns the bucket the given key is placed in.
+     *
+     * @param key map key
+     * @return bucket index
+     */
+    int bucket(Object key) {
+        return bucket(hash(key));
+    }
+
+    private static int bucket(int keyHash) {
+        return (int) (mix(keyHash) & (BUCKETS - 1));
+    }
+
+    /**
+     * Returns the segment the given bucket belongs to.
+     *
+     * @param bucket bucket index
+     * @return segment index
+     */
+    static int segment(int bucket) {
+        return bucket / BUCKETS_PER_SEGMENT;
+    }
+
+    private int hash(Object object) {
+        return Arrays.hashCode(serializer.encode(object));
+    }
+
+    private long entryHash(int keyHash, MapValue<?> value) {
+        long hash = mix(((long) keyHash << 32) ^ (hash(value.timestamp()) & 0xFFFFFFFFL));
+        return value.isTombstone() ? ~hash : hash;
+    }
+
+    // finalization step of MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Records that the value stored under a key changed.
+     *
+     * @param key      map key
+     * @param oldValue previous value; null if there was none
+     * @param newValue new value; null if the key was removed
+     */
+    void update(Object key, MapValue<?> oldValue, MapValue<?> newValue) {
+        int keyHash = hash(key);
+        long delta = 0;
+        if (oldValue != null) {
+            delta ^= entryHash(keyHash, oldValue);
+        }
+        if (newValue != null) {
+            delta ^= entryHash(keyHash, newValue);
+        }
+        if (delta != 0) {
+            long change = delta;
+            hashes.accumulateAndGet(bucket(keyHash), change, (a, b) -> a ^ b);
+        }
+    }
+
+    /**
+     * Returns the hashes of all segments.
+     *
+     * @return mapping from segment index to segment hash
+     */
+    Map<Integer, Long> segmentHashes() {
+        Map<Integer, Long> result = Maps.newHashMapWithExpectedSize(SEGMENTS);
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            result.put(segment, segmentHash(segment));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the hashes of all buckets of the given segments.
+     *
+     * @param segments segment indexes
+     * @return mapping from bucket index to bucket hash
+     */
+    Map<Integer, Long> bucketHashes(Collection<Integer> segments) {
+        Map<Integer, Long> result = Maps.newHashMapWithExpectedSize(segments.size() * BUCKETS_PER_SEGMENT);
+        segments.forEach(segment -> {
+            int first = segment * BUCKETS_PER_SEGMENT;
+            for (int bucket = first; bucket < first + BUCKETS_PER_SEGMENT; bucket++) {
+                result.put(bucket, hashes.get(bucket));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the segments whose local hash differs from the given one.
+     *
+     * @param remote segment hashes of the peer
+     * @return differing segment indexes
+     */
+    Set<Integer> differingSegments(Map<Integer, Long> remote) {
+        Set<Integer> result = Sets.newHashSet();
+        remote.forEach((segment, hash) -> {
+            if (segmentHash(segment) != hash) {
+                result.add(segment);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the buckets whose local hash differs from the given one.
+     *
+     * @param remote bucket hashes of the peer
+     * @return differing bucket indexes
+     */
+    Set<Integer> differingBuckets(Map<Integer, Long> remote) {
+        Set<Integer> result = Sets.newHashSet();
+        remote.forEach((bucket, hash) -> {
+            if (hashes.get(bucket) != hash) {
+                result.add(bucket);
+            }
+        });
+        return result;
+    }
+
+    private long segmentHash(int segment) {
+        long hash = 0;
+        int first = segment * BUCKETS_PER_SEGMENT;
+        for (int bucket = first; bucket < first + BUCKETS_PER_SEGMENT; bucket++) {
+            // fold in the position so that swapped buckets do not cancel out
+            hash = hash * 31 + hashes.get(bucket);
+        }
+        return hash;
+    }
+}
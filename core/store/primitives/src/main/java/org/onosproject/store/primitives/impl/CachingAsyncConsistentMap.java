@@ -15,43 +15,96 @@
  */
 package org.onosproject.store.primitives.impl;
 
+import static org.onosproject.store.service.DistributedPrimitive.Status.ACTIVE;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
 
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Versioned;
+import org.onosproject.utils.MeteringAgent;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-
-import static org.onosproject.store.service.DistributedPrimitive.Status.INACTIVE;
-import static org.onosproject.store.service.DistributedPrimitive.Status.SUSPENDED;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
 
 /**
- * {@code AsyncConsistentMap} that caches entries on read.
+ * {@code AsyncConsistentMap} that keeps a near cache of the entries of the
+ * backing map.
  * <p>
- * The cache entries are automatically invalidated when updates are detected either locally or
- * remotely.
- * <p> This implementation only attempts to serve cached entries for {@link AsyncConsistentMap#get get}
- * calls. All other calls skip the cache and directly go the backing map.
+ * Entries are cached when read and kept up to date from the events of the
+ * backing map, which are applied only if they are newer than the cached
+ * version. Local updates are visible to subsequent reads: an update whose
+ * result carries the new value is applied to the cache, any other update
+ * makes reads of the key go to the backing map until the cache has caught up
+ * with it. Once the whole map has been read and fits in the cache, key, value
+ * and entry sets are served from the cache as well.
+ * </p><p>
+ * The cache is bounded either in number of entries or in weight, and is
+ * dropped whenever the backing map is no longer {@link Status#ACTIVE active},
+ * in which case all reads go to the backing map.
+ * </p>
  *
  * @param <K> key type
  * @param <V> value type
  */
 public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMap<K, V> {
-    private static final int DEFAULT_CACHE_SIZE = 10000;
+    static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final String PRIMITIVE_NAME = "consistentMapCache";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    private static final String STALE = "stale";
+
     private final Logger log = getLogger(getClass());
 
-    private final LoadingCache<K, CompletableFuture<Versioned<V>>> cache;
+    private final Cache<K, CachedValue<V>> cache;
+    private final long maxEntries;
+
+    // Epoch stamping each change to the cache, by which reads from the backing
+    // map tell whether the cache has moved on since they were issued.
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile long invalidatedAt;
 
-    private final MapEventListener<K, V> cacheInvalidator;
+    // Keys updated locally with a result not known to the cache, along with
+    // the epoch of the update.
+    private final ConcurrentMap<K, Long> pendingKeys = Maps.newConcurrentMap();
+    // Keys being read from the backing map, for which events must be kept.
+    private final Multiset<K> loadingKeys = ConcurrentHashMultiset.create();
+    private final AtomicInteger populating = new AtomicInteger();
+    // Whether the cache holds all entries of the map.
+    private boolean complete;
+    private volatile Status status = ACTIVE;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+
+    private final MapEventListener<K, V> cacheUpdater;
     private final Consumer<Status> statusListener;
 
     /**
@@ -70,114 +123,428 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
      * @param cacheSize the maximum size of the cache
      */
     public CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap, int cacheSize) {
+        this(backingMap, cacheSize, null, false);
+    }
+
+    /**
+     * Constructor to configure cache eviction and metering.
+     *
+     * @param backingMap a distributed, strongly consistent map for backing
+     * @param maxSize maximum number of entries in the cache, or maximum total
+     *                weight of the entries if a weigher is given
+     * @param weigher function computing the weight of an entry; null to bound
+     *                the cache by number of entries
+     * @param metered whether cache hits, misses and stale updates are to be
+     *                recorded in the metrics service
+     */
+    public CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap, long maxSize,
+                                     ToIntBiFunction<? super K, ? super V> weigher, boolean metered) {
         super(backingMap);
-        cache = CacheBuilder.newBuilder()
-                            .maximumSize(cacheSize)
-                            .build(CacheLoader.from(CachingAsyncConsistentMap.super::get));
-        cacheInvalidator = event -> cache.invalidate(event.key());
+        RemovalListener<K, CachedValue<V>> evictionListener = notification -> {
+            if (notification.wasEvicted() && notification.getValue().value != null) {
+                setComplete(false);
+            }
+        };
+        if (weigher == null) {
+            maxEntries = maxSize;
+            cache = CacheBuilder.newBuilder()
+                                .maximumSize(maxSize)
+                                .removalListener(evictionListener)
+                                .build();
+        } else {
+            maxEntries = Long.MAX_VALUE;
+            Weigher<K, CachedValue<V>> entryWeigher = (key, cached) ->
+                    cached.value == null ? 1 : Math.max(1, weigher.applyAsInt(key, cached.value.value()));
+            cache = CacheBuilder.newBuilder()
+                                .maximumWeight(maxSize)
+                                .weigher(entryWeigher)
+                                .removalListener(evictionListener)
+                                .build();
+        }
+
+        MeteringAgent monitor = new MeteringAgent(PRIMITIVE_NAME, backingMap.name(), metered);
+        hits = monitor.counter(HITS);
+        misses = monitor.counter(MISSES);
+        stale = monitor.counter(STALE);
+
+        cacheUpdater = this::update;
         statusListener = status -> {
             log.debug("{} status changed to {}", this.name(), status);
+            this.status = status;
             // If the status of the underlying map is SUSPENDED or INACTIVE
-            // we can no longer guarantee that the cache will be in sync.
-            if (status == SUSPENDED || status == INACTIVE) {
-                cache.invalidateAll();
-            }
+            // we can no longer guarantee that the cache will be in sync, and
+            // events may have been missed by the time it is ACTIVE again.
+            invalidateAll();
         };
-        super.addListener(cacheInvalidator);
+        super.addListener(cacheUpdater);
         super.addStatusChangeListener(statusListener);
     }
 
     @Override
     public CompletableFuture<Void> destroy() {
         super.removeStatusChangeListener(statusListener);
-        return super.destroy().thenCompose(v -> removeListener(cacheInvalidator));
+        return super.destroy().thenCompose(v -> removeListener(cacheUpdater));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> containsKey(K key) {
+        return get(key).thenApply(value -> value != null);
     }
 
     @Override
     public CompletableFuture<Versioned<V>> get(K key) {
-        return cache.getUnchecked(key)
+        CachedValue<V> cached = lookup(key);
+        if (cached != null) {
+            hits.inc();
+            return CompletableFuture.completedFuture(cached.value);
+        }
+        misses.inc();
+        long start = epoch.get();
+        loadingKeys.add(key);
+        return super.get(key)
+                .whenComplete((r, e) -> {
+                    if (e == null) {
+                        load(key, r, start);
+                    }
+                    loadingKeys.remove(key);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        Map<K, Versioned<V>> values = Maps.newHashMap();
+        Set<K> missingKeys = Sets.newHashSet();
+        keys.forEach(key -> {
+            CachedValue<V> cached = lookup(key);
+            if (cached == null) {
+                missingKeys.add(key);
+            } else if (cached.value != null) {
+                values.put(key, cached.value);
+            }
+        });
+        hits.inc(keys.size() - missingKeys.size());
+        if (missingKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(values);
+        }
+        misses.inc(missingKeys.size());
+        long start = epoch.get();
+        loadingKeys.addAll(missingKeys);
+        return super.getAll(missingKeys)
                 .whenComplete((r, e) -> {
-                    if (e != null) {
-                        cache.invalidate(key);
+                    if (e == null) {
+                        missingKeys.forEach(key -> load(key, r.get(key), start));
                     }
+                    missingKeys.forEach(loadingKeys::remove);
+                })
+                .thenApply(r -> {
+                    values.putAll(r);
+                    return values;
                 });
     }
 
+    @Override
+    public CompletableFuture<Set<K>> keySet() {
+        return entries().thenApply(entries -> ImmutableSet.copyOf(entries.keySet()));
+    }
+
+    @Override
+    public CompletableFuture<Collection<Versioned<V>>> values() {
+        return entries().thenApply(entries -> ImmutableList.copyOf(entries.values()));
+    }
+
+    @Override
+    public CompletableFuture<Set<Entry<K, Versioned<V>>>> entrySet() {
+        return entries().thenApply(entries -> ImmutableSet.copyOf(entries.entrySet()));
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> computeIf(K key,
             Predicate<? super V> condition,
             BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
         return super.computeIf(key, condition, remappingFunction)
-                .whenComplete((r, e) -> cache.invalidate(key));
+                .whenComplete((r, e) -> {
+                    if (e == null && r != null) {
+                        update(key, r);
+                    } else {
+                        invalidate(key);
+                    }
+                });
     }
 
     @Override
     public CompletableFuture<Versioned<V>> put(K key, V value) {
-        return super.put(key, value)
-                .whenComplete((r, e) -> cache.invalidate(key));
+        return updated(key, () -> super.put(key, value), r -> true);
     }
 
     @Override
     public CompletableFuture<Versioned<V>> putAndGet(K key, V value) {
         return super.putAndGet(key, value)
-                .whenComplete((r, e) -> cache.invalidate(key));
+                .whenComplete((r, e) -> {
+                    if (e == null) {
+                        update(key, r);
+                    } else {
+                        invalidate(key);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAll(Map<K, V> entries) {
+        return super.putAll(entries)
+                .whenComplete((r, e) -> entries.keySet().forEach(this::invalidate));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> remove(K key) {
-        return super.remove(key)
-                .whenComplete((r, e) -> cache.invalidate(key));
+        return updated(key, () -> super.remove(key), r -> r != null);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAll(Set<K> keys) {
+        return super.removeAll(keys)
+                .whenComplete((r, e) -> keys.forEach(this::invalidate));
     }
 
     @Override
     public CompletableFuture<Void> clear() {
         return super.clear()
-                .whenComplete((r, e) -> cache.invalidateAll());
+                .whenComplete((r, e) -> invalidateAll());
+    }
+
+    @Override
+    public CompletableFuture<Versioned<V>> putIfAbsent(K key, V value) {
+        return updated(key, () -> super.putIfAbsent(key, value), r -> r == null);
     }
 
     @Override
     public CompletableFuture<Boolean> remove(K key, V value) {
-        return super.remove(key, value)
-                .whenComplete((r, e) -> {
-                    if (r) {
-                        cache.invalidate(key);
-                    }
-                });
+        return updated(key, () -> super.remove(key, value), r -> r);
     }
 
     @Override
     public CompletableFuture<Boolean> remove(K key, long version) {
-        return super.remove(key, version)
-                .whenComplete((r, e) -> {
-                    if (r) {
-                        cache.invalidate(key);
-                    }
-                });
+        return updated(key, () -> super.remove(key, version), r -> r);
     }
 
     @Override
     public CompletableFuture<Versioned<V>> replace(K key, V value) {
-        return super.replace(key, value)
-                .whenComplete((r, e) -> cache.invalidate(key));
+        return updated(key, () -> super.replace(key, value), r -> r != null);
     }
 
     @Override
     public CompletableFuture<Boolean> replace(K key, V oldValue, V newValue) {
-        return super.replace(key, oldValue, newValue)
+        return updated(key, () -> super.replace(key, oldValue, newValue), r -> r);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> replace(K key, long oldVersion, V newValue) {
+        return updated(key, () -> super.replace(key, oldVersion, newValue), r -> r);
+    }
+
+    /**
+     * Returns the number of reads served from the cache.
+     *
+     * @return hit count
+     */
+    long hitCount() {
+        return hits.getCount();
+    }
+
+    /**
+     * Returns the number of reads that went to the backing map.
+     *
+     * @return miss count
+     */
+    long missCount() {
+        return misses.getCount();
+    }
+
+    /**
+     * Returns the number of map events and reads that were not applied to the
+     * cache because it already held newer values.
+     *
+     * @return stale update count
+     */
+    long staleCount() {
+        return stale.getCount();
+    }
+
+    // Returns the cached value of the key, the absent value if the key is
+    // known not to be in the map, or null if the backing map is to be read.
+    private CachedValue<V> lookup(K key) {
+        if (status != ACTIVE || pendingKeys.containsKey(key)) {
+            return null;
+        }
+        CachedValue<V> cached = cache.getIfPresent(key);
+        if (cached == null && isComplete()) {
+            return CachedValue.absent();
+        }
+        return cached;
+    }
+
+    // Returns all entries of the map, from the cache if it holds all of them.
+    private CompletableFuture<Map<K, Versioned<V>>> entries() {
+        if (status == ACTIVE && isComplete() && pendingKeys.isEmpty()) {
+            Map<K, Versioned<V>> entries = Maps.newHashMap();
+            cache.asMap().forEach((key, cached) -> {
+                if (cached.value != null) {
+                    entries.put(key, cached.value);
+                }
+            });
+            if (isComplete()) {
+                hits.inc();
+                return CompletableFuture.completedFuture(entries);
+            }
+        }
+        misses.inc();
+        long start = epoch.get();
+        populating.incrementAndGet();
+        return super.entrySet()
                 .whenComplete((r, e) -> {
-                    if (r) {
-                        cache.invalidate(key);
+                    if (e == null) {
+                        populate(r, start);
                     }
+                    populating.decrementAndGet();
+                })
+                .thenApply(r -> {
+                    ImmutableMap.Builder<K, Versioned<V>> entries = ImmutableMap.builder();
+                    r.forEach(entries::put);
+                    return entries.build();
                 });
     }
 
-    @Override
-    public CompletableFuture<Boolean> replace(K key, long oldVersion, V newValue) {
-        return super.replace(key, oldVersion, newValue)
+    // Records the value of a key read from the backing map at the given epoch,
+    // unless the cache has been updated since.
+    private void load(K key, Versioned<V> value, long start) {
+        if (status != ACTIVE || invalidatedAt > start) {
+            stale.inc();
+            return;
+        }
+        cache.asMap().compute(key, (k, cached) -> {
+            Long pending = pendingKeys.get(key);
+            if (pending != null) {
+                if (pending > start) {
+                    // the read may predate a local update
+                    stale.inc();
+                    return cached;
+                }
+                pendingKeys.remove(key, pending);
+            }
+            if (cached != null && (cached.epoch > start || cached.version > version(value))) {
+                stale.inc();
+                return cached;
+            }
+            return new CachedValue<>(value, version(value), start);
+        });
+    }
+
+    // Records all entries of the map read at the given epoch, after which the
+    // cache holds the whole map unless it was invalidated in the meantime.
+    private void populate(Set<Entry<K, Versioned<V>>> entries, long start) {
+        if (entries.size() > maxEntries) {
+            return;
+        }
+        Map<K, Versioned<V>> values = Maps.newHashMapWithExpectedSize(entries.size());
+        entries.forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+        values.forEach((key, value) -> load(key, value, start));
+        cache.asMap().entrySet().removeIf(entry -> entry.getValue().value != null
+                && entry.getValue().epoch <= start
+                && !values.containsKey(entry.getKey()));
+        // local updates of keys no longer in the map took effect before the read
+        pendingKeys.entrySet().removeIf(entry -> entry.getValue() <= start
+                && !values.containsKey(entry.getKey()));
+        synchronized (this) {
+            if (status == ACTIVE && invalidatedAt <= start && pendingKeys.isEmpty() && cache.size() >= values.size()) {
+                complete = true;
+            }
+        }
+    }
+
+    // Applies a map event to the cache, unless it is older than the cached
+    // value. Events for keys neither cached nor being read are dropped.
+    private void update(MapEvent<K, V> event) {
+        if (status != ACTIVE) {
+            return;
+        }
+        Versioned<V> value = event.newValue();
+        long version = value != null ? value.version() : version(event.oldValue());
+        boolean tracked = isComplete() || populating.get() > 0 || loadingKeys.contains(event.key());
+        cache.asMap().compute(event.key(), (key, cached) -> {
+            if (cached == null && !tracked) {
+                return null;
+            }
+            if (cached != null && cached.version > version) {
+                stale.inc();
+                return cached;
+            }
+            return new CachedValue<>(value, version, epoch.incrementAndGet());
+        });
+    }
+
+    // Applies the known result of a local update to the cache.
+    private void update(K key, Versioned<V> value) {
+        cache.asMap().compute(key, (k, cached) -> {
+            if (cached != null && cached.version > value.version()) {
+                return cached;
+            }
+            return new CachedValue<>(value, value.version(), epoch.incrementAndGet());
+        });
+    }
+
+    // Performs a local update whose new value is not returned, and makes
+    // reads of the key go to the backing map once the update took effect.
+    private <T> CompletableFuture<T> updated(K key, Supplier<CompletableFuture<T>> update,
+                                             Predicate<T> changed) {
+        return update.get()
                 .whenComplete((r, e) -> {
-                    if (r) {
-                        cache.invalidate(key);
+                    if (e != null || changed.test(r)) {
+                        invalidate(key);
                     }
                 });
     }
+
+    private void invalidate(K key) {
+        pendingKeys.put(key, epoch.incrementAndGet());
+        cache.invalidate(key);
+    }
+
+    private void invalidateAll() {
+        invalidatedAt = epoch.incrementAndGet();
+        setComplete(false);
+        cache.invalidateAll();
+        pendingKeys.clear();
+    }
+
+    private synchronized boolean isComplete() {
+        return complete;
+    }
+
+    private synchronized void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    private static long version(Versioned<?> value) {
+        return value != null ? value.version() : -1;
+    }
+
+    // Cached value of a key, null if the key is not in the map, along with
+    // the last known version of the key and the epoch at which it was cached.
+    private static final class CachedValue<V> {
+        private static final CachedValue<?> ABSENT = new CachedValue<>(null, -1, 0);
+
+        private final Versioned<V> value;
+        private final long version;
+        private final long epoch;
+
+        private CachedValue(Versioned<V> value, long version, long epoch) {
+            this.value = value;
+            this.version = version;
+            this.epoch = epoch;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> CachedValue<V> absent() {
+            return (CachedValue<V>) ABSENT;
+        }
+    }
 }
@@ -42,7 +42,10 @@ public class DefaultConsistentMapBuilder<K, V> extends ConsistentMapBuilder<K, V
     @Override
     public AsyncConsistentMap<K, V> buildAsyncMap() {
         AsyncConsistentMap<K, V> map = primitiveCreator.newAsyncConsistentMap(name(), serializer());
-        map = relaxedReadConsistency() ? DistributedPrimitives.newCachingMap(map) : map;
+        if (relaxedReadConsistency()) {
+            long cacheSize = cacheSize() > 0 ? cacheSize() : CachingAsyncConsistentMap.DEFAULT_CACHE_SIZE;
+            map = DistributedPrimitives.newCachingMap(map, cacheSize, cacheWeigher(), meteringEnabled());
+        }
         map = readOnly() ? DistributedPrimitives.newUnmodifiableMap(map) : map;
         return meteringEnabled() ? DistributedPrimitives.newMeteredMap(map) : map;
     }
@@ -60,6 +60,7 @@ public class DefaultTransactionalMap<K, V> implements TransactionalMap<K, V>, Tr
     private final String name;
     private final Serializer serializer;
     private final Map<K, Versioned<V>> readCache = Maps.newConcurrentMap();
+    private final Set<K> absentCache = Sets.newConcurrentHashSet();
     private final Map<K, V> writeCache = Maps.newConcurrentMap();
     private final Set<K> deleteSet = Sets.newConcurrentHashSet();
 
@@ -102,12 +103,47 @@ public class DefaultTransactionalMap<K, V> implements TransactionalMap<K, V>, Tr
         V latest = writeCache.get(key);
         if (latest != null) {
             return latest;
+        } else if (absentCache.contains(key)) {
+            return null;
         } else {
             Versioned<V> v = readCache.computeIfAbsent(key, k -> backingConsitentMap.get(k));
+            if (v == null) {
+                absentCache.add(key);
+            }
             return v != null ? v.value() : null;
         }
     }
 
+    @Override
+    public Map<K, V> getAll(Set<K> keys) {
+        checkState(txContext.isOpen(), TX_CLOSED_ERROR);
+        Set<K> unread = keys.stream()
+                .filter(key -> !deleteSet.contains(key)
+                        && !writeCache.containsKey(key)
+                        && !readCache.containsKey(key)
+                        && !absentCache.contains(key))
+                .collect(Collectors.toSet());
+        if (!unread.isEmpty()) {
+            Map<K, Versioned<V>> read = backingConsitentMap.getAll(unread);
+            unread.forEach(key -> {
+                Versioned<V> v = read.get(key);
+                if (v != null) {
+                    readCache.putIfAbsent(key, v);
+                } else {
+                    absentCache.add(key);
+                }
+            });
+        }
+        Map<K, V> values = Maps.newHashMap();
+        keys.forEach(key -> {
+            V value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
     @Override
     public V put(K key, V value) {
         checkState(txContext.isOpen(), TX_CLOSED_ERROR);
@@ -283,6 +319,7 @@ public class DefaultTransactionalMap<K, V> implements TransactionalMap<K, V>, Tr
      */
     protected void abort() {
         readCache.clear();
+        absentCache.clear();
         writeCache.clear();
         deleteSet.clear();
     }
@@ -16,6 +16,7 @@
 package org.onosproject.store.primitives.impl;
 
 import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 
 import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.AsyncDistributedSet;
@@ -62,6 +63,24 @@ public final class DistributedPrimitives {
         return new CachingAsyncConsistentMap<>(map);
     }
 
+    /**
+     * Creates an instance of {@code AsyncConsistentMap} that caches entries
+     * within the given bounds.
+     *
+     * @param map backing map
+     * @param maxSize maximum number of cached entries, or maximum total weight
+     *                of cached entries if a weigher is given
+     * @param weigher function computing the weight of an entry; may be null
+     * @param metered whether cache hits and misses are to be metered
+     * @return caching map
+     * @param <K> map key type
+     * @param <V> map value type
+     */
+    public static <K, V> AsyncConsistentMap<K, V> newCachingMap(AsyncConsistentMap<K, V> map, long maxSize,
+            ToIntBiFunction<? super K, ? super V> weigher, boolean metered) {
+        return new CachingAsyncConsistentMap<>(map, maxSize, weigher, metered);
+    }
+
     /**
      * Creates an instance of {@code AsyncConsistentMap} that disallows updates.
      *
@@ -105,6 +105,9 @@ public class EventuallyConsistentMapImpl<K, V>
 
     private long previousTombstonePurgeTime;
     private final Map<NodeId, Long> antiEntropyTimes = Maps.newConcurrentMap();
+    // start times of the anti-entropy rounds this instance initiated
+    private final Map<NodeId, Long> antiEntropyRounds = Maps.newConcurrentMap();
+    private final BucketDigests digests;
 
     private final String mapName;
 
@@ -122,6 +125,10 @@ public class EventuallyConsistentMapImpl<K, V>
     private static final int WINDOW_SIZE = 5;
     private static final int HIGH_LOAD_THRESHOLD = 2;
     private static final int LOAD_WINDOW = 2;
+
+    // maps up to this size advertise the digests of all entries at once
+    private static final int FULL_ADVERTISEMENT_MAX_ENTRIES = 1000;
+    private static final long NO_ROUND = 0;
     private SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW_SIZE);
 
     private final boolean persistent;
@@ -174,6 +181,7 @@ public class EventuallyConsistentMapImpl<K, V>
                                 PersistenceService persistenceService) {
         this.mapName = mapName;
         this.serializer = createSerializer(ns);
+        this.digests = new BucketDigests(serializer);
         this.persistenceService = persistenceService;
         this.persistent =
                 persistent;
@@ -185,6 +193,7 @@ public class EventuallyConsistentMapImpl<K, V>
         } else {
             items = Maps.newConcurrentMap();
         }
+        items.forEach((key, value) -> digests.update(key, null, value));
         senderPending = Maps.newConcurrentMap();
         destroyedMessage = mapName + ERROR_DESTROYED;
 
@@ -234,23 +243,23 @@ public class EventuallyConsistentMapImpl<K, V>
                                                     antiEntropyTimeUnit);
 
         updateMessageSubject = new MessageSubject("ecm-" + mapName + "-update");
-        clusterCommunicator.addSubscriber(updateMessageSubject,
-                                          serializer::decode,
-                                          this::processUpdates,
-                                          this.executor);
+        clusterCommunicator.addBufferSubscriber(updateMessageSubject,
+                                                serializer::decode,
+                                                this::processUpdates,
+                                                this.executor);
 
         antiEntropyAdvertisementSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy");
-        clusterCommunicator.addSubscriber(antiEntropyAdvertisementSubject,
-                                          serializer::decode,
-                                          this::handleAntiEntropyAdvertisement,
-                                          serializer::encode,
-                                          this.backgroundExecutor);
+        clusterCommunicator.addBufferSubscriber(antiEntropyAdvertisementSubject,
+                                                serializer::decode,
+                                                this::handleAntiEntropyAdvertisement,
+                                                serializer::encode,
+                                                this.backgroundExecutor);
 
         updateRequestSubject = new MessageSubject("ecm-" + mapName + "-update-request");
-        clusterCommunicator.addSubscriber(updateRequestSubject,
-                                          serializer::decode,
-                                          this::handleUpdateRequests,
-                                          this.backgroundExecutor);
+        clusterCommunicator.addBufferSubscriber(updateRequestSubject,
+                                                serializer::decode,
+                                                this::handleUpdateRequests,
+                                                this.backgroundExecutor);
 
         if (!tombstonesDisabled) {
             previousTombstonePurgeTime = 0;
@@ -281,6 +290,7 @@ public class EventuallyConsistentMapImpl<K, V>
                          .register(UpdateEntry.class)
                          .register(MapValue.class)
                          .register(MapValue.Digest.class)
+                         .register(AntiEntropyAdvertisement.Type.class)
                          .build(name() + "-ecmap"));
     }
 
@@ -397,6 +407,7 @@ public class EventuallyConsistentMapImpl<K, V>
             }
             if (updated.get()) {
                 previousValue.set(existing);
+                digests.update(k, existing, tombstone.orElse(null));
                 return tombstone.orElse(null);
             } else {
                 return existing;
@@ -421,7 +432,9 @@ public class EventuallyConsistentMapImpl<K, V>
                 updated.set(true);
                 // We return a copy to ensure updates to peers can be serialized.
                 // This prevents replica divergence due to serialization failures.
-                return serializer.copy(newValue);
+                MapValue<V> copy = serializer.copy(newValue);
+                digests.update(k, mv, copy);
+                return copy;
             } else {
                 return mv;
             }
@@ -492,6 +505,7 @@ public class EventuallyConsistentMapImpl<K, V>
         items.compute(key, (k, existing) -> {
             if (existing == null || newValue.isNewerThan(existing)) {
                 updated.set(true);
+                digests.update(k, existing, newValue);
                 return newValue;
             }
             return existing;
@@ -576,7 +590,31 @@ public class EventuallyConsistentMapImpl<K, V>
 
     private void sendAdvertisementToPeer(NodeId peer) {
         long adCreationTime = System.currentTimeMillis();
-        AntiEntropyAdvertisement<K> ad = createAdvertisement();
+        AntiEntropyAdvertisement<K> ad;
+        if (items.size() <= FULL_ADVERTISEMENT_MAX_ENTRIES) {
+            ad = createAdvertisement();
+        } else {
+            // start at the top of the hash tree; see handleSegments
+            antiEntropyRounds.put(peer, adCreationTime);
+            ad = new AntiEntropyAdvertisement<>(localNodeId,
+                    AntiEntropyAdvertisement.Type.SEGMENTS,
+                    digests.segmentHashes(),
+                    ImmutableMap.of());
+        }
+        sendAdvertisementToPeer(peer, ad, adCreationTime);
+    }
+
+    /**
+     * Sends an advertisement to a peer. Once the peer has processed it, all
+     * local entries as of the given round start time are known to have been
+     * reconciled with the peer.
+     *
+     * @param peer       peer node
+     * @param ad         advertisement to send
+     * @param roundStart start time of the anti-entropy round; NO_ROUND if
+     *                   processing the advertisement does not complete a round
+     */
+    private void sendAdvertisementToPeer(NodeId peer, AntiEntropyAdvertisement<K> ad, long roundStart) {
         clusterCommunicator.sendAndReceive(ad,
                 antiEntropyAdvertisementSubject,
                 serializer::encode,
@@ -585,8 +623,8 @@ public class EventuallyConsistentMapImpl<K, V>
                 .whenComplete((result, error) -> {
                     if (error != null) {
                         log.debug("Failed to send anti-entropy advertisement to {}", peer, error);
-                    } else if (result == AntiEntropyResponse.PROCESSED) {
-                        antiEntropyTimes.put(peer, adCreationTime);
+                    } else if (result == AntiEntropyResponse.PROCESSED && roundStart != NO_ROUND) {
+                        antiEntropyTimes.put(peer, roundStart);
                     }
                 });
     }
@@ -615,10 +653,19 @@ public class EventuallyConsistentMapImpl<K, V>
         }
         try {
             if (log.isTraceEnabled()) {
-                log.trace("Received anti-entropy advertisement from {} for {} with {} entries in it",
-                        ad.sender(), mapName, ad.digest().size());
+                log.trace("Received {} anti-entropy advertisement from {} for {} with {} hashes and {} entries in it",
+                        ad.type(), ad.sender(), mapName, ad.hashes().size(), ad.digest().size());
+            }
+            switch (ad.type()) {
+                case SEGMENTS:
+                    return handleSegments(ad);
+                case BUCKETS:
+                    handleBuckets(ad);
+                    break;
+                default:
+                    antiEntropyCheckLocalItems(ad).forEach(this::notifyListeners);
+                    break;
             }
-            antiEntropyCheckLocalItems(ad).forEach(this::notifyListeners);
         } catch (Exception e) {
             log.warn("Error handling anti-entropy advertisement", e);
             return AntiEntropyResponse.FAILED;
@@ -626,11 +673,61 @@ public class EventuallyConsistentMapImpl<K, V>
         return AntiEntropyResponse.PROCESSED;
     }
 
+    /**
+     * Compares the segment hashes of a peer with the local ones. If any of
+     * them differ, the bucket hashes of those segments are sent back so that
+     * the peer can narrow the difference down further.
+     */
+    private AntiEntropyResponse handleSegments(AntiEntropyAdvertisement<K> ad) {
+        Set<Integer> differing = digests.differingSegments(ad.hashes());
+        if (differing.isEmpty()) {
+            return AntiEntropyResponse.PROCESSED;
+        }
+        sendAdvertisementToPeer(ad.sender(),
+                                new AntiEntropyAdvertisement<>(localNodeId,
+                                        AntiEntropyAdvertisement.Type.BUCKETS,
+                                        digests.bucketHashes(differing),
+                                        ImmutableMap.of()),
+                                NO_ROUND);
+        return AntiEntropyResponse.RECONCILING;
+    }
+
+    /**
+     * Compares the bucket hashes of a peer with the local ones, and sends
+     * the digests of the local entries in the buckets that differ back to
+     * the peer. This completes the round this instance started.
+     */
+    private void handleBuckets(AntiEntropyAdvertisement<K> ad) {
+        NodeId peer = ad.sender();
+        Long roundStart = antiEntropyRounds.remove(peer);
+        Set<Integer> differing = digests.differingBuckets(ad.hashes());
+        if (differing.isEmpty()) {
+            if (roundStart != null) {
+                antiEntropyTimes.put(peer, roundStart);
+            }
+            return;
+        }
+        Map<K, MapValue.Digest> digest = Maps.newHashMap();
+        items.forEach((key, value) -> {
+            if (differing.contains(digests.bucket(key))) {
+                digest.put(key, value.digest());
+            }
+        });
+        sendAdvertisementToPeer(peer,
+                                new AntiEntropyAdvertisement<>(localNodeId,
+                                        AntiEntropyAdvertisement.Type.ENTRIES,
+                                        Maps.filterKeys(ad.hashes(), differing::contains),
+                                        digest),
+                                roundStart != null ? roundStart : NO_ROUND);
+    }
+
     /**
      * Processes anti-entropy ad from peer by taking following actions:
      * 1. If peer has an old entry, updates peer.
      * 2. If peer indicates an entry is removed and has a more recent
      * timestamp than the local entry, update local state.
+     * Entry advertisements only cover the local entries of the buckets
+     * they list.
      */
     private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
             AntiEntropyAdvertisement<K> ad) {
@@ -639,8 +736,13 @@ public class EventuallyConsistentMapImpl<K, V>
         final List<NodeId> peers = ImmutableList.of(sender);
         Set<K> staleOrMissing = new HashSet<>();
         Set<K> locallyUnknown = new HashSet<>(ad.digest().keySet());
+        Set<Integer> buckets = ad.type() == AntiEntropyAdvertisement.Type.ENTRIES
+                ? ad.hashes().keySet() : null;
 
         items.forEach((key, localValue) -> {
+            if (buckets != null && !buckets.contains(digests.bucket(key))) {
+                return;
+            }
             locallyUnknown.remove(key);
             MapValue.Digest remoteValueDigest = ad.digest().get(key);
             if (remoteValueDigest == null || localValue.isNewerThan(remoteValueDigest.timestamp())) {
@@ -703,7 +805,11 @@ public class EventuallyConsistentMapImpl<K, V>
                                           .filter(e -> e.getValue().creationTime() <= currentSafeTombstonePurgeTime)
                                           .collect(Collectors.toList());
         previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
-        tombStonesToDelete.forEach(entry -> items.remove(entry.getKey(), entry.getValue()));
+        tombStonesToDelete.forEach(entry -> {
+            if (items.remove(entry.getKey(), entry.getValue())) {
+                digests.update(entry.getKey(), entry.getValue(), null);
+            }
+        });
     }
 
     private void processUpdates(Collection<UpdateEntry<K, V>> updates) {
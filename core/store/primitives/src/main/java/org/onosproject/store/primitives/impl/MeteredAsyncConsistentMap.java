@@ -52,11 +52,14 @@ public class MeteredAsyncConsistentMap<K, V>  extends DelegatingAsyncConsistentM
     private static final String CONTAINS_KEY = "containsKey";
     private static final String CONTAINS_VALUE = "containsValue";
     private static final String GET = "get";
+    private static final String GET_ALL = "getAll";
     private static final String COMPUTE_IF = "computeIf";
     private static final String PUT = "put";
     private static final String PUT_AND_GET = "putAndGet";
+    private static final String PUT_ALL = "putAll";
     private static final String PUT_IF_ABSENT = "putIfAbsent";
     private static final String REMOVE = "remove";
+    private static final String REMOVE_ALL = "removeAll";
     private static final String CLEAR = "clear";
     private static final String KEY_SET = "keySet";
     private static final String VALUES = "values";
@@ -115,6 +118,13 @@ public class MeteredAsyncConsistentMap<K, V>  extends DelegatingAsyncConsistentM
                     .whenComplete((r, e) -> timer.stop(e));
     }
 
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        final MeteringAgent.Context timer = monitor.startTimer(GET_ALL);
+        return super.getAll(keys)
+                    .whenComplete((r, e) -> timer.stop(e));
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> computeIfAbsent(K key,
                                                            Function<? super K, ? extends V> mappingFunction) {
@@ -146,6 +156,13 @@ public class MeteredAsyncConsistentMap<K, V>  extends DelegatingAsyncConsistentM
                     .whenComplete((r, e) -> timer.stop(e));
     }
 
+    @Override
+    public CompletableFuture<Void> putAll(Map<K, V> entries) {
+        final MeteringAgent.Context timer = monitor.startTimer(PUT_ALL);
+        return super.putAll(entries)
+                    .whenComplete((r, e) -> timer.stop(e));
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> remove(K key) {
         final MeteringAgent.Context timer = monitor.startTimer(REMOVE);
@@ -153,6 +170,13 @@ public class MeteredAsyncConsistentMap<K, V>  extends DelegatingAsyncConsistentM
                     .whenComplete((r, e) -> timer.stop(e));
     }
 
+    @Override
+    public CompletableFuture<Void> removeAll(Set<K> keys) {
+        final MeteringAgent.Context timer = monitor.startTimer(REMOVE_ALL);
+        return super.removeAll(keys)
+                    .whenComplete((r, e) -> timer.stop(e));
+    }
+
     @Override
     public CompletableFuture<Void> clear() {
         final MeteringAgent.Context timer = monitor.startTimer(CLEAR);
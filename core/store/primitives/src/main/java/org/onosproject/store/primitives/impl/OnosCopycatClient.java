@@ -27,12 +27,17 @@ import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 
 import org.onlab.util.Tools;
+import org.onosproject.cluster.PartitionId;
+import org.onosproject.store.service.PartitionLoadInfo;
 import org.onosproject.store.service.StorageException;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Throwables;
 
 import io.atomix.catalyst.transport.TransportException;
+import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.copycat.error.QueryException;
@@ -48,6 +53,8 @@ public class OnosCopycatClient extends DelegatingCopycatClient {
     private final long delayBetweenRetriesMillis;
     private final ScheduledExecutorService executor;
     private final Logger log = getLogger(getClass());
+    private final Timer commandTimer = new Timer();
+    private final Timer queryTimer = new Timer();
 
     private final Predicate<Throwable> retryableCheck = e -> e instanceof ConnectException
             || e instanceof TimeoutException
@@ -70,14 +77,42 @@ public class OnosCopycatClient extends DelegatingCopycatClient {
         return super.close();
     }
 
+    @Override
+    public <T> CompletableFuture<T> submit(Command<T> command) {
+        Timer.Context timer = commandTimer.time();
+        return super.submit(command).whenComplete((r, e) -> timer.stop());
+    }
+
     @Override
     public <T> CompletableFuture<T> submit(Query<T> query) {
         if (state() == State.SUSPENDED || state() == State.CLOSED) {
             return Tools.exceptionalFuture(new StorageException.Unavailable());
         }
+        Timer.Context timer = queryTimer.time();
         CompletableFuture<T> future = new CompletableFuture<>();
         executor.submit(() -> submit(query, 1, future));
-        return future;
+        return future.whenComplete((r, e) -> timer.stop());
+    }
+
+    /**
+     * Returns the load put on the partition through this client.
+     *
+     * @param partitionId identifier of the partition
+     * @return partition load information
+     */
+    PartitionLoadInfo load(PartitionId partitionId) {
+        Snapshot latency = commandTimer.getSnapshot();
+        return new PartitionLoadInfo(partitionId,
+                                     commandTimer.getCount(),
+                                     commandTimer.getOneMinuteRate(),
+                                     queryTimer.getCount(),
+                                     queryTimer.getOneMinuteRate(),
+                                     toMillis(latency.getMean()),
+                                     toMillis(latency.get99thPercentile()));
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
     }
 
     private <T> void submit(Query<T> query, int attemptIndex, CompletableFuture<T> future) {
@@ -16,9 +16,13 @@
 
 package org.onosproject.store.primitives.impl;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import io.atomix.copycat.server.storage.StorageLevel;
+
 import java.io.File;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +55,7 @@ import org.onosproject.store.primitives.PartitionEventListener;
 import org.onosproject.store.primitives.PartitionService;
 import org.onosproject.store.service.PartitionClientInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.onosproject.store.service.PartitionLoadInfo;
 import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableSet;
@@ -81,9 +86,11 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
     private final Map<PartitionId, StoragePartition> partitions = Maps.newConcurrentMap();
     private final AtomicReference<ClusterMetadata> currentClusterMetadata = new AtomicReference<>();
     private final InternalClusterMetadataListener metadataListener = new InternalClusterMetadataListener();
+    private volatile PartitionStorageConfig storageConfig = PartitionStorageConfig.DEFAULT;
 
     @Activate
     public void activate() {
+        getStorageParameters();
         eventDispatcher.addSink(PartitionEvent.class, listenerRegistry);
         currentClusterMetadata.set(metadataService.getClusterMetadata());
         metadataService.addListener(metadataListener);
@@ -94,7 +101,8 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
                                messagingService,
                                clusterService,
                                CatalystSerializers.getSerializer(),
-                               new File(System.getProperty("karaf.data") + "/partitions/" + partition.getId()))));
+                               new File(System.getProperty("karaf.data") + "/partitions/" + partition.getId()),
+                               () -> storageConfig)));
 
         CompletableFuture<Void> openFuture = CompletableFuture.allOf(partitions.values()
                                                                                .stream()
@@ -117,6 +125,46 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
         log.info("Stopped");
     }
 
+    // Storage settings are read from system properties, as the component
+    // configuration service itself depends on the partitions being up.
+    private void getStorageParameters() {
+        try {
+            String s = System.getProperty("partitionStorageLevel");
+            StorageLevel storageLevel = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_STORAGE_LEVEL : StorageLevel.valueOf(s.trim().toUpperCase());
+            s = System.getProperty("partitionMaxEntriesPerLogSegment");
+            int maxEntriesPerLogSegment = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_MAX_ENTRIES_PER_SEGMENT : Integer.parseInt(s.trim());
+            s = System.getProperty("partitionMaxLogSegmentSize");
+            int maxLogSegmentSize = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_MAX_SEGMENT_SIZE : Integer.parseInt(s.trim());
+            s = System.getProperty("partitionCompactionThreads");
+            int compactionThreads = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_COMPACTION_THREADS : Integer.parseInt(s.trim());
+            s = System.getProperty("partitionMinorCompactionIntervalMillis");
+            long minorCompactionInterval = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_MINOR_COMPACTION_INTERVAL_MILLIS : Long.parseLong(s.trim());
+            s = System.getProperty("partitionMajorCompactionIntervalMillis");
+            long majorCompactionInterval = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_MAJOR_COMPACTION_INTERVAL_MILLIS : Long.parseLong(s.trim());
+            s = System.getProperty("partitionCompactionThreshold");
+            double compactionThreshold = isNullOrEmpty(s) ?
+                    PartitionStorageConfig.DEFAULT_COMPACTION_THRESHOLD : Double.parseDouble(s.trim());
+
+            storageConfig = new PartitionStorageConfig(storageLevel,
+                                                       maxEntriesPerLogSegment,
+                                                       maxLogSegmentSize,
+                                                       compactionThreads,
+                                                       Duration.ofMillis(minorCompactionInterval),
+                                                       Duration.ofMillis(majorCompactionInterval),
+                                                       compactionThreshold);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid partition storage settings; using {}", PartitionStorageConfig.DEFAULT, e);
+            storageConfig = PartitionStorageConfig.DEFAULT;
+        }
+        log.info("Partition storage settings: {}", storageConfig);
+    }
+
     @Override
     public int getNumberOfPartitions() {
         checkPermission(PARTITION_READ);
@@ -183,4 +231,13 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
                          .map(StoragePartitionClient::clientInfo)
                          .collect(Collectors.toList());
     }
+
+    @Override
+    public List<PartitionLoadInfo> partitionLoad() {
+        return partitions.values()
+                         .stream()
+                         .map(StoragePartition::client)
+                         .map(StoragePartitionClient::load)
+                         .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+
+import java.io.File;
+import java.time.Duration;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Log storage and compaction settings of {@code StoragePartition} servers.
+ */
+public final class PartitionStorageConfig {
+
+    static final StorageLevel DEFAULT_STORAGE_LEVEL = StorageLevel.DISK;
+    static final int DEFAULT_MAX_ENTRIES_PER_SEGMENT = 32768;
+    static final int DEFAULT_MAX_SEGMENT_SIZE = 32 * 1024 * 1024;
+    static final int DEFAULT_COMPACTION_THREADS = 1;
+    static final long DEFAULT_MINOR_COMPACTION_INTERVAL_MILLIS = 60 * 1000;
+    static final long DEFAULT_MAJOR_COMPACTION_INTERVAL_MILLIS = 60 * 60 * 1000;
+    static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    /**
+     * Default storage settings.
+     */
+    public static final PartitionStorageConfig DEFAULT =
+            new PartitionStorageConfig(DEFAULT_STORAGE_LEVEL,
+                                       DEFAULT_MAX_ENTRIES_PER_SEGMENT,
+                                       DEFAULT_MAX_SEGMENT_SIZE,
+                                       DEFAULT_COMPACTION_THREADS,
+                                       Duration.ofMillis(DEFAULT_MINOR_COMPACTION_INTERVAL_MILLIS),
+                                       Duration.ofMillis(DEFAULT_MAJOR_COMPACTION_INTERVAL_MILLIS),
+                                       DEFAULT_COMPACTION_THRESHOLD);
+
+    private final StorageLevel storageLevel;
+    private final int maxEntriesPerSegment;
+    private final int maxSegmentSize;
+    private final int compactionThreads;
+    private final Duration minorCompactionInterval;
+    private final Duration majorCompactionInterval;
+    private final double compactionThreshold;
+
+    /**
+     * Creates storage settings.
+     *
+     * @param storageLevel            level at which the log is stored
+     * @param maxEntriesPerSegment    maximum number of entries per log segment
+     * @param maxSegmentSize          maximum size of a log segment in bytes
+     * @param compactionThreads       number of log compaction threads
+     * @param minorCompactionInterval interval between removals of cleaned
+     *                                entries from log segments
+     * @param majorCompactionInterval interval between compactions of the
+     *                                whole log, at which state machine
+     *                                snapshots are taken
+     * @param compactionThreshold     fraction of cleaned entries above which
+     *                                a segment is compacted
+     */
+    public PartitionStorageConfig(StorageLevel storageLevel,
+                                  int maxEntriesPerSegment,
+                                  int maxSegmentSize,
+                                  int compactionThreads,
+                                  Duration minorCompactionInterval,
+                                  Duration majorCompactionInterval,
+                                  double compactionThreshold) {
+        checkArgument(maxEntriesPerSegment > 0, "maxEntriesPerSegment must be positive");
+        checkArgument(maxSegmentSize > 0, "maxSegmentSize must be positive");
+        checkArgument(compactionThreads > 0, "compactionThreads must be positive");
+        checkArgument(compactionThreshold > 0 && compactionThreshold <= 1,
+                      "compactionThreshold must be within (0, 1]");
+        this.storageLevel = checkNotNull(storageLevel);
+        this.maxEntriesPerSegment = maxEntriesPerSegment;
+        this.maxSegmentSize = maxSegmentSize;
+        this.compactionThreads = compactionThreads;
+        this.minorCompactionInterval = checkNotNull(minorCompactionInterval);
+        this.majorCompactionInterval = checkNotNull(majorCompactionInterval);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns the level at which the log is stored.
+     *
+     * @return storage level
+     */
+    public StorageLevel storageLevel() {
+        return storageLevel;
+    }
+
+    /**
+     * Returns the maximum number of entries per log segment.
+     *
+     * @return maximum entry count
+     */
+    public int maxEntriesPerSegment() {
+        return maxEntriesPerSegment;
+    }
+
+    /**
+     * Returns the maximum size of a log segment.
+     *
+     * @return maximum size in bytes
+     */
+    public int maxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    /**
+     * Returns the number of log compaction threads.
+     *
+     * @return thread count
+     */
+    public int compactionThreads() {
+        return compactionThreads;
+    }
+
+    /**
+     * Returns the interval between minor compactions.
+     *
+     * @return minor compaction interval
+     */
+    public Duration minorCompactionInterval() {
+        return minorCompactionInterval;
+    }
+
+    /**
+     * Returns the interval between major compactions.
+     *
+     * @return major compaction interval
+     */
+    public Duration majorCompactionInterval() {
+        return majorCompactionInterval;
+    }
+
+    /**
+     * Returns the fraction of cleaned entries above which a segment is compacted.
+     *
+     * @return compaction threshold
+     */
+    public double compactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Builds the storage of a partition server.
+     *
+     * @param directory directory holding the log
+     * @return server storage
+     */
+    public Storage toStorage(File directory) {
+        return Storage.builder()
+                .withStorageLevel(storageLevel)
+                .withDirectory(directory)
+                .withMaxEntriesPerSegment(maxEntriesPerSegment)
+                .withMaxSegmentSize(maxSegmentSize)
+                .withCompactionThreads(compactionThreads)
+                .withMinorCompactionInterval(minorCompactionInterval)
+                .withMajorCompactionInterval(majorCompactionInterval)
+                .withCompactionThreshold(compactionThreshold)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("storageLevel", storageLevel)
+                .add("maxEntriesPerSegment", maxEntriesPerSegment)
+                .add("maxSegmentSize", maxSegmentSize)
+                .add("compactionThreads", compactionThreads)
+                .add("minorCompactionInterval", minorCompactionInterval)
+                .add("majorCompactionInterval", majorCompactionInterval)
+                .add("compactionThreshold", compactionThreshold)
+                .toString();
+    }
+}
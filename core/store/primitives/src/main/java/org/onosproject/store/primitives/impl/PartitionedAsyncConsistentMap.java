@@ -105,6 +105,18 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
         return getMap(key).get(key);
     }
 
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        Map<K, Versioned<V>> allValues = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(groupKeysByMap(keys).entrySet()
+                                                           .stream()
+                                                           .map(e -> e.getKey()
+                                                                      .getAll(e.getValue())
+                                                                      .thenAccept(allValues::putAll))
+                                                           .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> allValues);
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> computeIf(K key,
             Predicate<? super V> condition,
@@ -122,11 +134,30 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
         return getMap(key).putAndGet(key, value);
     }
 
+    @Override
+    public CompletableFuture<Void> putAll(Map<K, V> entries) {
+        Map<AsyncConsistentMap<K, V>, Map<K, V>> entriesGroupedByMap = Maps.newIdentityHashMap();
+        entries.forEach((key, value) ->
+                entriesGroupedByMap.computeIfAbsent(getMap(key), k -> Maps.newHashMap()).put(key, value));
+        return CompletableFuture.allOf(entriesGroupedByMap.entrySet()
+                                                          .stream()
+                                                          .map(e -> e.getKey().putAll(e.getValue()))
+                                                          .toArray(CompletableFuture[]::new));
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> remove(K key) {
         return getMap(key).remove(key);
     }
 
+    @Override
+    public CompletableFuture<Void> removeAll(Set<K> keys) {
+        return CompletableFuture.allOf(groupKeysByMap(keys).entrySet()
+                                                           .stream()
+                                                           .map(e -> e.getKey().removeAll(e.getValue()))
+                                                           .toArray(CompletableFuture[]::new));
+    }
+
     @Override
     public CompletableFuture<Void> clear() {
         return CompletableFuture.allOf(getMaps().stream()
@@ -280,6 +311,17 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
         return partitions.get(keyHasher.hash(key));
     }
 
+    /**
+     * Groups the specified keys by the map (partition) to which they map.
+     * @param keys keys
+     * @return keys grouped by AsyncConsistentMap
+     */
+    private Map<AsyncConsistentMap<K, V>, Set<K>> groupKeysByMap(Set<K> keys) {
+        Map<AsyncConsistentMap<K, V>, Set<K>> keysGroupedByMap = Maps.newIdentityHashMap();
+        keys.forEach(key -> keysGroupedByMap.computeIfAbsent(getMap(key), k -> Sets.newHashSet()).add(key));
+        return keysGroupedByMap;
+    }
+
     /**
      * Returns all the constituent maps.
      * @return collection of maps.
@@ -50,6 +50,7 @@ import org.onosproject.store.service.EventuallyConsistentMapBuilder;
 import org.onosproject.store.service.LeaderElectorBuilder;
 import org.onosproject.store.service.MapInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.onosproject.store.service.PartitionLoadInfo;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageAdminService;
 import org.onosproject.store.service.StorageService;
@@ -189,6 +190,11 @@ public class StorageManager implements StorageService, StorageAdminService {
         return partitionAdminService.partitionInfo();
     }
 
+    @Override
+    public List<PartitionLoadInfo> getPartitionLoad() {
+        return partitionAdminService.partitionLoad();
+    }
+
     @Override
     public Collection<TransactionId> getPendingTransactions() {
         return Futures.getUnchecked(transactions.keySet());
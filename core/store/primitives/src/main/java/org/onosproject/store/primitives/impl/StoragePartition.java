@@ -25,6 +25,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.onosproject.cluster.ClusterService;
@@ -50,6 +51,7 @@ public class StoragePartition implements Managed<StoragePartition> {
     private final MessagingService messagingService;
     private final ClusterService clusterService;
     private final File logFolder;
+    private final Supplier<PartitionStorageConfig> storageConfig;
     private Partition partition;
     private NodeId localNodeId;
     private StoragePartitionServer server;
@@ -64,12 +66,23 @@ public class StoragePartition implements Managed<StoragePartition> {
             ClusterService clusterService,
             Serializer serializer,
             File logFolder) {
+        this(partition, messagingService, clusterService, serializer, logFolder,
+             () -> PartitionStorageConfig.DEFAULT);
+    }
+
+    public StoragePartition(Partition partition,
+            MessagingService messagingService,
+            ClusterService clusterService,
+            Serializer serializer,
+            File logFolder,
+            Supplier<PartitionStorageConfig> storageConfig) {
         this.partition = partition;
         this.messagingService = messagingService;
         this.clusterService = clusterService;
         this.localNodeId = clusterService.getLocalNode().id();
         this.serializer = serializer;
         this.logFolder = logFolder;
+        this.storageConfig = storageConfig;
     }
 
     /**
@@ -134,7 +147,8 @@ public class StoragePartition implements Managed<StoragePartition> {
                 () -> new CopycatTransport(CopycatTransport.Mode.SERVER,
                                      partition.getId(),
                                      messagingService),
-                logFolder);
+                logFolder,
+                storageConfig.get());
         return server.open().thenRun(() -> this.server = server);
     }
 
@@ -153,7 +167,8 @@ public class StoragePartition implements Managed<StoragePartition> {
                 () -> new CopycatTransport(CopycatTransport.Mode.SERVER,
                                      partition.getId(),
                                      messagingService),
-                logFolder);
+                logFolder,
+                storageConfig.get());
         return server.join(Collections2.transform(otherMembers, this::toAddress)).thenRun(() -> this.server = server);
     }
 
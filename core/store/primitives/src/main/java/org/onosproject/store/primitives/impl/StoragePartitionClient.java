@@ -50,6 +50,7 @@ import org.onosproject.store.service.AsyncLeaderElector;
 import org.onosproject.store.service.DistributedPrimitive.Status;
 import org.onosproject.store.service.DistributedQueue;
 import org.onosproject.store.service.PartitionClientInfo;
+import org.onosproject.store.service.PartitionLoadInfo;
 import org.onosproject.store.service.Serializer;
 import org.slf4j.Logger;
 
@@ -68,6 +69,7 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
     private final io.atomix.catalyst.serializer.Serializer serializer;
     private AtomixClient client;
     private ResourceClient resourceClient;
+    private OnosCopycatClient copycatClient;
     private static final String ATOMIC_VALUES_CONSISTENT_MAP_NAME = "onos-atomic-values";
     private final Supplier<AsyncConsistentMap<String, byte[]>> onosAtomicValuesMap =
             Suppliers.memoize(() -> newAsyncConsistentMap(ATOMIC_VALUES_CONSISTENT_MAP_NAME,
@@ -202,6 +204,14 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
                 mapper.apply(resourceClient.client().state()));
     }
 
+    /**
+     * Returns the {@link PartitionLoadInfo load} put on the partition through this client.
+     * @return partition load information
+     */
+    public PartitionLoadInfo load() {
+        return copycatClient.load(partition.getId());
+    }
+
     private ResourceClient newResourceClient(Transport transport,
                                            io.atomix.catalyst.serializer.Serializer serializer,
                                            Collection<ResourceType> resourceTypes) {
@@ -225,6 +235,7 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
                 throw new ResourceManagerException(e);
             }
         }
-        return new ResourceClient(new OnosCopycatClient(copycatClient, 2, 100));
+        this.copycatClient = new OnosCopycatClient(copycatClient, 2, 100);
+        return new ResourceClient(this.copycatClient);
     }
 }
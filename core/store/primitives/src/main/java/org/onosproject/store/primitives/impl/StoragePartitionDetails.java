@@ -38,17 +38,31 @@ public class StoragePartitionDetails {
     private final Set<Member> configuredMembers;
     private final Member leader;
     private final long leaderTerm;
+    private final long logSize;
+    private final long catchUpTime;
 
     public StoragePartitionDetails(PartitionId partitionId,
             Collection<Member> activeMembers,
             Collection<Member> configuredMembers,
             Member leader,
             long leaderTerm) {
+        this(partitionId, activeMembers, configuredMembers, leader, leaderTerm, 0, -1);
+    }
+
+    public StoragePartitionDetails(PartitionId partitionId,
+            Collection<Member> activeMembers,
+            Collection<Member> configuredMembers,
+            Member leader,
+            long leaderTerm,
+            long logSize,
+            long catchUpTime) {
         this.partitionId = partitionId;
         this.activeMembers = ImmutableSet.copyOf(activeMembers);
         this.configuredMembers = ImmutableSet.copyOf(configuredMembers);
         this.leader = leader;
         this.leaderTerm = leaderTerm;
+        this.logSize = logSize;
+        this.catchUpTime = catchUpTime;
     }
 
     /**
@@ -83,6 +97,23 @@ public class StoragePartitionDetails {
         return leaderTerm;
     }
 
+    /**
+     * Returns the size of the local log of the partition.
+     * @return log size in bytes
+     */
+    public long logSize() {
+        return logSize;
+    }
+
+    /**
+     * Returns the time it took the local server to rejoin the partition and
+     * catch up with its log when last started.
+     * @return catch up time in milliseconds; -1 if not known
+     */
+    public long catchUpTime() {
+        return catchUpTime;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(getClass())
@@ -90,6 +121,8 @@ public class StoragePartitionDetails {
                 .add("configuredMembers", configuredMembers)
                 .add("leader", leader)
                 .add("leaderTerm", leaderTerm)
+                .add("logSize", logSize)
+                .add("catchUpTime", catchUpTime)
                 .toString();
     }
 
@@ -103,6 +136,8 @@ public class StoragePartitionDetails {
         return new PartitionInfo(partitionId.toString(),
                 leaderTerm,
                 activeMembers.stream().map(memberToString).collect(Collectors.toList()),
-                memberToString.apply(leader));
+                memberToString.apply(leader),
+                logSize,
+                catchUpTime);
     }
 }
@@ -20,14 +20,13 @@ import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Transport;
 import io.atomix.copycat.server.CopycatServer;
-import io.atomix.copycat.server.storage.Storage;
-import io.atomix.copycat.server.storage.StorageLevel;
 import io.atomix.manager.internal.ResourceManagerState;
 import io.atomix.manager.util.ResourceManagerTypeResolver;
 
 import java.io.File;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.onosproject.store.service.PartitionInfo;
@@ -40,24 +39,27 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
 
     private final Logger log = getLogger(getClass());
 
-    private static final int MAX_ENTRIES_PER_LOG_SEGMENT = 32768;
     private final StoragePartition partition;
     private final Address localAddress;
     private final Supplier<Transport> transport;
     private final Serializer serializer;
     private final File dataFolder;
+    private final PartitionStorageConfig storageConfig;
     private CopycatServer server;
+    private volatile long catchUpTime = -1;
 
     public StoragePartitionServer(Address localAddress,
             StoragePartition partition,
             Serializer serializer,
             Supplier<Transport> transport,
-            File dataFolder) {
+            File dataFolder,
+            PartitionStorageConfig storageConfig) {
         this.partition = partition;
         this.localAddress = localAddress;
         this.serializer = serializer;
         this.transport = transport;
         this.dataFolder = dataFolder;
+        this.storageConfig = storageConfig;
     }
 
     @Override
@@ -67,10 +69,12 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
             if (server != null && server.isRunning()) {
                 return CompletableFuture.completedFuture(null);
             }
+            long start = System.nanoTime();
             synchronized (this) {
                 server = buildServer();
             }
-            serverOpenFuture = server.bootstrap(partition.getMemberAddresses());
+            serverOpenFuture = server.bootstrap(partition.getMemberAddresses())
+                    .whenComplete((r, e) -> recordCatchUpTime(start, e));
         } else {
             serverOpenFuture = CompletableFuture.completedFuture(null);
         }
@@ -102,20 +106,17 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
                 .withSerializer(serializer.clone())
                 .withTransport(transport.get())
                 .withStateMachine(ResourceManagerState::new)
-                .withStorage(Storage.builder()
-                        .withStorageLevel(StorageLevel.DISK)
-                        .withCompactionThreads(1)
-                        .withDirectory(dataFolder)
-                        .withMaxEntriesPerSegment(MAX_ENTRIES_PER_LOG_SEGMENT)
-                        .build())
+                .withStorage(storageConfig.toStorage(dataFolder))
                 .build();
         server.serializer().resolve(new ResourceManagerTypeResolver());
         return server;
     }
 
     public CompletableFuture<Void> join(Collection<Address> otherMembers) {
+        long start = System.nanoTime();
         server = buildServer();
         return server.join(otherMembers).whenComplete((r, e) -> {
+            recordCatchUpTime(start, e);
             if (e == null) {
                 log.info("Successfully joined partition {}", partition.getId());
             } else {
@@ -138,6 +139,29 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
                 server.cluster().members(),
                 server.cluster().members(),
                 server.cluster().leader(),
-                server.cluster().term()).toPartitionInfo();
+                server.cluster().term(),
+                logSize(dataFolder),
+                catchUpTime).toPartitionInfo();
+    }
+
+    // Records how long the server took to become part of the partition,
+    // which includes replaying the local log and catching up with the leader.
+    private void recordCatchUpTime(long start, Throwable error) {
+        if (error == null) {
+            catchUpTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+    }
+
+    // Returns the total size of the log segments and snapshots stored on disk.
+    private static long logSize(File file) {
+        File[] files = file.listFiles();
+        if (files == null) {
+            return file.isFile() ? file.length() : 0;
+        }
+        long size = 0;
+        for (File child : files) {
+            size += logSize(child);
+        }
+        return size;
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.AbstractResource;
 import io.atomix.resource.ResourceTypeInfo;
@@ -40,9 +41,12 @@ import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapComman
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.ContainsValue;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.EntrySet;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Get;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.GetAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.IsEmpty;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.KeySet;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Listen;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.PutAll;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.RemoveAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Size;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionCommit;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionPrepare;
@@ -124,6 +128,11 @@ public class AtomixConsistentMap extends AbstractResource<AtomixConsistentMap>
         return client.submit(new Get(key));
     }
 
+    @Override
+    public CompletableFuture<Map<String, Versioned<byte[]>>> getAll(Set<String> keys) {
+        return client.submit(new GetAll(keys));
+    }
+
     @Override
     public CompletableFuture<Set<String>> keySet() {
         return client.submit(new KeySet());
@@ -210,6 +219,21 @@ public class AtomixConsistentMap extends AbstractResource<AtomixConsistentMap>
                 .thenApply(v -> v.updated());
     }
 
+    @Override
+    public CompletableFuture<Void> putAll(Map<String, byte[]> entries) {
+        checkArgument(!entries.containsValue(null), "null values are not allowed");
+        return client.submit(new PutAll(entries))
+                .whenComplete((r, e) -> throwIfLocked(r))
+                .thenApply(v -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAll(Set<String> keys) {
+        return client.submit(new RemoveAll(keys))
+                .whenComplete((r, e) -> throwIfLocked(r))
+                .thenApply(v -> null);
+    }
+
     @Override
     public CompletableFuture<Void> clear() {
         return client.submit(new Clear())
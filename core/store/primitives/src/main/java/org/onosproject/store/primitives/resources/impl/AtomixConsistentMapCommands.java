@@ -26,6 +26,8 @@ import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -425,6 +427,100 @@ public final class AtomixConsistentMapCommands {
         }
     }
 
+    /**
+     * Multi-key put command.
+     */
+    @SuppressWarnings("serial")
+    public static class PutAll extends MapCommand<MapEntryUpdateResult.Status> {
+        private Map<String, byte[]> entries;
+
+        public PutAll() {
+        }
+
+        public PutAll(Map<String, byte[]> entries) {
+            this.entries = new HashMap<>(Assert.notNull(entries, "entries"));
+        }
+
+        /**
+         * Returns the entries to put.
+         * @return map of keys to values
+         */
+        public Map<String, byte[]> entries() {
+            return entries;
+        }
+
+        @Override
+        public CompactionMode compaction() {
+          return CompactionMode.QUORUM;
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            super.writeObject(buffer, serializer);
+            serializer.writeObject(entries, buffer);
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            super.readObject(buffer, serializer);
+            entries = serializer.readObject(buffer);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("keys", entries.keySet())
+                    .toString();
+        }
+    }
+
+    /**
+     * Multi-key remove command.
+     */
+    @SuppressWarnings("serial")
+    public static class RemoveAll extends MapCommand<MapEntryUpdateResult.Status> {
+        private Set<String> keys;
+
+        public RemoveAll() {
+        }
+
+        public RemoveAll(Set<String> keys) {
+            this.keys = new HashSet<>(Assert.notNull(keys, "keys"));
+        }
+
+        /**
+         * Returns the keys to remove.
+         * @return keys
+         */
+        public Set<String> keys() {
+            return keys;
+        }
+
+        @Override
+        public CompactionMode compaction() {
+          return CompactionMode.FULL;
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            super.writeObject(buffer, serializer);
+            serializer.writeObject(keys, buffer);
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            super.readObject(buffer, serializer);
+            keys = serializer.readObject(buffer);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("keys", keys)
+                    .toString();
+        }
+    }
+
     /**
      * Get query.
      */
@@ -438,6 +534,48 @@ public final class AtomixConsistentMapCommands {
         }
     }
 
+    /**
+     * Multi-key get query.
+     */
+    @SuppressWarnings("serial")
+    public static class GetAll extends MapQuery<Map<String, Versioned<byte[]>>> {
+        private Set<String> keys;
+
+        public GetAll() {
+        }
+
+        public GetAll(Set<String> keys) {
+            this.keys = new HashSet<>(Assert.notNull(keys, "keys"));
+        }
+
+        /**
+         * Returns the keys.
+         * @return keys
+         */
+        public Set<String> keys() {
+            return keys;
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            super.writeObject(buffer, serializer);
+            serializer.writeObject(keys, buffer);
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            super.readObject(buffer, serializer);
+            keys = serializer.readObject(buffer);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("keys", keys)
+                    .toString();
+        }
+    }
+
     /**
      * Is empty query.
      */
@@ -535,6 +673,9 @@ public final class AtomixConsistentMapCommands {
             registry.register(TransactionRollback.class, -774);
             registry.register(TransactionPrepareAndCommit.class, -775);
             registry.register(UpdateAndGet.class, -776);
+            registry.register(GetAll.class, -777);
+            registry.register(PutAll.class, -778);
+            registry.register(RemoveAll.class, -779);
         }
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Test;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Unit tests for BucketDigests.
+ */
+public class BucketDigestsTest {
+
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
+            .register(KryoNamespaces.BASIC)
+            .register(LogicalTimestamp.class)
+            .register(IdentityKey.class)
+            .build());
+
+    /**
+     * Key whose hash code, like that of an enum, is not the same across JVMs.
+     */
+    private static final class IdentityKey {
+        private final String name;
+
+        private IdentityKey(String name) {
+            this.name = name;
+        }
+    }
+
+    private static MapValue<String> value(long timestamp) {
+        return new MapValue<>("value", new LogicalTimestamp(timestamp));
+    }
+
+    private static BucketDigests populate(int size) {
+        BucketDigests digests = new BucketDigests(SERIALIZER);
+        for (int i = 0; i < size; i++) {
+            digests.update("key-" + i, null, value(i));
+        }
+        return digests;
+    }
+
+    @Test
+    public void testInSync() {
+        BucketDigests local = populate(10000);
+        BucketDigests remote = new BucketDigests(SERIALIZER);
+        // insertion order must not matter
+        for (int i = 9999; i >= 0; i--) {
+            remote.update("key-" + i, null, value(i));
+        }
+        assertTrue(local.differingSegments(remote.segmentHashes()).isEmpty());
+    }
+
+    @Test
+    public void testIdentityHashedKeys() {
+        BucketDigests local = new BucketDigests(SERIALIZER);
+        BucketDigests remote = new BucketDigests(SERIALIZER);
+        for (int i = 0; i < 100; i++) {
+            local.update(new IdentityKey("key-" + i), null, value(i));
+            remote.update(new IdentityKey("key-" + i), null, value(i));
+        }
+        assertTrue(local.differingSegments(remote.segmentHashes()).isEmpty());
+        assertEquals(local.bucket(new IdentityKey("key-42")), remote.bucket(new IdentityKey("key-42")));
+    }
+
+    @Test
+    public void testSingleDifference() {
+        BucketDigests local = populate(10000);
+        BucketDigests remote = populate(10000);
+        remote.update("key-42", value(42), value(100000));
+
+        int bucket = local.bucket("key-42");
+        Set<Integer> segments = local.differingSegments(remote.segmentHashes());
+        assertEquals(ImmutableSet.of(BucketDigests.segment(bucket)), segments);
+        assertEquals(ImmutableSet.of(bucket),
+                     local.differingBuckets(remote.bucketHashes(segments)));
+    }
+
+    @Test
+    public void testTombstoneAndRemoval() {
+        BucketDigests local = populate(100);
+        BucketDigests remote = populate(100);
+
+        MapValue<String> tombstone = MapValue.tombstone(new LogicalTimestamp(1000));
+        remote.update("key-7", value(7), tombstone);
+        assertEquals(1, local.differingSegments(remote.segmentHashes()).size());
+
+        local.update("key-7", value(7), tombstone);
+        assertTrue(local.differingSegments(remote.segmentHashes()).isEmpty());
+
+        local.update("key-7", tombstone, null);
+        remote.update("key-7", tombstone, null);
+        assertTrue(local.differingSegments(remote.segmentHashes()).isEmpty());
+        assertEquals(1, local.differingSegments(populate(100).segmentHashes()).size());
+    }
+}
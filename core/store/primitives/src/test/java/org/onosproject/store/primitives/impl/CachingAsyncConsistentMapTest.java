@@ -0,0 +1,368 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.primitives.TransactionId;
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.DistributedPrimitive.Status;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
+import org.onosproject.store.service.MapTransaction;
+import org.onosproject.store.service.Versioned;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Unit tests for CachingAsyncConsistentMap.
+ */
+public class CachingAsyncConsistentMapTest {
+
+    private TestMap backingMap;
+    private CachingAsyncConsistentMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        backingMap = new TestMap();
+        map = new CachingAsyncConsistentMap<>(backingMap, 3, null, false);
+    }
+
+    private static String value(Versioned<String> versioned) {
+        return versioned != null ? versioned.value() : null;
+    }
+
+    @Test
+    public void testGetServedFromCache() {
+        backingMap.update("foo", "bar");
+        assertEquals("bar", value(map.get("foo").join()));
+        assertEquals("bar", value(map.get("foo").join()));
+        assertNull(map.get("baz").join());
+        assertNull(map.get("baz").join());
+        assertEquals(2, backingMap.reads);
+        assertEquals(2, map.hitCount());
+        assertEquals(2, map.missCount());
+
+        // remote updates are applied from events
+        backingMap.update("foo", "qux");
+        backingMap.update("baz", "quux");
+        assertEquals("qux", value(map.get("foo").join()));
+        assertEquals("quux", value(map.get("baz").join()));
+        assertEquals(2, backingMap.reads);
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        backingMap.eventsEnabled = false;
+        map.put("foo", "bar").join();
+        assertEquals("bar", value(map.get("foo").join()));
+        map.put("foo", "baz").join();
+        assertEquals("baz", value(map.get("foo").join()));
+        map.remove("foo").join();
+        assertNull(map.get("foo").join());
+
+        // updates returning the new value need no read
+        int reads = backingMap.reads;
+        map.putAndGet("foo", "qux").join();
+        assertEquals("qux", value(map.get("foo").join()));
+        map.computeIf("foo", v -> true, (k, v) -> v + "!").join();
+        assertEquals("qux!", value(map.get("foo").join()));
+        assertEquals(reads, backingMap.reads);
+    }
+
+    @Test
+    public void testStaleEventsIgnored() {
+        backingMap.eventsEnabled = false;
+        Versioned<String> older = backingMap.update("foo", "bar");
+        map.putAndGet("foo", "baz").join();
+        backingMap.notify(new MapEvent<>("test", "foo", older, null));
+        assertEquals("baz", value(map.get("foo").join()));
+        assertEquals(1, map.staleCount());
+    }
+
+    @Test
+    public void testEntriesServedFromCache() {
+        backingMap.update("a", "1");
+        backingMap.update("b", "2");
+        assertEquals(ImmutableSet.of("a", "b"), map.keySet().join());
+        assertEquals(1, backingMap.reads);
+
+        assertEquals(ImmutableSet.of("a", "b"), map.keySet().join());
+        assertEquals(2, map.values().join().size());
+        assertEquals(2, map.entrySet().join().size());
+        assertEquals("1", value(map.get("a").join()));
+        assertNull(map.get("c").join());
+        assertEquals(1, backingMap.reads);
+
+        backingMap.update("c", "3");
+        backingMap.remove("a");
+        assertEquals(ImmutableSet.of("b", "c"), map.keySet().join());
+        assertEquals(1, backingMap.reads);
+
+        // eviction makes the cache partial again
+        backingMap.update("d", "4");
+        backingMap.update("e", "5");
+        assertEquals(ImmutableSet.of("b", "c", "d", "e"), map.keySet().join());
+        assertEquals(ImmutableSet.of("b", "c", "d", "e"), map.keySet().join());
+        assertEquals(3, backingMap.reads);
+    }
+
+    @Test
+    public void testLocalUpdatesBypassEntries() {
+        backingMap.eventsEnabled = false;
+        backingMap.update("a", "1");
+        map.keySet().join();
+        map.put("b", "2").join();
+        assertEquals(ImmutableSet.of("a", "b"), map.keySet().join());
+        assertEquals(2, backingMap.reads);
+        assertEquals(ImmutableSet.of("a", "b"), map.keySet().join());
+        assertEquals(2, backingMap.reads);
+    }
+
+    @Test
+    public void testInactiveMapNotCached() {
+        backingMap.update("foo", "bar");
+        map.get("foo").join();
+        backingMap.setStatus(Status.SUSPENDED);
+        map.get("foo").join();
+        map.get("foo").join();
+        assertEquals(3, backingMap.reads);
+
+        backingMap.setStatus(Status.ACTIVE);
+        map.get("foo").join();
+        map.get("foo").join();
+        assertEquals(4, backingMap.reads);
+    }
+
+    @Test
+    public void testWeightedCache() {
+        map = new CachingAsyncConsistentMap<>(backingMap, 4, (k, v) -> v.length(), false);
+        backingMap.update("a", "1");
+        backingMap.update("b", "123");
+        backingMap.update("c", "12");
+        map.get("a").join();
+        map.get("b").join();
+        map.get("a").join();
+        map.get("b").join();
+        assertEquals(2, backingMap.reads);
+
+        // least recently used entries make room for the new one
+        map.get("c").join();
+        map.get("c").join();
+        assertEquals(3, backingMap.reads);
+        map.get("b").join();
+        assertEquals(4, backingMap.reads);
+    }
+
+    /**
+     * Map backed by a local hash map, notifying listeners synchronously.
+     */
+    private static class TestMap implements AsyncConsistentMap<String, String> {
+        private final Map<String, Versioned<String>> entries = Maps.newHashMap();
+        private final List<MapEventListener<String, String>> listeners = Lists.newArrayList();
+        private final List<Consumer<Status>> statusListeners = Lists.newArrayList();
+        private final AtomicLong version = new AtomicLong();
+        private boolean eventsEnabled = true;
+        private int reads;
+
+        synchronized Versioned<String> update(String key, String value) {
+            Versioned<String> newValue = new Versioned<>(value, version.incrementAndGet());
+            Versioned<String> oldValue = entries.put(key, newValue);
+            if (eventsEnabled) {
+                notify(new MapEvent<>(name(), key, newValue, oldValue));
+            }
+            return newValue;
+        }
+
+        void notify(MapEvent<String, String> event) {
+            listeners.forEach(listener -> listener.event(event));
+        }
+
+        void setStatus(Status status) {
+            statusListeners.forEach(listener -> listener.accept(status));
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public CompletableFuture<Integer> size() {
+            return CompletableFuture.completedFuture(entries.size());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> containsKey(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> containsValue(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<Versioned<String>> get(String key) {
+            reads++;
+            return CompletableFuture.completedFuture(entries.get(key));
+        }
+
+        @Override
+        public synchronized CompletableFuture<Versioned<String>> computeIf(String key,
+                Predicate<? super String> condition,
+                BiFunction<? super String, ? super String, ? extends String> remappingFunction) {
+            Versioned<String> current = entries.get(key);
+            String value = current != null ? current.value() : null;
+            if (!condition.test(value)) {
+                return CompletableFuture.completedFuture(current);
+            }
+            return CompletableFuture.completedFuture(update(key, remappingFunction.apply(key, value)));
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> put(String key, String value) {
+            Versioned<String> oldValue = entries.get(key);
+            update(key, value);
+            return CompletableFuture.completedFuture(oldValue);
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> putAndGet(String key, String value) {
+            return CompletableFuture.completedFuture(update(key, value));
+        }
+
+        @Override
+        public synchronized CompletableFuture<Versioned<String>> remove(String key) {
+            Versioned<String> oldValue = entries.remove(key);
+            if (oldValue != null && eventsEnabled) {
+                notify(new MapEvent<>(name(), key, null, oldValue));
+            }
+            return CompletableFuture.completedFuture(oldValue);
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Set<String>> keySet() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Collection<Versioned<String>>> values() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<Set<Entry<String, Versioned<String>>>> entrySet() {
+            reads++;
+            return CompletableFuture.completedFuture(ImmutableSet.copyOf(entries.entrySet()));
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> putIfAbsent(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> remove(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> remove(String key, long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> replace(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> replace(String key, String oldValue, String newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> replace(String key, long oldVersion, String newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> addListener(MapEventListener<String, String> listener,
+                                                   Executor executor) {
+            listeners.add(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> removeListener(MapEventListener<String, String> listener) {
+            listeners.remove(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void addStatusChangeListener(Consumer<Status> listener) {
+            statusListeners.add(listener);
+        }
+
+        @Override
+        public void removeStatusChangeListener(Consumer<Status> listener) {
+            statusListeners.remove(listener);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepare(MapTransaction<String, String> transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> commit(TransactionId transactionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> rollback(TransactionId transactionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepareAndCommit(MapTransaction<String, String> transaction) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
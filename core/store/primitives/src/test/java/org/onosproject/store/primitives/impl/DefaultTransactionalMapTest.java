@@ -0,0 +1,321 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.primitives.MapUpdate;
+import org.onosproject.store.primitives.TransactionId;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.CommitStatus;
+import org.onosproject.store.service.MapEventListener;
+import org.onosproject.store.service.MapTransaction;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionalMap;
+import org.onosproject.store.service.Versioned;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Unit tests for DefaultTransactionalMap.
+ */
+public class DefaultTransactionalMapTest {
+
+    private TestMap backingMap;
+    private DefaultTransactionalMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        backingMap = new TestMap();
+        map = new DefaultTransactionalMap<>("test", backingMap, new TestTransactionContext(),
+                                            Serializer.using(KryoNamespaces.BASIC));
+    }
+
+    /**
+     * Tests that getAll reads the keys not seen yet by the transaction in a single
+     * batch, and otherwise sees the reads, writes and deletes of the transaction.
+     */
+    @Test
+    public void testGetAll() {
+        backingMap.update("read", "r");
+        backingMap.update("written", "w");
+        backingMap.update("deleted", "d");
+        backingMap.update("unread", "u");
+
+        assertEquals("r", map.get("read"));
+        assertNull(map.get("absent"));
+        map.put("written", "w2");
+        map.remove("deleted");
+        assertEquals(4, backingMap.reads);
+
+        Map<String, String> values = map.getAll(
+                ImmutableSet.of("read", "written", "deleted", "absent", "unread", "missing"));
+
+        assertEquals(ImmutableMap.of("read", "r", "written", "w2", "unread", "u"), values);
+        assertEquals(1, backingMap.batchReads.size());
+        assertEquals(ImmutableSet.of("unread", "missing"), backingMap.batchReads.get(0));
+
+        // keys read in the batch, present or not, are not read again
+        assertEquals("u", map.get("unread"));
+        assertNull(map.get("missing"));
+        assertEquals(4, backingMap.reads);
+        assertEquals(1, backingMap.batchReads.size());
+    }
+
+    /**
+     * Tests that a key found absent by getAll is written only if still absent,
+     * and a key found present only if its version did not change.
+     */
+    @Test
+    public void testUpdatesAfterGetAll() {
+        Versioned<String> present = backingMap.update("present", "p");
+
+        map.getAll(ImmutableSet.of("present", "absent"));
+        map.put("present", "p2");
+        map.put("absent", "a");
+
+        Map<String, MapUpdate<String, String>> updates = Maps.uniqueIndex(map.updates(), MapUpdate::key);
+        assertEquals(2, updates.size());
+
+        MapUpdate<String, String> absentUpdate = updates.get("absent");
+        assertEquals(MapUpdate.Type.PUT_IF_ABSENT, absentUpdate.type());
+        assertEquals("a", absentUpdate.value());
+
+        MapUpdate<String, String> presentUpdate = updates.get("present");
+        assertEquals(MapUpdate.Type.PUT_IF_VERSION_MATCH, presentUpdate.type());
+        assertEquals(present.version(), presentUpdate.currentVersion());
+        assertEquals("p2", presentUpdate.value());
+    }
+
+    /**
+     * Tests that aborting the transaction forgets the keys found absent.
+     */
+    @Test
+    public void testAbortForgetsAbsentKeys() {
+        assertEquals(ImmutableMap.of(), map.getAll(ImmutableSet.of("absent")));
+        backingMap.update("absent", "a");
+
+        map.abort();
+
+        assertEquals("a", map.get("absent"));
+    }
+
+    private static class TestTransactionContext implements TransactionContext {
+        private final TransactionId transactionId = TransactionId.from("tx");
+
+        @Override
+        public String name() {
+            return transactionId.toString();
+        }
+
+        @Override
+        public TransactionId transactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public CompletableFuture<CommitStatus> commit() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abort() {
+        }
+
+        @Override
+        public <K, V> TransactionalMap<K, V> getTransactionalMap(String mapName, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestMap implements AsyncConsistentMap<String, String> {
+        private final Map<String, Versioned<String>> entries = Maps.newHashMap();
+        private final List<Set<String>> batchReads = Lists.newArrayList();
+        private final AtomicLong version = new AtomicLong();
+        private int reads;
+
+        synchronized Versioned<String> update(String key, String value) {
+            Versioned<String> newValue = new Versioned<>(value, version.incrementAndGet());
+            entries.put(key, newValue);
+            return newValue;
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public CompletableFuture<Integer> size() {
+            return CompletableFuture.completedFuture(entries.size());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> containsKey(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> containsValue(String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<Versioned<String>> get(String key) {
+            reads++;
+            return CompletableFuture.completedFuture(entries.get(key));
+        }
+
+        @Override
+        public synchronized CompletableFuture<Map<String, Versioned<String>>> getAll(Set<String> keys) {
+            batchReads.add(ImmutableSet.copyOf(keys));
+            Map<String, Versioned<String>> values = Maps.newHashMap();
+            keys.stream().filter(entries::containsKey).forEach(key -> values.put(key, entries.get(key)));
+            return CompletableFuture.completedFuture(values);
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> computeIf(String key,
+                Predicate<? super String> condition,
+                BiFunction<? super String, ? super String, ? extends String> remappingFunction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> put(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> putAndGet(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> remove(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Set<String>> keySet() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Collection<Versioned<String>>> values() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Set<Entry<String, Versioned<String>>>> entrySet() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> putIfAbsent(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> remove(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> remove(String key, long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> replace(String key, String value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> replace(String key, String oldValue, String newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> replace(String key, long oldVersion, String newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> addListener(MapEventListener<String, String> listener,
+                                                   Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> removeListener(MapEventListener<String, String> listener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepare(MapTransaction<String, String> transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> commit(TransactionId transactionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Void> rollback(TransactionId transactionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> prepareAndCommit(MapTransaction<String, String> transaction) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -30,6 +30,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -117,16 +118,16 @@ public class EventuallyConsistentMapImplTest {
         // delegate to our ClusterCommunicationService implementation. This
         // allows us to get a reference to the map's internal cluster message
         // handlers so we can induce events coming in from a peer.
-        clusterCommunicator.<Object>addSubscriber(anyObject(MessageSubject.class),
+        clusterCommunicator.<Object>addBufferSubscriber(anyObject(MessageSubject.class),
                 anyObject(Function.class), anyObject(Consumer.class), anyObject(Executor.class));
         expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
-        clusterCommunicator.<Object, Object>addSubscriber(anyObject(MessageSubject.class),
-                                                          anyObject(Function.class),
-                                                          anyObject(Function.class),
-                                                          anyObject(Function.class),
-                                                          anyObject(Executor.class));
+        clusterCommunicator.<Object, Object>addBufferSubscriber(anyObject(MessageSubject.class),
+                                                                anyObject(Function.class),
+                                                                anyObject(Function.class),
+                                                                anyObject(Function.class),
+                                                                anyObject(Executor.class));
         expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
-        clusterCommunicator.<Object>addSubscriber(anyObject(MessageSubject.class),
+        clusterCommunicator.<Object>addBufferSubscriber(anyObject(MessageSubject.class),
                 anyObject(Function.class), anyObject(Consumer.class), anyObject(Executor.class));
         expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
 
@@ -776,8 +777,8 @@ public class EventuallyConsistentMapImplTest {
             extends ClusterCommunicationServiceAdapter {
 
         @Override
-        public <M> void addSubscriber(MessageSubject subject,
-                Function<byte[], M> decoder, Consumer<M> handler,
+        public <M> void addBufferSubscriber(MessageSubject subject,
+                Function<ByteBuffer, M> decoder, Consumer<M> handler,
                 Executor executor) {
             if (subject.equals(UPDATE_MESSAGE_SUBJECT)) {
                 updateHandler = (Consumer<Collection<UpdateEntry<String, String>>>) handler;
@@ -789,8 +790,9 @@ public class EventuallyConsistentMapImplTest {
         }
 
         @Override
-        public <M, R> void addSubscriber(MessageSubject subject,
-                Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
+        public <M, R> void addBufferSubscriber(MessageSubject subject,
+                Function<ByteBuffer, M> decoder, Function<M, R> handler, Function<R, byte[]> encoder,
+                Executor executor) {
             if (subject.equals(ANTI_ENTROPY_MESSAGE_SUBJECT)) {
                 antiEntropyHandler = (Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse>) handler;
             } else {
@@ -38,6 +38,8 @@ import org.onosproject.store.service.MapTransaction;
 import org.onosproject.store.service.Versioned;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
 /**
@@ -59,6 +61,14 @@ public class AtomixConsistentMapTest extends AtomixTestBase {
         basicMapOperationTests(3);
     }
 
+    /**
+     * Tests multi-key map operations.
+     */
+    @Test
+    public void testBulkMapOperations() throws Throwable {
+        bulkMapOperationTests(3);
+    }
+
     /**
      * Tests various map compute* operations on different cluster sizes.
      */
@@ -221,6 +231,57 @@ public class AtomixConsistentMapTest extends AtomixTestBase {
         }).join();
     }
 
+    protected void bulkMapOperationTests(int clusterSize) throws Throwable {
+        createCopycatServers(clusterSize);
+        final byte[] value1 = Tools.getBytesUtf8("value1");
+        final byte[] value2 = Tools.getBytesUtf8("value2");
+
+        AtomixConsistentMap map = createAtomixClient().getResource("test", AtomixConsistentMap.class).join();
+
+        map.put("foo", value1).join();
+        map.putAll(ImmutableMap.of("foo", value2, "bar", value1, "baz", value2)).join();
+
+        map.size().thenAccept(result -> {
+            assertEquals(3, (int) result);
+        }).join();
+
+        map.getAll(ImmutableSet.of("foo", "bar", "qux")).thenAccept(result -> {
+            assertEquals(ImmutableSet.of("foo", "bar"), result.keySet());
+            assertTrue(Arrays.equals(value2, result.get("foo").value()));
+            assertTrue(Arrays.equals(value1, result.get("bar").value()));
+        }).join();
+
+        map.removeAll(ImmutableSet.of("foo", "baz", "qux")).join();
+
+        map.keySet().thenAccept(result -> {
+            assertEquals(ImmutableSet.of("bar"), result);
+        }).join();
+
+        // values stored by a bulk update outlive the removal of their siblings
+        map.get("bar").thenAccept(result -> {
+            assertTrue(Arrays.equals(value1, result.value()));
+        }).join();
+
+        // bulk updates are rejected as a whole while a key is locked by a transaction
+        MapUpdate<String, byte[]> update = MapUpdate.<String, byte[]>newBuilder()
+                .withType(MapUpdate.Type.PUT_IF_ABSENT)
+                .withKey("foo")
+                .withValue(value1)
+                .build();
+        MapTransaction<String, byte[]> tx = new MapTransaction<>(TransactionId.from("tx1"), Arrays.asList(update));
+        map.prepare(tx).join();
+        try {
+            map.putAll(ImmutableMap.of("foo", value2, "qux", value2)).join();
+            fail("bulk update of a locked key should fail");
+        } catch (CompletionException e) {
+            assertEquals(ConcurrentModificationException.class, e.getCause().getClass());
+        }
+        map.containsKey("qux").thenAccept(result -> {
+            assertFalse(result);
+        }).join();
+        map.rollback(tx.transactionId()).join();
+    }
+
     public void mapComputeOperationTests(int clusterSize) throws Throwable {
         createCopycatServers(clusterSize);
         final byte[] value1 = Tools.getBytesUtf8("value1");
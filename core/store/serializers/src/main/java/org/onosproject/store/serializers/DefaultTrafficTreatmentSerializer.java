@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.instructions.Instruction;
+
+import java.util.List;
+
+/**
+ * Serializer for {@link DefaultTrafficTreatment}, writing each instruction
+ * once instead of also writing the combined list of all instructions.
+ */
+public final class DefaultTrafficTreatmentSerializer extends Serializer<DefaultTrafficTreatment> {
+
+    /**
+     * Creates {@link DefaultTrafficTreatment} serializer instance.
+     */
+    public DefaultTrafficTreatmentSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, DefaultTrafficTreatment object) {
+        writeInstructions(kryo, output, object.immediate());
+        writeInstructions(kryo, output, object.deferred());
+        output.writeBoolean(object.clearedDeferred());
+        kryo.writeClassAndObject(output, object.tableTransition());
+        kryo.writeClassAndObject(output, object.writeMetadata());
+        kryo.writeClassAndObject(output, object.metered());
+    }
+
+    private void writeInstructions(Kryo kryo, Output output, List<Instruction> instructions) {
+        output.writeVarInt(instructions.size(), true);
+        for (Instruction instruction : instructions) {
+            kryo.writeClassAndObject(output, instruction);
+        }
+    }
+
+    @Override
+    public DefaultTrafficTreatment read(Kryo kryo, Input input, Class<DefaultTrafficTreatment> type) {
+        TrafficTreatment.Builder builder = DefaultTrafficTreatment.builder();
+        builder.immediate();
+        readInstructions(kryo, input, builder);
+        builder.deferred();
+        readInstructions(kryo, input, builder);
+        if (input.readBoolean()) {
+            builder.wipeDeferred();
+        }
+        // table, metadata and meter instructions are kept apart by the builder
+        for (int i = 0; i < 3; i++) {
+            Instruction instruction = (Instruction) kryo.readClassAndObject(input);
+            if (instruction != null) {
+                builder.add(instruction);
+            }
+        }
+        return (DefaultTrafficTreatment) builder.build();
+    }
+
+    private void readInstructions(Kryo kryo, Input input, TrafficTreatment.Builder builder) {
+        int size = input.readVarInt(true);
+        for (int i = 0; i < size; i++) {
+            builder.add((Instruction) kryo.readClassAndObject(input));
+        }
+    }
+}
@@ -22,11 +22,26 @@ import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
 * Kryo Serializer for {@link DeviceId}.
+* <p>
+* Identifiers are interned within each serialized object graph: the first
+* occurrence of an identifier is written in full, later ones only as the
+* index of the first, so that a batch of flow rules for a device carries
+* the device identifier once.
+* </p>
 */
 public final class DeviceIdSerializer extends Serializer<DeviceId> {
 
+    // Graph context keys of the identifiers written and read so far
+    private static final Object WRITTEN = new Object();
+    private static final Object READ = new Object();
+
     /**
      * Creates {@link DeviceId} serializer instance.
      */
@@ -37,12 +52,37 @@ public final class DeviceIdSerializer extends Serializer<DeviceId> {
 
     @Override
     public void write(Kryo kryo, Output output, DeviceId object) {
+        @SuppressWarnings("unchecked")
+        Map<DeviceId, Integer> written = (Map<DeviceId, Integer>) kryo.getGraphContext().get(WRITTEN);
+        if (written == null) {
+            written = new HashMap<>();
+            kryo.getGraphContext().put(WRITTEN, written);
+        }
+        Integer index = written.get(object);
+        if (index != null) {
+            output.writeVarInt(index + 1, true);
+            return;
+        }
+        written.put(object, written.size());
+        output.writeVarInt(0, true);
         output.writeString(object.toString());
     }
 
     @Override
     public DeviceId read(Kryo kryo, Input input, Class<DeviceId> type) {
+        @SuppressWarnings("unchecked")
+        List<DeviceId> read = (List<DeviceId>) kryo.getGraphContext().get(READ);
+        if (read == null) {
+            read = new ArrayList<>();
+            kryo.getGraphContext().put(READ, read);
+        }
+        int index = input.readVarInt(true);
+        if (index > 0) {
+            return read.get(index - 1);
+        }
         final String str = input.readString();
-        return DeviceId.deviceId(str);
+        DeviceId deviceId = DeviceId.deviceId(str);
+        read.add(deviceId);
+        return deviceId;
     }
 }
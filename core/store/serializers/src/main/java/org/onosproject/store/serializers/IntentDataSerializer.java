@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.collect.ImmutableList;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentData;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.store.Timestamp;
+
+import java.util.List;
+
+/**
+ * Serializer for {@link IntentData}.
+ */
+public final class IntentDataSerializer extends Serializer<IntentData> {
+
+    private static final IntentState[] STATES = IntentState.values();
+
+    /**
+     * Creates {@link IntentData} serializer instance.
+     */
+    public IntentDataSerializer() {
+        // non-null, mutable
+        super(false, false);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, IntentData object) {
+        kryo.writeClassAndObject(output, object.intent());
+        output.writeVarInt(object.request().ordinal(), true);
+        output.writeVarInt(object.state().ordinal(), true);
+        kryo.writeClassAndObject(output, object.version());
+        kryo.writeClassAndObject(output, object.origin());
+        output.writeVarInt(object.errorCount(), true);
+        List<Intent> installables = object.installables();
+        output.writeVarInt(installables.size(), true);
+        for (Intent installable : installables) {
+            kryo.writeClassAndObject(output, installable);
+        }
+    }
+
+    @Override
+    public IntentData read(Kryo kryo, Input input, Class<IntentData> type) {
+        Intent intent = (Intent) kryo.readClassAndObject(input);
+        IntentState request = STATES[input.readVarInt(true)];
+        IntentState state = STATES[input.readVarInt(true)];
+        Timestamp version = (Timestamp) kryo.readClassAndObject(input);
+        NodeId origin = (NodeId) kryo.readClassAndObject(input);
+        IntentData data = origin == null ? new IntentData(intent, request, version)
+                : new IntentData(intent, request, version, origin);
+        data.setState(state);
+        data.setErrorCount(input.readVarInt(true));
+        int size = input.readVarInt(true);
+        if (size == 0) {
+            return data;
+        }
+        ImmutableList.Builder<Intent> installables = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            installables.add((Intent) kryo.readClassAndObject(input));
+        }
+        return new IntentData(data, installables.build());
+    }
+
+    @Override
+    public IntentData copy(Kryo kryo, IntentData original) {
+        return new IntentData(original);
+    }
+}
@@ -347,8 +347,10 @@ public final class KryoNamespaces {
                     DefaultPacketRequest.class,
                     PacketPriority.class,
                     FlowEntry.FlowEntryState.class,
-                    FlowId.class,
-                    DefaultTrafficSelector.class,
+                    FlowId.class)
+            // registered in place to keep the ids of the following classes
+            .register(new DefaultTrafficSelectorSerializer(), DefaultTrafficSelector.class)
+            .register(
                     PortCriterion.class,
                     MetadataCriterion.class,
                     EthCriterion.class,
@@ -384,8 +386,9 @@ public final class KryoNamespaces {
                     ArpHaCriterion.class,
                     ArpPaCriterion.class,
                     Criterion.class,
-                    Criterion.Type.class,
-                    DefaultTrafficTreatment.class,
+                    Criterion.Type.class)
+            .register(new DefaultTrafficTreatmentSerializer(), DefaultTrafficTreatment.class)
+            .register(
                     Instructions.NoActionInstruction.class,
                     Instructions.OutputInstruction.class,
                     Instructions.GroupInstruction.class,
@@ -537,6 +540,7 @@ public final class KryoNamespaces {
             .register(ClosedOpenRange.class)
             .register(DiscreteResourceCodec.class)
             .register(ImmutableByteSequence.class)
+            .register(Instructions.MetadataInstruction.class)
             .build("API");
 
 
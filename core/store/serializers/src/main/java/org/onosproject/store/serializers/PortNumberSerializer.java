@@ -39,7 +39,9 @@ public final class PortNumberSerializer extends
     @Override
     public void write(Kryo kryo, Output output, PortNumber object) {
         output.writeBoolean(object.hasName());
-        output.writeLong(object.toLong());
+        // zig-zag encoded, so that reserved (negative) port numbers take a
+        // single byte, as do small ones, and none takes more than five
+        output.writeVarLong(object.toLong(), false);
         if (object.hasName()) {
             output.writeString(object.name());
         }
@@ -48,9 +50,9 @@ public final class PortNumberSerializer extends
     @Override
     public PortNumber read(Kryo kryo, Input input, Class<PortNumber> type) {
         if (input.readBoolean()) {
-            return PortNumber.portNumber(input.readLong(), input.readString());
+            return PortNumber.portNumber(input.readVarLong(false), input.readString());
         } else {
-            return PortNumber.portNumber(input.readLong());
+            return PortNumber.portNumber(input.readVarLong(false));
         }
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.serializers;
 
+import com.esotericsoftware.kryo.io.Output;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -27,10 +28,12 @@ import org.junit.Test;
 import org.onlab.packet.VlanId;
 import org.onlab.util.Bandwidth;
 import org.onlab.util.Frequency;
+import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.RoleInfo;
 import org.onosproject.core.DefaultApplicationId;
 import org.onosproject.core.DefaultGroupId;
+import org.onosproject.core.IdGenerator;
 import org.onosproject.mastership.MastershipTerm;
 import org.onosproject.net.Annotations;
 import org.onosproject.net.ChannelSpacing;
@@ -61,7 +64,11 @@ import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleBatchEntry;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentData;
 import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.PointToPointIntent;
 import org.onosproject.net.resource.ResourceAllocation;
 import org.onosproject.net.resource.ResourceConsumerId;
 import org.onosproject.net.resource.Resources;
@@ -80,6 +87,7 @@ import org.onlab.packet.IpPrefix;
 import org.onlab.packet.Ip4Prefix;
 import org.onlab.packet.Ip6Prefix;
 import org.onlab.packet.MacAddress;
+import org.onosproject.store.service.WallClockTimestamp;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -99,6 +107,7 @@ public class KryoSerializerTest {
     private static final DeviceId DID2 = deviceId("of:bar");
     private static final PortNumber P1 = portNumber(1);
     private static final PortNumber P2 = portNumber(2);
+    private static final long MAX_PORT = 0xffffffffL;
     private static final ConnectPoint CP1 = new ConnectPoint(DID1, P1);
     private static final ConnectPoint CP2 = new ConnectPoint(DID2, P2);
     private static final String MFR = "whitebox";
@@ -120,6 +129,14 @@ public class KryoSerializerTest {
     private static final OchSignal OCH_SIGNAL1 = (OchSignal) org.onosproject.net.Lambda.ochSignal(
             GridType.DWDM, ChannelSpacing.CHL_100GHZ, -8, 4);
     private static final VlanId VLAN1 = VlanId.vlanId((short) 100);
+    private static final IdGenerator ID_GENERATOR = new IdGenerator() {
+        private long id;
+
+        @Override
+        public long getNewId() {
+            return ++id;
+        }
+    };
 
     private StoreSerializer serializer;
 
@@ -214,6 +231,11 @@ public class KryoSerializerTest {
         testSerializedEquals(DID1);
     }
 
+    @Test
+    public void testRepeatedDeviceIds() {
+        testSerializedEquals(ImmutableList.of(DID1, DID2, DID1, CP1, CP2, DID2));
+    }
+
     @Test
     public void testImmutableMap() {
         testSerializedEquals(ImmutableMap.of(DID1, DEV1, DID2, DEV1));
@@ -304,6 +326,90 @@ public class KryoSerializerTest {
     @Test
     public void testPortNumber() {
         testSerializedEquals(P1);
+        testSerializedEquals(PortNumber.CONTROLLER);
+        testSerializedEquals(portNumber(3, "eth3"));
+        testSerializedEquals(portNumber(MAX_PORT));
+
+        assertEquals("incorrect reserved port size", 2, encodedSize(PortNumber.CONTROLLER));
+        assertEquals("incorrect small port size", 2, encodedSize(P1));
+        assertEquals("incorrect maximum port size", 6, encodedSize(portNumber(MAX_PORT)));
+    }
+
+    private static int encodedSize(PortNumber port) {
+        Output output = new Output(32);
+        new PortNumberSerializer().write(null, output, port);
+        return output.position();
+    }
+
+    @Test
+    public void testIntentData() {
+        StoreSerializer intentSerializer = StoreSerializer.using(KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .register(new IntentDataSerializer(), IntentData.class)
+                .register(WallClockTimestamp.class)
+                .build());
+        Intent.bindIdGenerator(ID_GENERATOR);
+        try {
+            Intent intent = PointToPointIntent.builder()
+                    .appId(new DefaultApplicationId(1, "foo"))
+                    .ingressPoint(CP1)
+                    .egressPoint(CP2)
+                    .build();
+            Intent installable = PointToPointIntent.builder()
+                    .appId(new DefaultApplicationId(1, "foo"))
+                    .ingressPoint(CP2)
+                    .egressPoint(CP1)
+                    .build();
+
+            IntentData data = new IntentData(intent, IntentState.INSTALL_REQ, new WallClockTimestamp(1L));
+            data.setState(IntentState.FAILED);
+            data.setErrorCount(3);
+            assertIntentDataEquals(data, intentSerializer.decode(intentSerializer.encode(data)));
+
+            IntentData installed = new IntentData(new IntentData(intent, IntentState.INSTALL_REQ,
+                                                                 new WallClockTimestamp(2L),
+                                                                 new NodeId("origin")),
+                                                  ImmutableList.of(installable));
+            installed.setState(IntentState.INSTALLED);
+            assertIntentDataEquals(installed, intentSerializer.decode(intentSerializer.encode(installed)));
+        } finally {
+            Intent.unbindIdGenerator(ID_GENERATOR);
+        }
+    }
+
+    // IntentData equality only covers the intent and version
+    private static void assertIntentDataEquals(IntentData expected, IntentData actual) {
+        assertEquals("incorrect intent", expected.intent(), actual.intent());
+        assertEquals("incorrect request", expected.request(), actual.request());
+        assertEquals("incorrect state", expected.state(), actual.state());
+        assertEquals("incorrect version", expected.version(), actual.version());
+        assertEquals("incorrect origin", expected.origin(), actual.origin());
+        assertEquals("incorrect error count", expected.errorCount(), actual.errorCount());
+        assertEquals("incorrect installables", expected.installables(), actual.installables());
+    }
+
+    @Test
+    public void testTrafficSelector() {
+        testSerializedEquals(DefaultTrafficSelector.emptySelector());
+        testSerializedEquals(DefaultTrafficSelector.builder()
+                                     .matchInPort(P1)
+                                     .matchEthDst(MacAddress.BROADCAST)
+                                     .matchVlanId(VLAN1)
+                                     .build());
+    }
+
+    @Test
+    public void testTrafficTreatment() {
+        testSerializedEquals(DefaultTrafficTreatment.emptyTreatment());
+        testSerializedEquals(DefaultTrafficTreatment.builder()
+                                     .setVlanId(VLAN1)
+                                     .setOutput(P2)
+                                     .deferred()
+                                     .popVlan()
+                                     .wipeDeferred()
+                                     .transition(1)
+                                     .writeMetadata(1L, 0xffL)
+                                     .build());
     }
 
     @Test
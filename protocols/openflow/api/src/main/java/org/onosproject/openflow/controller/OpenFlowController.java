@@ -17,6 +17,9 @@ package org.onosproject.openflow.controller;
 
 import org.projectfloodlight.openflow.protocol.OFMessage;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Abstraction of an OpenFlow controller. Serves as a one stop
  * shop for obtaining OpenFlow devices and (un)register listeners
@@ -135,6 +138,15 @@ public interface OpenFlowController {
      */
     void processPacket(Dpid dpid, OFMessage msg);
 
+    /**
+     * Returns the packet-in processing statistics of the connected switches.
+     *
+     * @return map of switch dpid to packet-in statistics
+     */
+    default Map<Dpid, PacketInStatistics> getPacketInStatistics() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Sets the role for a given switch.
      * @param role the desired role
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Packet-in processing statistics of a switch.
+ */
+public final class PacketInStatistics {
+
+    private final long received;
+    private final long dropped;
+    private final int queued;
+    private final double receivedRate;
+
+    /**
+     * Creates packet-in statistics.
+     *
+     * @param received     number of packet-ins received
+     * @param dropped      number of packet-ins dropped because of overload
+     * @param queued       number of packet-ins waiting to be processed
+     * @param receivedRate one minute rate of received packet-ins, in
+     *                     packets per second
+     */
+    public PacketInStatistics(long received, long dropped, int queued, double receivedRate) {
+        this.received = received;
+        this.dropped = dropped;
+        this.queued = queued;
+        this.receivedRate = receivedRate;
+    }
+
+    /**
+     * Returns the number of packet-ins received.
+     *
+     * @return packet-in count
+     */
+    public long received() {
+        return received;
+    }
+
+    /**
+     * Returns the number of packet-ins dropped because of overload.
+     *
+     * @return dropped packet-in count
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the number of packet-ins waiting to be processed.
+     *
+     * @return queued packet-in count
+     */
+    public int queued() {
+        return queued;
+    }
+
+    /**
+     * Returns the one minute rate of received packet-ins.
+     *
+     * @return packets per second
+     */
+    public double receivedRate() {
+        return receivedRate;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("received", received)
+                .add("dropped", dropped)
+                .add("queued", queued)
+                .add("receivedRate", receivedRate)
+                .toString();
+    }
+}
@@ -46,6 +46,9 @@ import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -59,6 +62,8 @@ public abstract class AbstractOpenFlowSwitch extends AbstractHandlerBehaviour
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final int MAX_MESSAGES_PER_WRITE = 1000;
+
     private Channel channel;
     protected String channelId;
 
@@ -88,6 +93,11 @@ public abstract class AbstractOpenFlowSwitch extends AbstractHandlerBehaviour
     private final AtomicReference<List<OFMessage>> messagesPendingMastership
             = new AtomicReference<>();
 
+    // Messages waiting to be written to the channel; concurrent senders
+    // have their messages coalesced into a single channel write.
+    private final Queue<OFMessage> outboundMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+
     @Override
     public void init(Dpid dpid, OFDescStatsReply desc, OFVersion ofv) {
         this.dpid = dpid;
@@ -154,12 +164,33 @@ public abstract class AbstractOpenFlowSwitch extends AbstractHandlerBehaviour
     }
 
     private void sendMsgsOnChannel(List<OFMessage> msgs) {
-        if (channel.isConnected()) {
-            channel.write(msgs);
-            agent.processDownstreamMessage(dpid, msgs);
-        } else {
-            log.warn("Dropping messages for switch {} because channel is not connected: {}",
-                     dpid, msgs);
+        outboundMessages.addAll(msgs);
+        // Whoever holds the writing flag writes everything queued so far,
+        // including the messages of senders which failed to get the flag,
+        // in bounded batches.
+        while (!outboundMessages.isEmpty() && writing.compareAndSet(false, true)) {
+            try {
+                List<OFMessage> batch = new ArrayList<>(Math.min(msgs.size(), MAX_MESSAGES_PER_WRITE));
+                while (batch.size() < MAX_MESSAGES_PER_WRITE) {
+                    OFMessage msg = outboundMessages.poll();
+                    if (msg == null) {
+                        break;
+                    }
+                    batch.add(msg);
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                if (channel.isConnected()) {
+                    channel.write(batch);
+                    agent.processDownstreamMessage(dpid, batch);
+                } else {
+                    log.warn("Dropping messages for switch {} because channel is not connected: {}",
+                             dpid, batch);
+                }
+            } finally {
+                writing.set(false);
+            }
         }
     }
 
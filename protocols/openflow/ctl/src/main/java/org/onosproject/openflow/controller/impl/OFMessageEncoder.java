@@ -31,6 +31,10 @@ import org.projectfloodlight.openflow.protocol.OFMessage;
  */
 public class OFMessageEncoder extends OneToOneEncoder {
 
+    // Rough size of an encoded message, used to size the buffer of a list
+    // of messages up front rather than growing it message by message
+    private static final int ESTIMATED_MESSAGE_LENGTH = 128;
+
     @Override
     protected Object encode(ChannelHandlerContext ctx, Channel channel,
                             Object msg) throws Exception {
@@ -46,7 +50,7 @@ public class OFMessageEncoder extends OneToOneEncoder {
             size += ofm.getLengthU();
         }*/
 
-        ChannelBuffer buf = ChannelBuffers.dynamicBuffer();
+        ChannelBuffer buf = ChannelBuffers.dynamicBuffer(msglist.size() * ESTIMATED_MESSAGE_LENGTH);
 
         for (OFMessage ofm : msglist) {
             if (ofm != null) {
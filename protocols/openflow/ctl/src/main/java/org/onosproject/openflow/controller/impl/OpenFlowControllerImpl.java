@@ -15,6 +15,7 @@
  */
 package org.onosproject.openflow.controller.impl;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -38,6 +39,7 @@ import org.onosproject.openflow.controller.OpenFlowMessageListener;
 import org.onosproject.openflow.controller.OpenFlowPacketContext;
 import org.onosproject.openflow.controller.OpenFlowSwitch;
 import org.onosproject.openflow.controller.OpenFlowSwitchListener;
+import org.onosproject.openflow.controller.PacketInStatistics;
 import org.onosproject.openflow.controller.PacketListener;
 import org.onosproject.openflow.controller.RoleState;
 import org.onosproject.openflow.controller.driver.OpenFlowAgent;
@@ -70,8 +72,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Dictionary;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -81,6 +85,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 
 @Component(immediate = true)
@@ -89,6 +94,9 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     private static final String APP_ID = "org.onosproject.openflow-base";
     private static final String DEFAULT_OFPORT = "6633,6653";
     private static final int DEFAULT_WORKER_THREADS = 16;
+    private static final int DEFAULT_PACKET_IN_THREADS = 8;
+    private static final int DEFAULT_PACKET_IN_QUEUE_SIZE = 1000;
+    private static final String DEFAULT_PACKET_IN_OVERLOAD_POLICY = "drop";
 
     private static final Logger log =
             LoggerFactory.getLogger(OpenFlowControllerImpl.class);
@@ -114,12 +122,28 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             label = "Number of controller worker threads; default is 16")
     private int workerThreads = DEFAULT_WORKER_THREADS;
 
+    @Property(name = "packetInThreads", intValue = DEFAULT_PACKET_IN_THREADS,
+            label = "Number of threads processing packet-ins; default is 8")
+    private int packetInThreads = DEFAULT_PACKET_IN_THREADS;
+
+    @Property(name = "packetInQueueSize", intValue = DEFAULT_PACKET_IN_QUEUE_SIZE,
+            label = "Maximum number of pending packet-ins per switch; default is 1000")
+    private int packetInQueueSize = DEFAULT_PACKET_IN_QUEUE_SIZE;
+
+    @Property(name = "packetInOverloadPolicy", value = DEFAULT_PACKET_IN_OVERLOAD_POLICY,
+            label = "Handling of packet-ins of overloaded switches, either drop or sample; default is drop")
+    private String packetInOverloadPolicy = DEFAULT_PACKET_IN_OVERLOAD_POLICY;
+
     protected ExecutorService executorMsgs =
         Executors.newFixedThreadPool(32, groupedThreads("onos/of", "event-stats-%d", log));
 
     private final ExecutorService executorBarrier =
         Executors.newFixedThreadPool(4, groupedThreads("onos/of", "event-barrier-%d", log));
 
+    protected final PacketInPipeline packetInPipeline =
+        new PacketInPipeline(DEFAULT_PACKET_IN_THREADS, DEFAULT_PACKET_IN_QUEUE_SIZE,
+                             PacketInPipeline.OverloadPolicy.DROP);
+
     protected ConcurrentMap<Dpid, OpenFlowSwitch> connectedSwitches =
             new ConcurrentHashMap<>();
     protected ConcurrentMap<Dpid, OpenFlowSwitch> activeMasterSwitches =
@@ -158,6 +182,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     public void activate(ComponentContext context) {
         coreService.registerApplication(APP_ID, this::cleanup);
         cfgService.registerProperties(getClass());
+        readPacketInConfiguration(context.getProperties());
         ctrl.setConfigParams(context.getProperties());
         ctrl.start(agent, driverService);
     }
@@ -178,15 +203,54 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             cleanup();
         }
         cfgService.unregisterProperties(getClass(), false);
+        packetInPipeline.shutdown();
     }
 
     @Modified
     public void modified(ComponentContext context) {
         ctrl.stop();
+        readPacketInConfiguration(context.getProperties());
         ctrl.setConfigParams(context.getProperties());
         ctrl.start(agent, driverService);
     }
 
+    // Reads the packet-in pipeline settings and reconfigures the pipeline
+    // if any of them changed.
+    private void readPacketInConfiguration(Dictionary<?, ?> properties) {
+        int threads = getIntegerProperty(properties, "packetInThreads", packetInThreads);
+        int queueSize = getIntegerProperty(properties, "packetInQueueSize", packetInQueueSize);
+        String policy = get(properties, "packetInOverloadPolicy");
+        policy = Strings.isNullOrEmpty(policy) ? packetInOverloadPolicy : policy.trim();
+        PacketInPipeline.OverloadPolicy overloadPolicy;
+        try {
+            overloadPolicy = PacketInPipeline.OverloadPolicy.valueOf(policy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown packet-in overload policy {}; keeping {}", policy, packetInOverloadPolicy);
+            overloadPolicy = PacketInPipeline.OverloadPolicy.valueOf(packetInOverloadPolicy.toUpperCase());
+            policy = packetInOverloadPolicy;
+        }
+        if (threads == packetInThreads && queueSize == packetInQueueSize
+                && policy.equalsIgnoreCase(packetInOverloadPolicy)) {
+            return;
+        }
+        packetInPipeline.reconfigure(threads, queueSize, overloadPolicy);
+        packetInThreads = threads;
+        packetInQueueSize = queueSize;
+        packetInOverloadPolicy = policy;
+        log.info("Packet-in pipeline set to {} threads, queue size {} and {} policy",
+                 threads, queueSize, policy);
+    }
+
+    private static int getIntegerProperty(Dictionary<?, ?> properties, String name, int defaultValue) {
+        String value = get(properties, name);
+        try {
+            return Strings.isNullOrEmpty(value) ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value {} for {}; keeping {}", value, name, defaultValue);
+            return defaultValue;
+        }
+    }
+
     @Override
     public Iterable<OpenFlowSwitch> getSwitches() {
         return connectedSwitches.values();
@@ -264,6 +328,11 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         this.getSwitch(dpid).sendMsg(msg);
     }
 
+    @Override
+    public Map<Dpid, PacketInStatistics> getPacketInStatistics() {
+        return packetInPipeline.statistics();
+    }
+
     @Override
     public void processPacket(Dpid dpid, OFMessage msg) {
         Collection<OFFlowStatsEntry> flowStats;
@@ -284,12 +353,14 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             }
             break;
         case PACKET_IN:
-            OpenFlowPacketContext pktCtx = DefaultOpenFlowPacketContext
-            .packetContextFromPacketIn(this.getSwitch(dpid),
-                    (OFPacketIn) msg);
-            for (PacketListener p : ofPacketListener.values()) {
-                p.handlePacket(pktCtx);
-            }
+            packetInPipeline.submit(dpid, () -> {
+                OpenFlowPacketContext pktCtx = DefaultOpenFlowPacketContext
+                .packetContextFromPacketIn(this.getSwitch(dpid),
+                        (OFPacketIn) msg);
+                for (PacketListener p : ofPacketListener.values()) {
+                    p.handlePacket(pktCtx);
+                }
+            });
             break;
         // TODO: Consider using separate threadpool for sensitive messages.
         //    ie. Back to back error could cause us to starve.
@@ -620,6 +691,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         @Override
         public void removeConnectedSwitch(Dpid dpid) {
             connectedSwitches.remove(dpid);
+            packetInPipeline.remove(dpid);
             OpenFlowSwitch sw = activeMasterSwitches.remove(dpid);
             if (sw == null) {
                 log.debug("sw was null for {}", dpid);
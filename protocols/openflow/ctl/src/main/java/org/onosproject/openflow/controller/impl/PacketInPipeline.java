@@ -0,0 +1,247 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.onosproject.openflow.controller.Dpid;
+import org.onosproject.openflow.controller.PacketInStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Pipeline processing the packet-ins of switches on a pool of workers.
+ * <p>
+ * Each switch has a bounded queue of pending packet-ins, drained by the
+ * worker the switch is hashed to, so that the packet-ins of a switch are
+ * processed in order while different switches are processed in parallel.
+ * A worker drains a limited number of packet-ins of a switch at a time,
+ * so that a switch flooding the controller does not hold up the other
+ * switches sharing its worker. The pipeline can be reconfigured while
+ * running, without losing or reordering pending packet-ins.
+ * </p>
+ */
+final class PacketInPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(PacketInPipeline.class);
+
+    /**
+     * Policy applied to the packet-ins of a switch whose queue is filling up.
+     */
+    enum OverloadPolicy {
+        /**
+         * Packet-ins are dropped once the queue is full.
+         */
+        DROP,
+
+        /**
+         * Only one in {@link #SAMPLE_RATE} packet-ins is queued once the
+         * queue is half full, and packet-ins are dropped once it is full.
+         */
+        SAMPLE
+    }
+
+    static final int SAMPLE_RATE = 16;
+
+    // Maximum number of packet-ins of a switch processed in one go
+    private static final int BATCH_SIZE = 64;
+
+    private volatile ExecutorService[] workers;
+    private volatile int queueSize;
+    private volatile OverloadPolicy policy;
+    private final Map<Dpid, SwitchQueue> queues = Maps.newConcurrentMap();
+
+    /**
+     * Creates a packet-in pipeline.
+     *
+     * @param workerCount number of workers
+     * @param queueSize   maximum number of pending packet-ins per switch
+     * @param policy      overload policy
+     */
+    PacketInPipeline(int workerCount, int queueSize, OverloadPolicy policy) {
+        checkArgument(workerCount > 0, "Worker count must be positive");
+        checkArgument(queueSize > 0, "Queue size must be positive");
+        this.queueSize = queueSize;
+        this.policy = checkNotNull(policy);
+        this.workers = createWorkers(workerCount);
+    }
+
+    private static ExecutorService[] createWorkers(int workerCount) {
+        ExecutorService[] newWorkers = new ExecutorService[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            newWorkers[i] = Executors.newSingleThreadExecutor(
+                    groupedThreads("onos/of", "packet-in-" + i, log));
+        }
+        return newWorkers;
+    }
+
+    /**
+     * Changes the settings of the pipeline. Pending packet-ins are kept and
+     * the packet-ins of each switch remain in order; if the number of
+     * workers changes, the previous workers are shut down once they are
+     * done with the switches they are currently processing.
+     *
+     * @param workerCount number of workers
+     * @param queueSize   maximum number of pending packet-ins per switch
+     * @param policy      overload policy
+     */
+    synchronized void reconfigure(int workerCount, int queueSize, OverloadPolicy policy) {
+        checkArgument(workerCount > 0, "Worker count must be positive");
+        checkArgument(queueSize > 0, "Queue size must be positive");
+        this.queueSize = queueSize;
+        this.policy = checkNotNull(policy);
+        ExecutorService[] previous = workers;
+        if (previous.length != workerCount) {
+            // Switch queues pick their worker each time they are scheduled,
+            // so publish the new workers before retiring the previous ones.
+            workers = createWorkers(workerCount);
+            for (ExecutorService worker : previous) {
+                worker.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Submits the processing of a packet-in of the given switch.
+     *
+     * @param dpid switch dpid
+     * @param task packet-in processing task
+     * @return true if the packet-in was queued; false if it was dropped
+     */
+    boolean submit(Dpid dpid, Runnable task) {
+        return queues.computeIfAbsent(dpid, SwitchQueue::new).offer(task);
+    }
+
+    /**
+     * Discards the pending packet-ins and statistics of the given switch.
+     *
+     * @param dpid switch dpid
+     */
+    void remove(Dpid dpid) {
+        queues.remove(dpid);
+    }
+
+    /**
+     * Returns the packet-in statistics of each switch.
+     *
+     * @return map of switch dpid to packet-in statistics
+     */
+    Map<Dpid, PacketInStatistics> statistics() {
+        ImmutableMap.Builder<Dpid, PacketInStatistics> builder = ImmutableMap.builder();
+        queues.forEach((dpid, queue) -> builder.put(dpid, queue.statistics()));
+        return builder.build();
+    }
+
+    /**
+     * Shuts the pipeline down once the pending packet-ins are processed.
+     */
+    void shutdown() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    // Pending packet-ins of a switch, drained by a single worker at a time.
+    private final class SwitchQueue implements Runnable {
+        private final int hash;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong overloaded = new AtomicLong();
+        private final Meter received = new Meter();
+        private final LongAdder dropped = new LongAdder();
+
+        private SwitchQueue(Dpid dpid) {
+            this.hash = dpid.hashCode();
+        }
+
+        private boolean offer(Runnable task) {
+            received.mark();
+            int pending = size.get();
+            if (pending >= queueSize || (policy == OverloadPolicy.SAMPLE && pending >= queueSize / 2
+                    && overloaded.getAndIncrement() % SAMPLE_RATE != 0)) {
+                dropped.increment();
+                return false;
+            }
+            size.incrementAndGet();
+            tasks.add(task);
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            while (true) {
+                ExecutorService[] current = workers;
+                try {
+                    current[Math.floorMod(hash, current.length)].execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Retry if the workers were replaced in the meantime.
+                    if (current == workers) {
+                        scheduled.set(false);
+                        log.debug("Packet-in pipeline is shut down");
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                size.decrementAndGet();
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("Unable to process packet-in", e);
+                }
+            }
+            scheduled.set(false);
+            // Packet-ins queued after the last poll must not be left behind.
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private PacketInStatistics statistics() {
+            return new PacketInStatistics(received.getCount(), dropped.sum(),
+                                          size.get(), received.getOneMinuteRate());
+        }
+    }
+}
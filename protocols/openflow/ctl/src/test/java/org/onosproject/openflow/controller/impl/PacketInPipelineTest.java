@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+import org.onosproject.openflow.controller.Dpid;
+import org.onosproject.openflow.controller.PacketInStatistics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the packet-in pipeline.
+ */
+public class PacketInPipelineTest {
+
+    private static final Dpid DPID1 = new Dpid(1L);
+    private static final Dpid DPID2 = new Dpid(2L);
+
+    private PacketInPipeline pipeline;
+
+    @After
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    /**
+     * Tests that the packet-ins of a switch are processed in order.
+     */
+    @Test
+    public void testOrdering() throws Exception {
+        pipeline = new PacketInPipeline(4, 1000, PacketInPipeline.OverloadPolicy.DROP);
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            assertTrue(pipeline.submit(DPID1, () -> processed.add(n)));
+        }
+        pipeline.submit(DPID1, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(500, processed.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, processed.get(i).intValue());
+        }
+    }
+
+    /**
+     * Tests that packet-ins are dropped once the queue of their switch is
+     * full, without affecting other switches.
+     */
+    @Test
+    public void testDrop() throws Exception {
+        pipeline = new PacketInPipeline(1, 10, PacketInPipeline.OverloadPolicy.DROP);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.submit(DPID1, () -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pipeline.submit(DPID1, () -> { }));
+        }
+        assertFalse(pipeline.submit(DPID1, () -> { }));
+        assertTrue(pipeline.submit(DPID2, () -> { }));
+
+        PacketInStatistics stats = pipeline.statistics().get(DPID1);
+        assertEquals(12, stats.received());
+        assertEquals(1, stats.dropped());
+        assertEquals(10, stats.queued());
+        assertEquals(0, pipeline.statistics().get(DPID2).dropped());
+        release.countDown();
+    }
+
+    /**
+     * Tests that only a sample of the packet-ins is queued once the queue
+     * of a switch is half full.
+     */
+    @Test
+    public void testSample() throws Exception {
+        pipeline = new PacketInPipeline(1, 10, PacketInPipeline.OverloadPolicy.SAMPLE);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.submit(DPID1, () -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        List<Boolean> queued = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5 + 2 * PacketInPipeline.SAMPLE_RATE; i++) {
+            queued.add(pipeline.submit(DPID1, () -> { }));
+        }
+        assertEquals(5 + 2, queued.stream().filter(q -> q).count());
+        assertEquals(ImmutableList.of(true, false), queued.subList(5, 7));
+        release.countDown();
+    }
+
+    /**
+     * Tests that reconfiguring the pipeline neither loses nor reorders
+     * the pending packet-ins of a switch.
+     */
+    @Test
+    public void testReconfigure() throws Exception {
+        pipeline = new PacketInPipeline(1, 1000, PacketInPipeline.OverloadPolicy.DROP);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        pipeline.submit(DPID1, () -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            assertTrue(pipeline.submit(DPID1, () -> processed.add(n)));
+        }
+        pipeline.reconfigure(4, 1000, PacketInPipeline.OverloadPolicy.SAMPLE);
+        for (int i = 100; i < 200; i++) {
+            int n = i;
+            assertTrue(pipeline.submit(DPID1, () -> processed.add(n)));
+        }
+        release.countDown();
+
+        CountDownLatch done = new CountDownLatch(1);
+        pipeline.submit(DPID1, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(200, processed.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, processed.get(i).intValue());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
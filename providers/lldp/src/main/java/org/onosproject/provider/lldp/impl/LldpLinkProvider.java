@@ -32,7 +32,7 @@ import org.apache.felix.scr.annotations.Modified;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
-import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ClusterService;
@@ -651,7 +651,7 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
                 return;
             }
 
-            Ethernet eth = context.inPacket().parsed();
+            EthernetView eth = context.inPacket().header();
             if (eth == null || (eth.getEtherType() != TYPE_LLDP && eth.getEtherType() != TYPE_BSN)) {
                 return;
             }
@@ -15,10 +15,13 @@
  */
 package org.onosproject.provider.of.flow.impl;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
@@ -28,6 +31,9 @@ import org.apache.felix.scr.annotations.Modified;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
@@ -110,6 +116,13 @@ public class OpenFlowRuleProvider extends AbstractProvider
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DriverService driverService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
+    // Maximum number of messages handed to a switch channel in one write,
+    // bounding the size of the buffer they are encoded into
+    private static final int MAX_MESSAGES_PER_WRITE = 1000;
+
     private static final int DEFAULT_POLL_FREQUENCY = 5;
     @Property(name = "flowPollFrequency", intValue = DEFAULT_POLL_FREQUENCY,
             label = "Frequency (in seconds) for polling flow statistics")
@@ -126,6 +139,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
     private Cache<Long, InternalCacheEntry> pendingBatches;
 
+    private Meter flowModRate;
+    private Counter batchWrites;
+
     private final Timer timer = new Timer("onos-openflow-collector");
     private final Map<Dpid, FlowStatsCollector> simpleCollectors = Maps.newHashMap();
 
@@ -151,6 +167,7 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
         pendingBatches = createBatchCache();
 
+        registerMetrics();
         createCollectors();
 
         log.info("Started with flowPollFrequency = {}, adaptiveFlowSampling = {}",
@@ -201,6 +218,16 @@ public class OpenFlowRuleProvider extends AbstractProvider
         log.info("Settings: adaptiveFlowSampling={}", adaptiveFlowSampling);
     }
 
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent("OpenFlowRuleProvider");
+        MetricsFeature feature = component.registerFeature("batch");
+        flowModRate = metricsService.createMeter(component, feature, "flowMods");
+        batchWrites = metricsService.createCounter(component, feature, "writes");
+    }
+
     private Cache<Long, InternalCacheEntry> createBatchCache() {
         return CacheBuilder.newBuilder()
                 .expireAfterWrite(10, TimeUnit.SECONDS)
@@ -343,14 +370,15 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
         Dpid dpid = Dpid.dpid(batch.deviceId().uri());
         OpenFlowSwitch sw = controller.getSwitch(dpid);
+        List<OFMessage> messages = Lists.newArrayListWithCapacity(batch.size() + 1);
+        int flowMods = 0;
         OFFlowMod mod;
         for (FlowRuleBatchEntry fbe : batch.getOperations()) {
             // flow is the third party privacy flow
 
             FlowRuleExtPayLoad flowRuleExtPayLoad = fbe.target().payLoad();
             if (hasPayload(flowRuleExtPayLoad)) {
-                OFMessage msg = new ThirdPartyMessage(flowRuleExtPayLoad.payLoad());
-                sw.sendMsg(msg);
+                messages.add(new ThirdPartyMessage(flowRuleExtPayLoad.payLoad()));
                 continue;
             }
             FlowModBuilder builder =
@@ -385,11 +413,27 @@ public class OpenFlowRuleProvider extends AbstractProvider
                             fbe.operator(), fbe);
                     continue;
             }
-            sw.sendMsg(mod);
+            messages.add(mod);
+            flowMods++;
         }
         OFBarrierRequest.Builder builder = sw.factory().buildBarrierRequest()
                 .setXid(batch.id());
-        sw.sendMsg(builder.build());
+        messages.add(builder.build());
+        write(sw, messages);
+        if (flowModRate != null) {
+            flowModRate.mark(flowMods);
+        }
+    }
+
+    // Writes the messages of a batch to the switch in as few writes as
+    // possible, rather than one write per message.
+    private void write(OpenFlowSwitch sw, List<OFMessage> messages) {
+        for (List<OFMessage> chunk : Lists.partition(messages, MAX_MESSAGES_PER_WRITE)) {
+            sw.sendMsg(chunk);
+            if (batchWrites != null) {
+                batchWrites.inc();
+            }
+        }
     }
 
     private boolean hasPayload(FlowRuleExtPayLoad flowRuleExtPayLoad) {
@@ -154,15 +154,17 @@ public class OpenFlowPacketProvider extends AbstractProvider implements PacketPr
         public void handlePacket(OpenFlowPacketContext pktCtx) {
             DeviceId id = DeviceId.deviceId(Dpid.uri(pktCtx.dpid().value()));
 
+            // Parse the packet only once a processor asks for it; most of
+            // them only look at the Ethernet header.
+            byte[] data = pktCtx.unparsed();
             DefaultInboundPacket inPkt = new DefaultInboundPacket(
                     new ConnectPoint(id, PortNumber.portNumber(pktCtx.inPort())),
-                    pktCtx.parsed(), ByteBuffer.wrap(pktCtx.unparsed()),
-                    pktCtx.cookie());
+                    ByteBuffer.wrap(data), pktCtx.cookie());
 
             DefaultOutboundPacket outPkt = null;
             if (!pktCtx.isBuffered()) {
                 outPkt = new DefaultOutboundPacket(id, null,
-                        ByteBuffer.wrap(pktCtx.unparsed()));
+                        ByteBuffer.wrap(data));
             }
 
             OpenFlowCorePacketContext corePktCtx =
@@ -220,33 +220,58 @@ public abstract class AbstractGraphPathSearch<V extends Vertex, E extends Edge<V
             for (V v : destinations) {
                 // Ignore the source, if it is among the destinations.
                 if (!v.equals(src)) {
-                    buildAllPaths(this, src, v, maxPaths);
+                    buildAllPaths(parents, cost(v), src, v, maxPaths, paths);
                 }
             }
         }
 
     }
 
+    /**
+     * Builds the set of paths to the given destination from the parent edges
+     * and vertex costs of a search result, typically one obtained by
+     * searching without a specific destination. This allows a single search
+     * to serve paths towards any number of destinations.
+     *
+     * @param result   graph search result
+     * @param dst      destination vertex
+     * @param maxPaths limit on the number of paths built;
+     *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @return set of paths; empty if the destination was not reached
+     */
+    public Set<Path<V, E>> paths(Result<V, E> result, V dst, int maxPaths) {
+        checkNotNull(dst, "Destination cannot be null");
+        Set<Path<V, E>> paths = new HashSet<>();
+        Double cost = result.costs().get(dst);
+        if (cost != null && !dst.equals(result.src())) {
+            buildAllPaths(result.parents(), cost, result.src(), dst, maxPaths, paths);
+        }
+        return paths;
+    }
+
     /**
      * Builds a set of all paths between the source and destination using the
      * graph search result by applying breadth-first search through the parent
      * edges and vertex costs.
      *
-     * @param result   graph search result
+     * @param parents  parent edges of each vertex
+     * @param cost     cost of reaching the destination
      * @param src      source vertex
      * @param dst      destination vertex
      * @param maxPaths limit on the number of paths built;
      *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @param paths    set to which the paths are added
      */
-    private void buildAllPaths(DefaultResult result, V src, V dst, int maxPaths) {
+    private void buildAllPaths(Map<V, Set<E>> parents, double cost, V src, V dst,
+                               int maxPaths, Set<Path<V, E>> paths) {
         DefaultMutablePath<V, E> basePath = new DefaultMutablePath<>();
-        basePath.setCost(result.cost(dst));
+        basePath.setCost(cost);
 
         Set<DefaultMutablePath<V, E>> pendingPaths = new HashSet<>();
         pendingPaths.add(basePath);
 
         while (!pendingPaths.isEmpty() &&
-                (maxPaths == ALL_PATHS || result.paths.size() < maxPaths)) {
+                (maxPaths == ALL_PATHS || paths.size() < maxPaths)) {
             Set<DefaultMutablePath<V, E>> frontier = new HashSet<>();
 
             for (DefaultMutablePath<V, E> path : pendingPaths) {
@@ -257,15 +282,15 @@ public abstract class AbstractGraphPathSearch<V extends Vertex, E extends Edge<V
                 // If the first vertex is our expected source, we have reached
                 // the beginning, so add the this path to the result paths.
                 if (firstVertex.equals(src)) {
-                    path.setCost(result.cost(dst));
-                    result.paths.add(new DefaultPath<>(path.edges(), path.cost()));
+                    path.setCost(cost);
+                    paths.add(new DefaultPath<>(path.edges(), path.cost()));
 
                 } else {
                     // If we have not reached the beginning, i.e. the source,
                     // fetch the set of edges leading to the first vertex of
                     // this pending path; if there are none, abandon processing
                     // this path for good.
-                    Set<E> firstVertexParents = result.parents.get(firstVertex);
+                    Set<E> firstVertexParents = parents.get(firstVertex);
                     if (firstVertexParents == null || firstVertexParents.isEmpty()) {
                         break;
                     }
@@ -30,6 +30,37 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
     public Result<V, E> search(Graph<V, E> graph, V src, V dst,
                                EdgeWeight<V, E> weight, int maxPaths) {
         checkArguments(graph, src, dst);
+        DefaultResult result = searchCosts(graph, src, dst, weight, maxPaths);
+
+        // Now construct a set of paths from the results.
+        result.buildPaths();
+        return result;
+    }
+
+    /**
+     * Searches the specified graph for the tree of shortest paths from the
+     * given source to all other vertexes. Unlike a search with no
+     * destination, no paths are built; paths to individual destinations can
+     * be obtained from the returned tree using
+     * {@link #paths(GraphPathSearch.Result, Vertex, int)}.
+     *
+     * @param graph    graph to be searched
+     * @param src      source vertex
+     * @param weight   optional edge-weight; if null cost of each edge will be
+     *                 assumed to be 1.0
+     * @param maxPaths limit on number of parent edges retained per vertex;
+     *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @return search result with costs and parent edges, but no paths
+     */
+    public Result<V, E> searchTree(Graph<V, E> graph, V src,
+                                   EdgeWeight<V, E> weight, int maxPaths) {
+        checkArguments(graph, src, null);
+        return searchCosts(graph, src, null, weight, maxPaths);
+    }
+
+    // Computes the costs of and parent edges leading to each vertex.
+    private DefaultResult searchCosts(Graph<V, E> graph, V src, V dst,
+                                      EdgeWeight<V, E> weight, int maxPaths) {
 
         // Use the default result to remember cumulative costs and parent
         // edges to each each respective vertex.
@@ -39,7 +70,6 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
         result.updateVertex(src, null, 0.0, false);
 
         if (graph.getEdges().isEmpty()) {
-            result.buildPaths();
             return result;
         }
 
@@ -67,9 +97,6 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
             // Re-prioritize the min queue.
             minQueue.heapify();
         }
-
-        // Now construct a set of paths from the results.
-        result.buildPaths();
         return result;
     }
 
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static org.onlab.packet.Ethernet.DATALAYER_ADDRESS_LENGTH;
+import static org.onlab.packet.Ethernet.ETHERNET_HEADER_LENGTH;
+import static org.onlab.packet.Ethernet.TYPE_VLAN;
+import static org.onlab.packet.Ethernet.VLAN_HEADER_LENGTH;
+
+/**
+ * Flyweight view over the raw bytes of an Ethernet frame.
+ * <p>
+ * Header fields are read from the underlying buffer on demand, without
+ * copying the frame or decoding its payload. The full {@link Ethernet}
+ * packet tree is only built when {@link #parse()} is called, which makes
+ * the view suitable for dispatching packets on their L2 headers.
+ * </p>
+ */
+public final class EthernetView {
+
+    private static final int ETHER_TYPE_OFFSET = 2 * DATALAYER_ADDRESS_LENGTH;
+    private static final int TCI_OFFSET = ETHER_TYPE_OFFSET + 2;
+
+    private final ByteBuffer frame;
+    private final boolean tagged;
+
+    private EthernetView(ByteBuffer frame, boolean tagged) {
+        this.frame = frame;
+        this.tagged = tagged;
+    }
+
+    /**
+     * Returns a view over the Ethernet frame held by the remaining bytes of
+     * the given buffer. The buffer position and limit are left untouched;
+     * its content must not change while the view is in use.
+     *
+     * @param buffer buffer holding the frame
+     * @return Ethernet frame view; null if the buffer is too short to hold
+     * an Ethernet header
+     */
+    public static EthernetView valueOf(ByteBuffer buffer) {
+        ByteBuffer frame = buffer.slice();
+        if (frame.remaining() < ETHERNET_HEADER_LENGTH) {
+            return null;
+        }
+        boolean tagged = frame.getShort(ETHER_TYPE_OFFSET) == TYPE_VLAN;
+        if (tagged && frame.remaining() < ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH) {
+            return null;
+        }
+        return new EthernetView(frame, tagged);
+    }
+
+    /**
+     * Returns a view over the given Ethernet frame bytes.
+     *
+     * @param data frame bytes
+     * @return Ethernet frame view; null if the data is too short to hold an
+     * Ethernet header
+     */
+    public static EthernetView valueOf(byte[] data) {
+        return valueOf(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Returns the destination MAC address.
+     *
+     * @return destination MAC address
+     */
+    public MacAddress getDestinationMAC() {
+        return macAt(0);
+    }
+
+    /**
+     * Returns the source MAC address.
+     *
+     * @return source MAC address
+     */
+    public MacAddress getSourceMAC() {
+        return macAt(DATALAYER_ADDRESS_LENGTH);
+    }
+
+    /**
+     * Returns the Ethernet type of the payload, following the VLAN tag if
+     * there is one.
+     *
+     * @return Ethernet type
+     */
+    public short getEtherType() {
+        return frame.getShort(tagged ? TCI_OFFSET + 2 : ETHER_TYPE_OFFSET);
+    }
+
+    /**
+     * Returns the VLAN identifier.
+     *
+     * @return VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if the frame
+     * is not tagged
+     */
+    public short getVlanID() {
+        return tagged ? (short) (frame.getShort(TCI_OFFSET) & 0x0fff) : Ethernet.VLAN_UNTAGGED;
+    }
+
+    /**
+     * Returns the VLAN priority code point.
+     *
+     * @return priority code; 0 if the frame is not tagged
+     */
+    public byte getPriorityCode() {
+        return tagged ? (byte) (frame.getShort(TCI_OFFSET) >> 13 & 0x07) : 0;
+    }
+
+    /**
+     * Indicates whether the destination MAC address is a broadcast address.
+     *
+     * @return true if broadcast
+     */
+    public boolean isBroadcast() {
+        return getDestinationMAC().isBroadcast();
+    }
+
+    /**
+     * Indicates whether the destination MAC address is a multicast address.
+     *
+     * @return true if multicast
+     */
+    public boolean isMulticast() {
+        return (frame.get(0) & 0x01) != 0;
+    }
+
+    /**
+     * Returns a read-only buffer over the frame payload, sharing the bytes
+     * of the frame.
+     *
+     * @return payload buffer
+     */
+    public ByteBuffer payload() {
+        ByteBuffer payload = frame.asReadOnlyBuffer();
+        payload.position(headerLength());
+        return payload.slice();
+    }
+
+    /**
+     * Decodes the whole frame, including its payload.
+     *
+     * @return Ethernet packet
+     * @throws DeserializationException if the frame cannot be decoded
+     */
+    public Ethernet parse() throws DeserializationException {
+        if (frame.hasArray()) {
+            return Ethernet.deserializer().deserialize(frame.array(), frame.arrayOffset(), frame.remaining());
+        }
+        byte[] data = new byte[frame.remaining()];
+        frame.duplicate().get(data);
+        return Ethernet.deserializer().deserialize(data, 0, data.length);
+    }
+
+    private int headerLength() {
+        return tagged ? ETHERNET_HEADER_LENGTH + VLAN_HEADER_LENGTH : ETHERNET_HEADER_LENGTH;
+    }
+
+    private MacAddress macAt(int offset) {
+        long address = 0;
+        for (int i = offset; i < offset + DATALAYER_ADDRESS_LENGTH; i++) {
+            address = (address << 8) | (frame.get(i) & 0xff);
+        }
+        return MacAddress.valueOf(address);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("dst", getDestinationMAC())
+                .add("src", getSourceMAC())
+                .add("vlan", getVlanID())
+                .add("etherType", String.format("0x%04x", getEtherType()))
+                .add("length", frame.remaining())
+                .toString();
+    }
+}
@@ -21,6 +21,7 @@ import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.pool.KryoCallback;
 import com.esotericsoftware.kryo.pool.KryoFactory;
 import com.esotericsoftware.kryo.pool.KryoPool;
@@ -68,7 +69,12 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     private static final Logger log = getLogger(KryoNamespace.class);
 
+    // Output buffers larger than this are not kept for reuse by the thread.
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
 
+    // Per-thread output buffer reused by serialize(Object); taken out while
+    // in use so that nested serialization falls back to a fresh buffer.
+    private static final ThreadLocal<Output> OUTPUT = new ThreadLocal<>();
 
     private final KryoPool pool = new KryoPool.Builder(this)
                                         .softReferences()
@@ -79,6 +85,10 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     private final boolean registrationRequired;
     private final String friendlyName;
 
+    // Registration blocks with ids resolved by the first Kryo instance
+    // created, replayed without further checks on the following ones.
+    private volatile ImmutableList<RegistrationBlock> snapshot;
+
 
     /**
      * KryoNamespace builder.
@@ -254,6 +264,8 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     /**
      * Serializes given object to byte array using Kryo instance in pool.
+     * The object is written into an output buffer reused by the calling
+     * thread, so only the returned array is allocated.
      * <p>
      * Note: Serialized bytes must be smaller than {@link #MAX_BUFFER_SIZE}.
      *
@@ -261,7 +273,23 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj) {
-        return serialize(obj, DEFAULT_BUFFER_SIZE);
+        Output out = OUTPUT.get();
+        if (out == null) {
+            out = new Output(DEFAULT_BUFFER_SIZE, MAX_BUFFER_SIZE);
+        } else {
+            OUTPUT.remove();
+            out.clear();
+        }
+        Kryo kryo = borrow();
+        try {
+            kryo.writeClassAndObject(out, obj);
+            return out.toBytes();
+        } finally {
+            release(kryo);
+            if (out.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+                OUTPUT.set(out);
+            }
+        }
     }
 
     /**
@@ -420,15 +448,34 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
         kryo.setInstantiatorStrategy(
                 new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
 
+        List<RegistrationBlock> resolved = snapshot;
+        if (resolved != null) {
+            // ids were resolved and checked for conflicts already
+            for (RegistrationBlock block : resolved) {
+                int id = block.begin();
+                for (Pair<Class<?>, Serializer<?>> entry : block.types()) {
+                    if (entry.getRight() == null) {
+                        kryo.register(entry.getLeft(), id++);
+                    } else {
+                        kryo.register(entry.getLeft(), entry.getRight(), id++);
+                    }
+                }
+            }
+            return kryo;
+        }
+
+        List<RegistrationBlock> blocks = new ArrayList<>(registeredBlocks.size());
         for (RegistrationBlock block : registeredBlocks) {
             int id = block.begin();
             if (id == FLOATING_ID) {
                 id = kryo.getNextRegistrationId();
             }
+            blocks.add(new RegistrationBlock(id, block.types()));
             for (Pair<Class<?>, Serializer<?>> entry : block.types()) {
                 register(kryo, entry.getLeft(), entry.getRight(), id++);
             }
         }
+        snapshot = ImmutableList.copyOf(blocks);
         return kryo;
     }
 
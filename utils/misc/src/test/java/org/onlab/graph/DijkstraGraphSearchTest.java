@@ -111,6 +111,31 @@ public class DijkstraGraphSearchTest extends BreadthFirstSearchTest {
         executeSinglePathSearch(graphSearch(), graph, A, E, weight, 1, 3.0);
     }
 
+    @Test
+    public void pathsFromTree() {
+        graph = new AdjacencyListsGraph<>(of(A, B, C, D, E, F, G, H),
+                                          of(new TestEdge(A, B, 1), new TestEdge(A, C, 3),
+                                             new TestEdge(B, D, 2), new TestEdge(B, C, 1),
+                                             new TestEdge(B, E, 4), new TestEdge(C, E, 1),
+                                             new TestEdge(D, H, 5), new TestEdge(D, E, 1),
+                                             new TestEdge(E, F, 1), new TestEdge(F, D, 1),
+                                             new TestEdge(F, G, 1), new TestEdge(F, H, 1),
+                                             new TestEdge(A, E, 3), new TestEdge(B, D, 1)));
+        DijkstraGraphSearch<TestVertex, TestEdge> search = new DijkstraGraphSearch<>();
+        GraphPathSearch.Result<TestVertex, TestEdge> tree =
+                search.searchTree(graph, A, weight, GraphPathSearch.ALL_PATHS);
+        assertEquals("tree should have no paths", 0, tree.paths().size());
+
+        // paths extracted from the tree must match those of dedicated searches
+        for (TestVertex dst : of(B, C, D, E, F, G, H)) {
+            assertEquals("incorrect paths to " + dst,
+                         search.search(graph, A, dst, weight, GraphPathSearch.ALL_PATHS).paths(),
+                         search.paths(tree, dst, GraphPathSearch.ALL_PATHS));
+        }
+        assertEquals("incorrect paths count", 1, search.paths(tree, E, 1).size());
+        assertEquals("no paths expected", 0, search.paths(tree, A, GraphPathSearch.ALL_PATHS).size());
+    }
+
     @Test
     public void negativeWeights() {
         graph = new AdjacencyListsGraph<>(of(A, B, C, D, E, F, G),
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onlab.packet;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the EthernetView class.
+ */
+public class EthernetViewTest {
+
+    private static final MacAddress DST = MacAddress.valueOf("01:00:5e:00:00:01");
+    private static final MacAddress SRC = MacAddress.valueOf("aa:bb:cc:dd:ee:ff");
+    private static final byte[] PAYLOAD = {1, 2, 3, 4};
+    // Local experimental type, so that the payload is decoded as raw data
+    private static final short ETH_TYPE = (short) 0x88b5;
+
+    private Ethernet frame(short vlan) {
+        Ethernet eth = new Ethernet();
+        eth.setDestinationMACAddress(DST)
+                .setSourceMACAddress(SRC)
+                .setVlanID(vlan)
+                .setEtherType(ETH_TYPE)
+                .setPriorityCode((byte) 5)
+                .setPayload(new Data(PAYLOAD));
+        return eth;
+    }
+
+    @Test
+    public void testUntagged() {
+        EthernetView view = EthernetView.valueOf(frame(Ethernet.VLAN_UNTAGGED).serialize());
+
+        assertEquals(DST, view.getDestinationMAC());
+        assertEquals(SRC, view.getSourceMAC());
+        assertEquals(Ethernet.VLAN_UNTAGGED, view.getVlanID());
+        assertEquals(ETH_TYPE, view.getEtherType());
+        assertTrue(view.isMulticast());
+        assertFalse(view.isBroadcast());
+        assertEquals(ByteBuffer.wrap(PAYLOAD), view.payload());
+    }
+
+    @Test
+    public void testTagged() {
+        EthernetView view = EthernetView.valueOf(frame((short) 10).serialize());
+
+        assertEquals(10, view.getVlanID());
+        assertEquals(5, view.getPriorityCode());
+        assertEquals(ETH_TYPE, view.getEtherType());
+        assertEquals(ByteBuffer.wrap(PAYLOAD), view.payload());
+    }
+
+    @Test
+    public void testOffsetBuffer() throws Exception {
+        byte[] bytes = frame((short) 10).serialize();
+        byte[] padded = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded);
+        buffer.position(3);
+
+        EthernetView view = EthernetView.valueOf(buffer);
+        assertEquals(3, buffer.position());
+        assertEquals(SRC, view.getSourceMAC());
+
+        Ethernet eth = view.parse();
+        assertEquals(10, eth.getVlanID());
+        assertEquals(ETH_TYPE, eth.getEtherType());
+        assertArrayEquals(bytes, eth.serialize());
+    }
+
+    @Test
+    public void testTruncated() {
+        assertNull(EthernetView.valueOf(new byte[Ethernet.ETHERNET_HEADER_LENGTH - 1]));
+
+        byte[] tagged = frame((short) 10).serialize();
+        byte[] truncated = new byte[Ethernet.ETHERNET_HEADER_LENGTH];
+        System.arraycopy(tagged, 0, truncated, 0, truncated.length);
+        assertNull(EthernetView.valueOf(truncated));
+    }
+}